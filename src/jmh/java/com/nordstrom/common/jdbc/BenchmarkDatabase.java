@@ -0,0 +1,125 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+
+/**
+ * This benchmark state creates an in-memory Derby database with a populated table and a varargs stored procedure.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    static final int ROW_COUNT = 1000;
+
+    @Setup(Level.Trial)
+    public void create() throws SQLException {
+        Connection conn = DriverManager.getConnection(BenchQuery.connection() + ";create=true");
+        conn.close();
+
+        DatabaseUtils.update(BenchQuery.CREATE);
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= ROW_COUNT; id++) {
+            rows.add(new Object[] {id, "Name " + id, id});
+        }
+        DatabaseUtils.updateBatch(BenchQuery.INSERT, rows);
+        DatabaseUtils.update(BenchQuery.IN_VARARGS);
+    }
+
+    @TearDown(Level.Trial)
+    public void drop() {
+        ConnectionPool.closeAll();
+        try {
+            DriverManager.getConnection(BenchQuery.connection() + ";drop=true");
+        } catch (SQLException e) {
+            // expected: dropping a database reports an exception
+        }
+    }
+
+    enum BenchQuery implements QueryAPI {
+        CREATE("create table bench(id int primary key, name varchar(40), val int)"),
+        INSERT("insert into bench values (?, ?, ?)", "id", "name", "val"),
+        GET_NAME("select name from bench where id=?", "id"),
+        UPDATE("update bench set val=? where id=?", "val", "id"),
+        SELECT_RANGE("select id, name, val from bench where id between ? and ?", "fromId", "toId"),
+        IN_VARARGS("create procedure IN_VARARGS(out result varchar( 32672 ), b int ...) "
+                        + "language java parameter style derby no sql deterministic "
+                        + "external name 'com.nordstrom.common.jdbc.StoredProcedure.inVarargs'");
+
+        private String query;
+        private String[] args;
+
+        BenchQuery(String query, String... args) {
+            this.query = query;
+            this.args = args;
+        }
+
+        @Override
+        public String getQueryStr() {
+            return query;
+        }
+
+        @Override
+        public String[] getArgNames() {
+            return args;
+        }
+
+        @Override
+        public String getConnection() {
+            return connection();
+        }
+
+        @Override
+        public Enum<BenchQuery> getEnum() {
+            return this;
+        }
+
+        public static String connection() {
+            return "jdbc:derby:memory:BenchDB";
+        }
+    }
+
+    enum BenchSProc implements SProcAPI {
+        IN_VARARGS("IN_VARARGS(<, >:)", Types.VARCHAR, Types.INTEGER);
+
+        private int[] argTypes;
+        private String signature;
+
+        BenchSProc(String signature, int... argTypes) {
+            this.signature = signature;
+            this.argTypes = argTypes;
+        }
+
+        @Override
+        public String getSignature() {
+            return signature;
+        }
+
+        @Override
+        public int[] getArgTypes() {
+            return argTypes;
+        }
+
+        @Override
+        public String getConnection() {
+            return BenchQuery.connection();
+        }
+
+        @Override
+        public Enum<BenchSProc> getEnum() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.nordstrom.common.jdbc.BenchmarkDatabase.BenchQuery;
+import com.nordstrom.common.jdbc.BenchmarkDatabase.BenchSProc;
+
+/**
+ * These benchmarks measure the throughput of {@link DatabaseUtils} operations against an in-memory Derby database.
+ * Run them with <b>mvn -P benchmarks test-compile exec:exec</b>; allocation rates are reported by the GC profiler.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DatabaseUtilsBenchmark {
+
+    private static final int RANGE_SIZE = 100;
+
+    private static final RowMapper<String> NAME_MAPPER = new RowMapper<String>() {
+        @Override
+        public String mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+            return resultSet.getString(2);
+        }
+    };
+
+    @State(Scope.Thread)
+    public static class RowCursor {
+        private int id;
+
+        int next() {
+            id = (id % BenchmarkDatabase.ROW_COUNT) + 1;
+            return id;
+        }
+    }
+
+    @Benchmark
+    public String getString(BenchmarkDatabase database, RowCursor cursor) {
+        return DatabaseUtils.getString(BenchQuery.GET_NAME, cursor.next());
+    }
+
+    @Benchmark
+    public Object executeQuery(BenchmarkDatabase database, RowCursor cursor) {
+        return DatabaseUtils.executeQuery(String.class, BenchQuery.connection(), BenchQuery.GET_NAME.getQueryStr(),
+                        cursor.next());
+    }
+
+    @Benchmark
+    public int update(BenchmarkDatabase database, RowCursor cursor) {
+        int id = cursor.next();
+        return DatabaseUtils.update(BenchQuery.UPDATE, id, id);
+    }
+
+    @Benchmark
+    public String storedProcedureVarargs(BenchmarkDatabase database) {
+        return DatabaseUtils.getString(BenchSProc.IN_VARARGS, "", 5, 4, 3);
+    }
+
+    @Benchmark
+    public Object executeStoredProcedure(BenchmarkDatabase database) {
+        return DatabaseUtils.executeStoredProcedure(String.class, BenchSProc.IN_VARARGS, "", 5, 4, 3);
+    }
+
+    @Benchmark
+    public void iterateRows(BenchmarkDatabase database, RowCursor cursor, Blackhole blackhole) {
+        int fromId = cursor.next();
+        for (String name : DatabaseUtils.iterate(BenchQuery.SELECT_RANGE, RANGE_SIZE, NAME_MAPPER, fromId,
+                        fromId + RANGE_SIZE - 1)) {
+            blackhole.consume(name);
+        }
+    }
+}
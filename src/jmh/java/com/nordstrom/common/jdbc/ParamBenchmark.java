@@ -0,0 +1,74 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.regex.Matcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.nordstrom.common.jdbc.BenchmarkDatabase.BenchQuery;
+import com.nordstrom.common.jdbc.BenchmarkDatabase.BenchSProc;
+
+/**
+ * These benchmarks measure the cost of stored procedure signature parsing, call plan lookup, and parameter binding.
+ * Run them with <b>mvn -P benchmarks test-compile exec:exec</b>; allocation rates are reported by the GC profiler.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Thread)
+public class ParamBenchmark {
+
+    private PooledConnection connection;
+    private CallableStatement statement;
+    private Param[] params;
+
+    @Setup(Level.Trial)
+    public void prepare(BenchmarkDatabase database) throws SQLException {
+        connection = ConnectionPool.getPool(BenchQuery.connection()).borrow();
+        statement = connection.prepareCall(CallPlan.buildCallStr("IN_VARARGS", 4));
+        params = CallPlan.of(BenchSProc.IN_VARARGS).toParams("", 5, 4, 3);
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        connection.releaseStatement(statement);
+        connection.release();
+    }
+
+    @Benchmark
+    public void parseSignature(Blackhole blackhole) {
+        Matcher matcher = CallPlan.SPROC_PATTERN.matcher(BenchSProc.IN_VARARGS.getSignature());
+        if (matcher.matches()) {
+            blackhole.consume(matcher.group(1));
+            blackhole.consume(matcher.group(2).split(",\\s*"));
+        }
+    }
+
+    @Benchmark
+    public Param[] toParams() {
+        return CallPlan.of(BenchSProc.IN_VARARGS).toParams("", 5, 4, 3);
+    }
+
+    @Benchmark
+    public Param createParams() {
+        return Param.in(Types.INTEGER, 5);
+    }
+
+    @Benchmark
+    public void setParams() throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            params[i].set(statement, i + 1);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.nordstrom.common.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.nordstrom.common.base.UncheckedThrow;
+
+/**
+ * This utility class creates the executors that run the asynchronous operations of {@link DatabaseUtils}. Unless
+ * replaced with {@link DatabaseUtils#setAsyncExecutor(ExecutorService)}, the default executor is created on first use
+ * with settings drawn from the following system properties:
+ * <ul>
+ * <li>{@value #THREADS_PROPERTY} - number of worker threads of the bounded executor (default: {@value
+ *     ConnectionPool#DEFAULT_MAX_SIZE})</li>
+ * <li>{@value #QUEUE_PROPERTY} - capacity of the task queue of the bounded executor (default: {@value
+ *     #DEFAULT_QUEUE_CAPACITY})</li>
+ * <li>{@value #VIRTUAL_PROPERTY} - if {@code true} and the runtime supports virtual threads, run each task on its own
+ *     virtual thread instead (default: {@code false})</li>
+ * </ul>
+ * Tasks submitted to a bounded executor whose queue is full are rejected with a {@link
+ * java.util.concurrent.RejectedExecutionException RejectedExecutionException}.
+ */
+public final class AsyncExecutors {
+
+    /** system property: worker threads of the default executor */
+    public static final String THREADS_PROPERTY = "java-utils.jdbc.async.threads";
+    /** system property: task queue capacity of the default executor */
+    public static final String QUEUE_PROPERTY = "java-utils.jdbc.async.queueCapacity";
+    /** system property: use virtual threads for the default executor */
+    public static final String VIRTUAL_PROPERTY = "java-utils.jdbc.async.virtualThreads";
+
+    /** default task queue capacity */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    private static final Method VIRTUAL_FACTORY = getVirtualFactory();
+
+    private AsyncExecutors() {
+        throw new AssertionError("AsyncExecutors is a static utility class that cannot be instantiated");
+    }
+
+    /**
+     * Create the default executor, as specified by system properties.
+     *
+     * @return default executor for asynchronous operations
+     */
+    static ExecutorService newDefaultExecutor() {
+        if (Boolean.getBoolean(VIRTUAL_PROPERTY) && isVirtualThreadSupported()) {
+            return newVirtualThreadExecutor();
+        }
+        return newBoundedExecutor(Integer.getInteger(THREADS_PROPERTY, ConnectionPool.DEFAULT_MAX_SIZE),
+                        Integer.getInteger(QUEUE_PROPERTY, DEFAULT_QUEUE_CAPACITY));
+    }
+
+    /**
+     * Create an executor with a fixed number of daemon worker threads and a bounded task queue. Tasks submitted when
+     * the queue is full are rejected.
+     *
+     * @param threads number of worker threads
+     * @param queueCapacity capacity of the task queue
+     * @return new bounded executor
+     */
+    public static ExecutorService newBoundedExecutor(int threads, int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<Runnable>(queueCapacity), new DaemonThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Determine if the current runtime supports virtual threads.
+     *
+     * @return {@code true} if virtual threads are supported; otherwise {@code false}
+     */
+    public static boolean isVirtualThreadSupported() {
+        return (VIRTUAL_FACTORY != null);
+    }
+
+    /**
+     * Create an executor that runs each task on its own virtual thread.
+     *
+     * @return new virtual-thread executor
+     * @throws UnsupportedOperationException if the current runtime doesn't support virtual threads
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        if (VIRTUAL_FACTORY == null) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this runtime");
+        }
+        try {
+            return (ExecutorService) VIRTUAL_FACTORY.invoke(null);
+        } catch (InvocationTargetException e) {
+            throw UncheckedThrow.throwUnchecked(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+    }
+
+    /**
+     * Get the factory method for virtual-thread executors, if the current runtime provides one.
+     *
+     * @return {@code Executors.newVirtualThreadPerTaskExecutor} method; {@code null} if unavailable
+     */
+    private static Method getVirtualFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * This thread factory creates named daemon threads for asynchronous database operations.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+        private final AtomicInteger threadNumber = new AtomicInteger();
+        private final String prefix = "DatabaseUtils-async-" + POOL_NUMBER.incrementAndGet() + "-";
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,582 @@
+package com.nordstrom.common.jdbc;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.nordstrom.common.base.UncheckedThrow;
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+
+/**
+ * This class loads delimited text files (e.g. - CSV or TSV) into a database through a {@link QueryAPI} insert
+ * statement. The file is parsed in streaming fashion, and records are grouped into batches that are executed by
+ * several writer threads in parallel, each on its own pooled connection. Parsed batches are handed to the writers
+ * through a bounded queue, so parsing pauses when the writers fall behind and memory use stays bounded.
+ * <pre>
+ * BulkLoader.Result result = new BulkLoader(OpctValues.INSERT_USER)
+ *         .setDelimiter('\t').setWriterCount(4).setErrorPolicy(ErrorPolicy.DEAD_LETTER)
+ *         .setDeadLetterFile(Paths.get("rejected.tsv")).load(Paths.get("users.tsv"));
+ * </pre>
+ * By default, the first record of the file is a header whose field names are matched (ignoring case) to the argument
+ * names of the query. Without a header, fields are mapped to query arguments by position. For other mappings (or to
+ * convert field values), supply a {@link RecordMapper}.
+ * <p>
+ * Each batch is committed when it completes. If a batch fails, the {@link ErrorPolicy} determines whether its records
+ * are skipped, written to a dead-letter file, or cause the load to fail.
+ * <p>
+ * <b>NOTE</b>: Instances of this class are not thread-safe; configure a loader before calling {@link #load(Path)}.
+ */
+public final class BulkLoader {
+
+    /** default records per batch */
+    public static final int DEFAULT_BATCH_SIZE = DatabaseUtils.DEFAULT_BATCH_SIZE;
+    /** default writer thread count */
+    public static final int DEFAULT_WRITER_COUNT = 4;
+    /** default batches queued per writer */
+    public static final int DEFAULT_QUEUE_DEPTH = 2;
+
+    private static final List<Object[]> END = new ArrayList<>();
+
+    /**
+     * This enumeration defines the actions taken when a batch fails.
+     */
+    public enum ErrorPolicy {
+        /** skip the records of the failed batch and continue loading */
+        SKIP,
+        /** stop loading and throw the exception that caused the failure */
+        FAIL,
+        /** write the records of the failed batch to the dead-letter file and continue loading */
+        DEAD_LETTER
+    }
+
+    /**
+     * This interface defines the API of objects that convert the fields of a record into query arguments.
+     */
+    public interface RecordMapper {
+
+        /**
+         * Convert the specified record fields into query arguments.
+         *
+         * @param fields field values of the record
+         * @return replacement values for query place-holders
+         */
+        Object[] toArgs(String[] fields);
+    }
+
+    private final QueryAPI query;
+    private char delimiter = ',';
+    private Charset charset = StandardCharsets.UTF_8;
+    private boolean hasHeader = true;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int writerCount = DEFAULT_WRITER_COUNT;
+    private int queueDepth = DEFAULT_QUEUE_DEPTH;
+    private ErrorPolicy errorPolicy = ErrorPolicy.FAIL;
+    private Path deadLetterFile;
+    private RecordMapper mapper;
+
+    /**
+     * Constructor for a bulk loader object
+     *
+     * @param query insert query object
+     */
+    public BulkLoader(QueryAPI query) {
+        this.query = query;
+    }
+
+    /**
+     * Set the field delimiter (default: comma).
+     *
+     * @param delimiter field delimiter
+     * @return this bulk loader
+     */
+    public BulkLoader setDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Set the character set of input files (default: UTF-8).
+     *
+     * @param charset input character set
+     * @return this bulk loader
+     */
+    public BulkLoader setCharset(Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * Specify whether the first record of input files is a header (default: {@code true}).
+     *
+     * @param hasHeader {@code true} if input files have a header record
+     * @return this bulk loader
+     */
+    public BulkLoader setHasHeader(boolean hasHeader) {
+        this.hasHeader = hasHeader;
+        return this;
+    }
+
+    /**
+     * Set the number of records per batch (default: {@value #DEFAULT_BATCH_SIZE}).
+     *
+     * @param batchSize records per batch
+     * @return this bulk loader
+     */
+    public BulkLoader setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive; specified: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Set the number of writer threads (default: {@value #DEFAULT_WRITER_COUNT}).
+     *
+     * @param writerCount writer thread count
+     * @return this bulk loader
+     */
+    public BulkLoader setWriterCount(int writerCount) {
+        if (writerCount < 1) {
+            throw new IllegalArgumentException("Writer count must be positive; specified: " + writerCount);
+        }
+        this.writerCount = writerCount;
+        return this;
+    }
+
+    /**
+     * Set the number of parsed batches that can be queued per writer before parsing pauses (default: {@value
+     * #DEFAULT_QUEUE_DEPTH}).
+     *
+     * @param queueDepth batches queued per writer
+     * @return this bulk loader
+     */
+    public BulkLoader setQueueDepth(int queueDepth) {
+        if (queueDepth < 1) {
+            throw new IllegalArgumentException("Queue depth must be positive; specified: " + queueDepth);
+        }
+        this.queueDepth = queueDepth;
+        return this;
+    }
+
+    /**
+     * Set the action taken when a batch fails (default: {@link ErrorPolicy#FAIL FAIL}).
+     *
+     * @param errorPolicy {@link ErrorPolicy} constant
+     * @return this bulk loader
+     */
+    public BulkLoader setErrorPolicy(ErrorPolicy errorPolicy) {
+        this.errorPolicy = errorPolicy;
+        return this;
+    }
+
+    /**
+     * Set the file to which the records of failed batches are written under the {@link ErrorPolicy#DEAD_LETTER
+     * DEAD_LETTER} policy. Records are appended with the field delimiter of this loader.
+     *
+     * @param deadLetterFile dead-letter file path
+     * @return this bulk loader
+     */
+    public BulkLoader setDeadLetterFile(Path deadLetterFile) {
+        this.deadLetterFile = deadLetterFile;
+        return this;
+    }
+
+    /**
+     * Set the mapper that converts record fields into query arguments.
+     *
+     * @param mapper {@link RecordMapper} object; {@code null} to map by header names or position
+     * @return this bulk loader
+     */
+    public BulkLoader setRecordMapper(RecordMapper mapper) {
+        this.mapper = mapper;
+        return this;
+    }
+
+    /**
+     * Load the records of the specified file.
+     *
+     * @param file path of delimited text file
+     * @return {@link Result} object with record counts
+     * @throws IOException if the file can't be read or the dead-letter file can't be written
+     */
+    public Result load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, charset)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Load the records of the specified delimited text stream.
+     *
+     * @param reader source of delimited text
+     * @return {@link Result} object with record counts
+     * @throws IOException if the stream can't be read or the dead-letter file can't be written
+     */
+    public Result load(Reader reader) throws IOException {
+        if ((errorPolicy == ErrorPolicy.DEAD_LETTER) && (deadLetterFile == null)) {
+            throw new IllegalStateException("Dead-letter policy requires a dead-letter file");
+        }
+
+        Load load = new Load();
+        Thread[] writers = new Thread[writerCount];
+        for (int i = 0; i < writerCount; i++) {
+            writers[i] = new Thread(load, "BulkLoader-writer-" + (i + 1));
+            writers[i].setDaemon(true);
+            writers[i].start();
+        }
+
+        try {
+            load.parse(new DelimitedReader(reader, delimiter));
+        } finally {
+            for (int i = 0; i < writerCount; i++) {
+                load.put(END);
+            }
+            for (Thread writer : writers) {
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            load.closeDeadLetter();
+        }
+
+        Throwable failure = load.failure.get();
+        if (failure != null) {
+            throw UncheckedThrow.throwUnchecked(failure);
+        }
+        return new Result(load.recordCount.get(), load.loadedCount.get(), load.failedCount.get(),
+                        load.failedBatchCount.get());
+    }
+
+    /**
+     * This class holds the record counts of a completed load.
+     */
+    public static final class Result {
+
+        private final long recordCount;
+        private final long loadedCount;
+        private final long failedCount;
+        private final long failedBatchCount;
+
+        /**
+         * Constructor for a load result object
+         *
+         * @param recordCount number of records read
+         * @param loadedCount number of records loaded
+         * @param failedCount number of records skipped or dead-lettered
+         * @param failedBatchCount number of failed batches and rejected records
+         */
+        Result(long recordCount, long loadedCount, long failedCount, long failedBatchCount) {
+            this.recordCount = recordCount;
+            this.loadedCount = loadedCount;
+            this.failedCount = failedCount;
+            this.failedBatchCount = failedBatchCount;
+        }
+
+        /**
+         * Get the number of data records read (excluding the header).
+         *
+         * @return record count
+         */
+        public long getRecordCount() {
+            return recordCount;
+        }
+
+        /**
+         * Get the number of records loaded.
+         *
+         * @return loaded record count
+         */
+        public long getLoadedCount() {
+            return loadedCount;
+        }
+
+        /**
+         * Get the number of records that were skipped or written to the dead-letter file.
+         *
+         * @return failed record count
+         */
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        /**
+         * Get the number of batches that failed, including records rejected individually because their fields couldn't
+         * be mapped to query arguments.
+         *
+         * @return failed batch count
+         */
+        public long getFailedBatchCount() {
+            return failedBatchCount;
+        }
+    }
+
+    /**
+     * This class holds the state of a single load, and its {@link #run()} method is the body of each writer thread.
+     */
+    private class Load implements Runnable {
+
+        private final BlockingQueue<List<Object[]>> queue = new ArrayBlockingQueue<>(writerCount * queueDepth);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final AtomicLong recordCount = new AtomicLong();
+        private final AtomicLong loadedCount = new AtomicLong();
+        private final AtomicLong failedCount = new AtomicLong();
+        private final AtomicLong failedBatchCount = new AtomicLong();
+        private BufferedWriter deadLetter;
+
+        /**
+         * Parse the records of the specified reader into batches and queue them for the writers.
+         *
+         * @param reader delimited text reader
+         * @throws IOException if an I/O error occurs
+         */
+        void parse(DelimitedReader reader) throws IOException {
+            RecordMapper recordMapper = mapper;
+            String[] fields;
+            if (hasHeader && ((fields = reader.next()) != null) && (recordMapper == null)) {
+                recordMapper = new HeaderMapper(fields);
+            }
+            if (recordMapper == null) {
+                recordMapper = new PositionMapper();
+            }
+
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            List<String[]> records = new ArrayList<>(batchSize);
+            while ((failure.get() == null) && ((fields = reader.next()) != null)) {
+                if ((fields.length == 1) && fields[0].isEmpty()) {
+                    continue;
+                }
+                recordCount.incrementAndGet();
+                Object[] args;
+                try {
+                    args = recordMapper.toArgs(fields);
+                    DatabaseUtils.checkArgCount(query, args);
+                } catch (RuntimeException e) {
+                    handleFailure(e, new Object[][] {fields});
+                    continue;
+                }
+                batch.add(args);
+                records.add(fields);
+                if (batch.size() == batchSize) {
+                    put(tag(batch, records));
+                    batch = new ArrayList<>(batchSize);
+                    records = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                put(tag(batch, records));
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                List<Object[]> batch;
+                try {
+                    batch = queue.take();
+                } catch (InterruptedException e) {
+                    failure.compareAndSet(null, e);
+                    return;
+                }
+                if (batch == END) {
+                    return;
+                }
+                if (failure.get() != null) {
+                    continue;
+                }
+                Batch tagged = (Batch) batch;
+                try {
+                    DatabaseUtils.updateBatch(query, batchSize, 0, tagged);
+                    loadedCount.addAndGet(tagged.size());
+                } catch (Throwable t) {
+                    handleFailure(t, tagged.records);
+                }
+            }
+        }
+
+        /**
+         * Queue the specified batch, waiting for space if the queue is full.
+         *
+         * @param batch batch of query arguments
+         */
+        void put(List<Object[]> batch) {
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw UncheckedThrow.throwUnchecked(e);
+            }
+        }
+
+        /**
+         * Apply the error policy of this loader to the specified failed records.
+         *
+         * @param thrown exception that caused the failure
+         * @param records fields of the failed records
+         */
+        void handleFailure(Throwable thrown, Object[][] records) {
+            failedBatchCount.incrementAndGet();
+            switch (errorPolicy) {
+                case FAIL:
+                    failure.compareAndSet(null, thrown);
+                    break;
+                case DEAD_LETTER:
+                    try {
+                        writeDeadLetter(records);
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, e);
+                        break;
+                    }
+                    failedCount.addAndGet(records.length);
+                    break;
+                default:
+                    failedCount.addAndGet(records.length);
+                    break;
+            }
+        }
+
+        /**
+         * Append the specified records to the dead-letter file.
+         *
+         * @param records fields of the failed records
+         * @throws IOException if the dead-letter file can't be written
+         */
+        synchronized void writeDeadLetter(Object[][] records) throws IOException {
+            if (deadLetter == null) {
+                deadLetter = Files.newBufferedWriter(deadLetterFile, charset, StandardOpenOption.CREATE,
+                                StandardOpenOption.APPEND);
+            }
+            for (Object[] record : records) {
+                deadLetter.write(DelimitedReader.format((String[]) record, delimiter));
+                deadLetter.newLine();
+            }
+        }
+
+        /**
+         * Close the dead-letter file.
+         *
+         * @throws IOException if the dead-letter file can't be flushed
+         */
+        synchronized void closeDeadLetter() throws IOException {
+            if (deadLetter != null) {
+                deadLetter.close();
+                deadLetter = null;
+            }
+        }
+
+        /**
+         * Create a batch that retains the source records of its arguments for dead-lettering.
+         *
+         * @param batch batch of query arguments
+         * @param records source records of the arguments
+         * @return tagged batch
+         */
+        private Batch tag(List<Object[]> batch, List<String[]> records) {
+            return new Batch(batch, records.toArray(new String[records.size()][]));
+        }
+    }
+
+    /**
+     * This class defines a batch of query arguments along with the records from which they were parsed.
+     */
+    @SuppressWarnings("serial")
+    private static final class Batch extends ArrayList<Object[]> {
+
+        private final String[][] records;
+
+        /**
+         * Constructor for a batch object
+         *
+         * @param args query arguments of each record
+         * @param records source records
+         */
+        Batch(List<Object[]> args, String[][] records) {
+            super(args);
+            this.records = records;
+        }
+    }
+
+    /**
+     * This record mapper maps header field names to query argument names, ignoring case.
+     */
+    private class HeaderMapper implements RecordMapper {
+
+        private final int[] indexes;
+
+        /**
+         * Constructor for a header mapper object
+         *
+         * @param header field names from the header record
+         */
+        HeaderMapper(String[] header) {
+            String[] argNames = query.getArgNames();
+            indexes = new int[argNames.length];
+            for (int i = 0; i < argNames.length; i++) {
+                indexes[i] = -1;
+                for (int j = 0; j < header.length; j++) {
+                    if (header[j].trim().toLowerCase(Locale.ROOT).equals(argNames[i].toLowerCase(Locale.ROOT))) {
+                        indexes[i] = j;
+                        break;
+                    }
+                }
+                if (indexes[i] < 0) {
+                    throw new IllegalArgumentException(
+                                    "Header has no field for argument '" + argNames[i] + "' of " + query.getEnum().name());
+                }
+            }
+        }
+
+        @Override
+        public Object[] toArgs(String[] fields) {
+            Object[] args = new Object[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                args[i] = toValue(fields[indexes[i]]);
+            }
+            return args;
+        }
+    }
+
+    /**
+     * This record mapper maps fields to query arguments by position.
+     */
+    private class PositionMapper implements RecordMapper {
+
+        @Override
+        public Object[] toArgs(String[] fields) {
+            int count = query.getArgNames().length;
+            if (fields.length < count) {
+                throw new IllegalArgumentException(String.format(
+                                "Record has %d fields; %s expects %d", fields.length, query.getEnum().name(), count));
+            }
+            Object[] args = new Object[count];
+            for (int i = 0; i < count; i++) {
+                args[i] = toValue(fields[i]);
+            }
+            return args;
+        }
+    }
+
+    /**
+     * Convert the specified field to a query argument. Empty fields are loaded as SQL {@code NULL}.
+     *
+     * @param field field value
+     * @return query argument
+     */
+    private static Object toValue(String field) {
+        return field.isEmpty() ? null : field;
+    }
+}
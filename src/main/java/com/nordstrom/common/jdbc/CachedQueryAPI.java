@@ -0,0 +1,27 @@
+package com.nordstrom.common.jdbc;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+
+/**
+ * This interface defines the API of query objects whose results are cached by {@link QueryCache}. Results of the
+ * {@code getInt}, {@code getString}, {@code getLong}, {@code getDouble}, and {@code getBoolean} methods of {@link
+ * DatabaseUtils} for these queries are cached by query constant, result type, and arguments for the specified
+ * time-to-live. Result packages, row iterators, and exports are never cached. Cached results are evicted when an
+ * {@link InvalidatingQueryAPI} query that writes one of the tables read by the query is executed.
+ */
+public interface CachedQueryAPI extends QueryAPI {
+
+    /**
+     * Get the time-to-live of cached results of this query.
+     *
+     * @return time-to-live (mS); 0 to disable caching for this query
+     */
+    long getTtlMillis();
+
+    /**
+     * Get the names of the tables read by this query.
+     *
+     * @return array of table names (case-insensitive)
+     */
+    String[] getReadTables();
+}
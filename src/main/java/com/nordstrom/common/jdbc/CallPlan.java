@@ -0,0 +1,274 @@
+package com.nordstrom.common.jdbc;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+import com.nordstrom.common.jdbc.Param.Mode;
+
+/**
+ * This class is an immutable call plan compiled from the signature and argument types of a {@link SProcAPI}
+ * constant. Plans are compiled once per constant and cached, so stored procedure calls can be validated and bound
+ * without parsing the signature or building the call string on each invocation.
+ * <p>
+ * The varargs of {@link PaddedVarArgsAPI} constants are padded up to the next power of two by repeating the last value,
+ * which limits the number of distinct call strings that are prepared.
+ */
+final class CallPlan {
+
+    static final Pattern SPROC_PATTERN =
+                    Pattern.compile("([\\p{Alpha}_][\\p{Alpha}\\p{Digit}@$#_]*)(?:\\(([<>=](?:,\\s*[<>=])*)?(:)?\\))?");
+
+    /** call strings are cached for parameter counts up to this value */
+    private static final int MAX_CACHED_ARITY = 64;
+
+    private static final ClassValue<AtomicReferenceArray<CallPlan>> PLANS =
+                    new ClassValue<AtomicReferenceArray<CallPlan>>() {
+        @Override
+        protected AtomicReferenceArray<CallPlan> computeValue(Class<?> type) {
+            return new AtomicReferenceArray<>(type.getEnumConstants().length);
+        }
+    };
+
+    private final String enumName;
+    private final String sprocName;
+    private final Mode[] modes;
+    private final int[] argTypes;
+    private final boolean hasVarArgs;
+    private final boolean padVarArgs;
+    private final int minCount;
+    private final AtomicReferenceArray<String> callStrs;
+
+    /**
+     * Constructor for a call plan object
+     *
+     * @param sproc stored procedure object
+     * @throws IllegalArgumentException if the signature is malformed or doesn't agree with the declared types
+     */
+    private CallPlan(SProcAPI sproc) {
+        String[] args = {};
+        String name = null;
+        boolean varArgs = false;
+        int[] types = sproc.getArgTypes().clone();
+        String signature = sproc.getSignature();
+        Matcher matcher = SPROC_PATTERN.matcher(signature);
+
+        enumName = sproc.getEnum().name();
+
+        String message = null;
+        if (matcher.matches()) {
+            name = matcher.group(1);
+            varArgs = (matcher.group(3) != null);
+            if (matcher.group(2) != null) {
+                args = matcher.group(2).split(",\\s*");
+            } else {
+                if (varArgs) {
+                    message = String.format("VarArgs indicated with no placeholder in signature for %s: %s",
+                            enumName, signature);
+                }
+            }
+        } else {
+            message = String.format("Unsupported stored procedure signature for %s: %s", enumName, signature);
+        }
+
+        if (message == null) {
+            // if unbalanced args/types
+            if (args.length != types.length) {
+                message = String.format(
+                                "Signature argument count differs from declared type count for %s%s: "
+                                                + "signature: %d; declared: %d",
+                                enumName, Arrays.toString(types), args.length, types.length);
+            }
+        }
+
+        if ((message == null) && varArgs && (sproc.getEnum() instanceof PaddedVarArgsAPI)
+                        && (Mode.fromChar(args[args.length - 1].charAt(0)) != Mode.IN)) {
+            message = String.format("Padded varargs must be IN parameters for %s: %s", enumName, signature);
+        }
+
+        if (message != null) {
+            throw new IllegalArgumentException(message);
+        }
+
+        Mode[] argModes = new Mode[args.length];
+        for (int i = 0; i < args.length; i++) {
+            argModes[i] = Mode.fromChar(args[i].charAt(0));
+        }
+
+        sprocName = name;
+        modes = argModes;
+        argTypes = types;
+        hasVarArgs = varArgs;
+        padVarArgs = varArgs && (sproc.getEnum() instanceof PaddedVarArgsAPI);
+        minCount = varArgs ? types.length - 1 : types.length;
+        callStrs = new AtomicReferenceArray<>(varArgs ? MAX_CACHED_ARITY + 1 : types.length + 1);
+        callStrs.set(minCount, buildCallStr(name, minCount));
+    }
+
+    /**
+     * Get the call plan for the specified stored procedure object, compiling it on first use.
+     *
+     * @param sproc stored procedure object
+     * @return call plan for the specified stored procedure object
+     * @throws IllegalArgumentException if the signature is malformed or doesn't agree with the declared types
+     */
+    static CallPlan of(SProcAPI sproc) {
+        Enum<? extends SProcAPI> constant = sproc.getEnum();
+        AtomicReferenceArray<CallPlan> plans = PLANS.get(constant.getDeclaringClass());
+        CallPlan plan = plans.get(constant.ordinal());
+        if (plan == null) {
+            plan = new CallPlan(sproc);
+            if (!plans.compareAndSet(constant.ordinal(), null, plan)) {
+                plan = plans.get(constant.ordinal());
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Get the name of the stored procedure of this plan.
+     *
+     * @return stored procedure name
+     */
+    String getSprocName() {
+        return sprocName;
+    }
+
+    /**
+     * Get the name of the enumerated constant from which this plan was compiled.
+     *
+     * @return enumerated constant name
+     */
+    String getEnumName() {
+        return enumName;
+    }
+
+    /**
+     * Determine if the stored procedure of this plan accepts varargs.
+     *
+     * @return {@code true} if the final declared argument is varargs; otherwise {@code false}
+     */
+    boolean hasVarArgs() {
+        return hasVarArgs;
+    }
+
+    /**
+     * Get the minimum number of parameters accepted by the stored procedure of this plan.
+     *
+     * @return minimum parameter count
+     */
+    int getMinCount() {
+        return minCount;
+    }
+
+    /**
+     * Get the mode of the parameter at the specified position. Positions beyond the declared arguments of a varargs
+     * stored procedure have the mode of the varargs argument.
+     *
+     * @param index parameter position (0-based)
+     * @return parameter {@link Mode mode}
+     */
+    Mode getMode(int index) {
+        return modes[Math.min(index, modes.length - 1)];
+    }
+
+    /**
+     * Get the type of the parameter at the specified position. Positions beyond the declared arguments of a varargs
+     * stored procedure have the type of the varargs argument.
+     *
+     * @param index parameter position (0-based)
+     * @return parameter {@link java.sql.Types type}
+     */
+    int getType(int index) {
+        return argTypes[Math.min(index, argTypes.length - 1)];
+    }
+
+    /**
+     * Verify that the specified number of parameters is accepted by the stored procedure of this plan.
+     *
+     * @param parmsCount number of parameters
+     * @throws IllegalArgumentException if the parameter count is incorrect
+     */
+    void checkParamCount(int parmsCount) {
+        String message = null;
+        int typesCount = argTypes.length;
+
+        if (hasVarArgs) {
+            if (parmsCount < minCount) {
+                message = String.format(
+                                "Insufficient arguments count for %s%s: minimum: %d; actual: %d",
+                                enumName, Arrays.toString(argTypes), minCount, parmsCount);
+            }
+        } else if (parmsCount != typesCount) {
+            if (typesCount == 0) {
+                message = "No arguments expected for " + enumName;
+            } else {
+                message = String.format(
+                                "Incorrect arguments count for %s%s: expect: %d; actual: %d",
+                                enumName, Arrays.toString(argTypes), typesCount, parmsCount);
+            }
+        }
+
+        if (message != null) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Validate the supplied values and convert them to {@link Param} objects of the modes and types of this plan. If
+     * this plan pads its varargs, the last value is repeated to fill the padded parameter count.
+     *
+     * @param params an array of objects containing the input parameter values
+     * @return array of {@link Param} objects
+     * @throws IllegalArgumentException if the parameter count is incorrect
+     */
+    Param[] toParams(Object... params) {
+        checkParamCount(params.length);
+        int count = padVarArgs ? minCount + ListArgs.bucket(params.length - minCount) : params.length;
+        Param[] parmArray = Param.array(count);
+        for (int i = 0; i < count; i++) {
+            Object value = params[Math.min(i, params.length - 1)];
+            parmArray[i] = Param.create(getMode(i), getType(i), value);
+        }
+        return parmArray;
+    }
+
+    /**
+     * Get the JDBC escape syntax to call the stored procedure of this plan with the indicated number of parameters.
+     *
+     * @param paramCount number of parameters
+     * @return stored procedure call string (e.g. - <b>{call SPROC_NAME(?,?)}</b>)
+     */
+    String getCallStr(int paramCount) {
+        if (paramCount >= callStrs.length()) {
+            return buildCallStr(sprocName, paramCount);
+        }
+        String callStr = callStrs.get(paramCount);
+        if (callStr == null) {
+            callStr = buildCallStr(sprocName, paramCount);
+            callStrs.set(paramCount, callStr);
+        }
+        return callStr;
+    }
+
+    /**
+     * Build the JDBC escape syntax to call the specified stored procedure with the indicated number of parameters.
+     *
+     * @param sprocName name of the stored procedure to be executed
+     * @param paramCount number of parameters
+     * @return stored procedure call string (e.g. - <b>{call SPROC_NAME(?,?)}</b>)
+     */
+    static String buildCallStr(String sprocName, int paramCount) {
+        StringBuilder sprocStr = new StringBuilder("{call ").append(sprocName).append("(");
+
+        String placeholder = "?";
+        for (int i = 0; i < paramCount; i++) {
+            sprocStr.append(placeholder);
+            placeholder = ",?";
+        }
+
+        return sprocStr.append(")}").toString();
+    }
+}
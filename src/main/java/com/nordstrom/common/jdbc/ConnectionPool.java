@@ -0,0 +1,433 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+/**
+ * This class implements a pool of database connections for a single connection string. Pools are created on demand
+ * by {@link DatabaseUtils}, one per distinct connection string, with settings drawn from the following system
+ * properties:
+ * <ul>
+ * <li>{@value #MIN_SIZE_PROPERTY} - minimum number of idle connections retained by idle eviction (default: {@value
+ *     #DEFAULT_MIN_SIZE})</li>
+ * <li>{@value #MAX_SIZE_PROPERTY} - maximum number of connections open at once (default: {@value
+ *     #DEFAULT_MAX_SIZE})</li>
+ * <li>{@value #MAX_IDLE_PROPERTY} - milliseconds an idle connection is retained before eviction (default: {@value
+ *     #DEFAULT_MAX_IDLE})</li>
+ * <li>{@value #MAX_WAIT_PROPERTY} - milliseconds to wait for a connection when the pool is exhausted (default:
+ *     {@value #DEFAULT_MAX_WAIT})</li>
+ * <li>{@value #STATEMENT_CACHE_PROPERTY} - maximum number of prepared statements cached per connection; 0 disables
+ *     statement caching (default: {@value #DEFAULT_STATEMENT_CACHE})</li>
+ * </ul>
+ * To override these settings for a specific connection string, call {@link #configure(String, int, int, long, long)}
+ * before the first query is executed against it.
+ * <p>
+ * Connections that have been idle for more than {@value #VALIDATION_BYPASS} milliseconds are validated with {@link
+ * Connection#isValid(int)} when borrowed; connections that fail validation are discarded and replaced. Idle
+ * connections are not rejected by age when borrowed; surplus connections beyond the minimum idle count are closed by
+ * idle eviction once they exceed the idle eviction interval. Connections on which an operation failed with a
+ * connection error (SQLState class <b>08</b>) are discarded when they're returned.
+ * <p>
+ * Connection strings of the form <b>datasource:</b><i>name</i> are served by the {@link javax.sql.DataSource
+ * DataSource} registered under that name with {@link DataSources}. Such pools pass through to the data source, which
+ * does its own pooling: each borrow gets a connection from the data source, and each release closes it, returning it
+ * to the data source. These pools hold no idle connections and don't cache statements.
+ */
+public class ConnectionPool {
+
+    /** system property: minimum idle connections */
+    public static final String MIN_SIZE_PROPERTY = "java-utils.jdbc.pool.minSize";
+    /** system property: maximum open connections */
+    public static final String MAX_SIZE_PROPERTY = "java-utils.jdbc.pool.maxSize";
+    /** system property: idle eviction interval (mS) */
+    public static final String MAX_IDLE_PROPERTY = "java-utils.jdbc.pool.maxIdleMillis";
+    /** system property: exhausted pool wait timeout (mS) */
+    public static final String MAX_WAIT_PROPERTY = "java-utils.jdbc.pool.maxWaitMillis";
+    /** system property: statements cached per connection */
+    public static final String STATEMENT_CACHE_PROPERTY = "java-utils.jdbc.pool.statementCacheSize";
+
+    /** default minimum idle connections */
+    public static final int DEFAULT_MIN_SIZE = 0;
+    /** default maximum open connections */
+    public static final int DEFAULT_MAX_SIZE = 10;
+    /** default idle eviction interval (mS) */
+    public static final long DEFAULT_MAX_IDLE = 300000L;
+    /** default exhausted pool wait timeout (mS) */
+    public static final long DEFAULT_MAX_WAIT = 30000L;
+    /** default statements cached per connection */
+    public static final int DEFAULT_STATEMENT_CACHE = 32;
+
+    /** connections used more recently than this (mS) are not validated on borrow */
+    static final long VALIDATION_BYPASS = 500L;
+    /** timeout for connection validation (seconds) */
+    static final int VALIDATION_TIMEOUT = 5;
+
+    private static final ConcurrentMap<String, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+
+    private final String connectionString;
+    private final int minSize;
+    private final int maxSize;
+    private final long maxIdleMillis;
+    private final long maxWaitMillis;
+    private final int statementCacheSize;
+    private final DataSource dataSource;
+
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private volatile boolean closed;
+
+    /**
+     * Constructor for a connection pool object
+     *
+     * @param connectionString database connection string
+     * @param minSize minimum number of idle connections retained by idle eviction
+     * @param maxSize maximum number of connections open at once
+     * @param maxIdleMillis milliseconds an idle connection is retained before eviction
+     * @param maxWaitMillis milliseconds to wait for a connection when the pool is exhausted
+     */
+    private ConnectionPool(String connectionString, int minSize, int maxSize, long maxIdleMillis, long maxWaitMillis) {
+        this(connectionString, minSize, maxSize, maxIdleMillis, maxWaitMillis, null);
+    }
+
+    /**
+     * Constructor for a connection pool object
+     *
+     * @param connectionString database connection string
+     * @param minSize minimum number of idle connections retained by idle eviction
+     * @param maxSize maximum number of connections open at once
+     * @param maxIdleMillis milliseconds an idle connection is retained before eviction
+     * @param maxWaitMillis milliseconds to wait for a connection when the pool is exhausted
+     * @param dataSource data source to pass through to; {@code null} to open connections with a JDBC driver
+     */
+    private ConnectionPool(String connectionString, int minSize, int maxSize, long maxIdleMillis, long maxWaitMillis,
+                    DataSource dataSource) {
+        Objects.requireNonNull(connectionString, "[connectionString] argument must be non-null");
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum pool size must be positive; specified: " + maxSize);
+        }
+        if ((minSize < 0) || (minSize > maxSize)) {
+            throw new IllegalArgumentException(String.format(
+                    "Minimum pool size must be in range [0, %d]; specified: %d", maxSize, minSize));
+        }
+
+        this.connectionString = connectionString;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.maxIdleMillis = maxIdleMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxSize, true);
+        this.dataSource = dataSource;
+        this.statementCacheSize = (dataSource != null) ? 0
+                        : Integer.getInteger(STATEMENT_CACHE_PROPERTY, DEFAULT_STATEMENT_CACHE);
+    }
+
+    /**
+     * Get the connection pool for the specified connection string, creating it with default settings if needed.
+     *
+     * @param connectionString database connection string
+     * @return connection pool for the specified connection string
+     * @throws IllegalArgumentException if the connection string names a data source that isn't registered
+     */
+    public static ConnectionPool getPool(String connectionString) {
+        ConnectionPool pool = POOLS.get(connectionString);
+        if ((pool == null) && (connectionString != null)
+                        && connectionString.startsWith(DataSources.CONNECTION_PREFIX)) {
+            String name = connectionString.substring(DataSources.CONNECTION_PREFIX.length());
+            DataSource dataSource = DataSources.get(name);
+            if (dataSource == null) {
+                throw new IllegalArgumentException("No data source is registered with name: " + name);
+            }
+            pool = new ConnectionPool(connectionString, 0, Integer.MAX_VALUE, 0, 0, dataSource);
+            ConnectionPool existing = POOLS.putIfAbsent(connectionString, pool);
+            if (existing != null) {
+                pool = existing;
+            }
+        } else if (pool == null) {
+            pool = new ConnectionPool(connectionString,
+                    Integer.getInteger(MIN_SIZE_PROPERTY, DEFAULT_MIN_SIZE),
+                    Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE),
+                    Long.getLong(MAX_IDLE_PROPERTY, DEFAULT_MAX_IDLE),
+                    Long.getLong(MAX_WAIT_PROPERTY, DEFAULT_MAX_WAIT));
+            ConnectionPool existing = POOLS.putIfAbsent(connectionString, pool);
+            if (existing != null) {
+                pool = existing;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Configure the connection pool for the specified connection string. If a pool already exists for this connection
+     * string, it's closed and replaced. Connections currently borrowed from the replaced pool are closed when they're
+     * returned.
+     *
+     * @param connectionString database connection string
+     * @param minSize minimum number of idle connections retained by idle eviction
+     * @param maxSize maximum number of connections open at once
+     * @param maxIdleMillis milliseconds an idle connection is retained before eviction
+     * @param maxWaitMillis milliseconds to wait for a connection when the pool is exhausted
+     * @return new connection pool for the specified connection string
+     */
+    public static ConnectionPool configure(String connectionString, int minSize, int maxSize,
+                    long maxIdleMillis, long maxWaitMillis) {
+        ConnectionPool pool = new ConnectionPool(connectionString, minSize, maxSize, maxIdleMillis, maxWaitMillis);
+        ConnectionPool replaced = POOLS.put(connectionString, pool);
+        if (replaced != null) {
+            replaced.close();
+        }
+        return pool;
+    }
+
+    /**
+     * Close the connection pool for the specified connection string, if one exists. A pool is created again on the
+     * next request for this connection string.
+     *
+     * @param connectionString database connection string
+     */
+    static void closePool(String connectionString) {
+        ConnectionPool pool = POOLS.remove(connectionString);
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Close all connection pools, closing every idle connection they hold.
+     */
+    public static void closeAll() {
+        for (String connectionString : POOLS.keySet()) {
+            ConnectionPool pool = POOLS.remove(connectionString);
+            if (pool != null) {
+                pool.close();
+            }
+        }
+    }
+
+    /**
+     * Get the connection string served by this pool.
+     *
+     * @return database connection string
+     */
+    public String getConnectionString() {
+        return connectionString;
+    }
+
+    /**
+     * Get the minimum number of idle connections retained by this pool.
+     *
+     * @return minimum idle connection count
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Get the maximum number of connections this pool will open at once.
+     *
+     * @return maximum open connection count
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the number of idle connections currently held by this pool.
+     *
+     * @return idle connection count
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Get the number of connections currently borrowed from this pool.
+     *
+     * @return active connection count
+     */
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * Get the number of statement requests on connections of this pool that were served from a statement cache.
+     *
+     * @return statement cache hit count
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    /**
+     * Get the number of statement requests on connections of this pool that required a new statement to be prepared.
+     *
+     * @return statement cache miss count
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     * Borrow a connection from this pool, opening a new one if no valid idle connection is available.
+     *
+     * @return pooled connection object
+     * @throws SQLException if this pool is closed; if no connection became available within the wait timeout; if a
+     *         database access error occurs
+     */
+    PooledConnection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been closed");
+        }
+
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(String.format(
+                        "Timed out after %d mS waiting for one of %d pooled connections", maxWaitMillis, maxSize));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for pooled connection", e);
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled, now)) {
+                    return pooled;
+                }
+                pooled.closeQuietly();
+            }
+            return openConnection();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return the specified connection to this pool. Connections that are closed or have been marked as broken by a
+     * connection failure are discarded instead.
+     *
+     * @param pooled pooled connection object
+     */
+    void release(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+        try {
+            if (closed || (dataSource != null) || pooled.isBroken() || pooled.getConnection().isClosed()) {
+                pooled.closeQuietly();
+            } else {
+                pooled.touch(now);
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            pooled.closeQuietly();
+        } finally {
+            permits.release();
+        }
+        evictIdle(now);
+    }
+
+    /**
+     * Discard the specified connection, closing it instead of returning it to this pool.
+     *
+     * @param pooled pooled connection object
+     */
+    void discard(PooledConnection pooled) {
+        pooled.closeQuietly();
+        permits.release();
+    }
+
+    /**
+     * Open connections until this pool holds at least its minimum number of idle connections.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    void fill() throws SQLException {
+        while (!closed && (idle.size() < minSize) && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = openConnection();
+                pooled.touch(System.currentTimeMillis());
+                idle.offerLast(pooled);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Open a new physical connection for this pool.
+     *
+     * @return pooled connection object
+     * @throws SQLException if a database access error occurs
+     */
+    private PooledConnection openConnection() throws SQLException {
+        Connection connection = (dataSource != null) ? dataSource.getConnection()
+                        : DriverRegistry.connect(connectionString);
+        return new PooledConnection(this, connection,
+                new StatementCache(statementCacheSize, statementCacheHits, statementCacheMisses));
+    }
+
+    /**
+     * Close this pool, closing every idle connection it holds. Connections currently borrowed from this pool are
+     * closed when they're returned.
+     */
+    public void close() {
+        closed = true;
+        POOLS.remove(connectionString, this);
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closeQuietly();
+        }
+    }
+
+    /**
+     * Determine if the specified idle connection can be handed out.
+     *
+     * @param pooled pooled connection object
+     * @param now current time (mS)
+     * @return {@code true} if the connection is open and valid; otherwise {@code false}
+     */
+    private boolean isUsable(PooledConnection pooled, long now) {
+        try {
+            if ((now - pooled.getLastUsed()) > VALIDATION_BYPASS) {
+                return pooled.getConnection().isValid(VALIDATION_TIMEOUT);
+            }
+            return !pooled.getConnection().isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Close idle connections that have exceeded the idle eviction interval, retaining the minimum idle count.
+     * <p>
+     * <b>NOTE</b>: Idle connections are handed out in LIFO order, so the least-recently used are at the tail.
+     *
+     * @param now current time (mS)
+     */
+    private void evictIdle(long now) {
+        while (idle.size() > minSize) {
+            PooledConnection oldest = idle.pollLast();
+            if (oldest == null) {
+                break;
+            }
+            if ((now - oldest.getLastUsed()) <= maxIdleMillis) {
+                idle.offerLast(oldest);
+                break;
+            }
+            oldest.closeQuietly();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.nordstrom.common.jdbc;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+
+/**
+ * This interface marks {@link QueryAPI} and {@link SProcAPI} objects that obtain their connections from a named
+ * {@link javax.sql.DataSource DataSource} registered with {@link DataSources}. If no data source is registered under
+ * the name, connections are opened with the connection string returned by {@code getConnection()}.
+ */
+public interface DataSourceAPI {
+
+    /**
+     * Get the name of the data source for this object.
+     *
+     * @return data source name
+     */
+    String getDataSourceName();
+}
@@ -0,0 +1,141 @@
+package com.nordstrom.common.jdbc;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.sql.DataSource;
+
+/**
+ * This class is a registry of named {@link DataSource} objects for {@link DataSourceAPI} queries and stored procedures.
+ * The connection of each constant is resolved once and cached; the cache is refreshed when the registry changes. If no
+ * data source is registered under the name declared by a constant, its connection string is used instead.
+ * <p>
+ * Connections obtained from a registered data source are closed after each use, returning them to the data source. The
+ * data source is expected to provide its own pooling.
+ */
+public final class DataSources {
+
+    /** connection string prefix for registered data sources */
+    static final String CONNECTION_PREFIX = "datasource:";
+
+    private static final ConcurrentMap<String, DataSource> SOURCES = new ConcurrentHashMap<>();
+    private static final AtomicInteger VERSION = new AtomicInteger();
+
+    private static final ClassValue<AtomicReferenceArray<Resolution>> RESOLUTIONS =
+                    new ClassValue<AtomicReferenceArray<Resolution>>() {
+        @Override
+        protected AtomicReferenceArray<Resolution> computeValue(Class<?> type) {
+            return new AtomicReferenceArray<>(type.getEnumConstants().length);
+        }
+    };
+
+    private DataSources() {
+        throw new AssertionError("DataSources is a static utility class that cannot be instantiated");
+    }
+
+    /**
+     * Register the specified data source under the indicated name, replacing any data source previously registered
+     * under this name.
+     *
+     * @param name data source name
+     * @param dataSource data source object
+     */
+    public static void register(String name, DataSource dataSource) {
+        if (name == null || dataSource == null) {
+            throw new IllegalArgumentException("Data source name and object must be non-null");
+        }
+        SOURCES.put(name, dataSource);
+        changed(name);
+    }
+
+    /**
+     * Remove the data source registered under the specified name. Constants that declare this name revert to their
+     * connection strings.
+     *
+     * @param name data source name
+     * @return data source that was registered under the name; {@code null} if none was registered
+     */
+    public static DataSource unregister(String name) {
+        DataSource dataSource = SOURCES.remove(name);
+        if (dataSource != null) {
+            changed(name);
+        }
+        return dataSource;
+    }
+
+    /**
+     * Get the data source registered under the specified name.
+     *
+     * @param name data source name
+     * @return registered data source; {@code null} if none is registered under the name
+     */
+    public static DataSource get(String name) {
+        return SOURCES.get(name);
+    }
+
+    /**
+     * Get the connection string that refers to the data source registered under the specified name. This string can be
+     * passed to any method of {@link DatabaseUtils} that accepts a connection string.
+     *
+     * @param name data source name
+     * @return data source connection string
+     */
+    public static String getConnectionStr(String name) {
+        return CONNECTION_PREFIX + name;
+    }
+
+    /**
+     * Resolve the connection string for the specified constant.
+     *
+     * @param constant query or stored procedure enumerated constant
+     * @param connectionStr connection string declared by the constant
+     * @return data source connection string if the constant is a {@link DataSourceAPI} whose data source is registered;
+     *         otherwise the declared connection string
+     */
+    static String resolve(Enum<?> constant, String connectionStr) {
+        if (!(constant instanceof DataSourceAPI)) {
+            return connectionStr;
+        }
+        int version = VERSION.get();
+        AtomicReferenceArray<Resolution> cache = RESOLUTIONS.get(constant.getDeclaringClass());
+        Resolution resolution = cache.get(constant.ordinal());
+        if ((resolution == null) || (resolution.version != version)) {
+            String name = ((DataSourceAPI) constant).getDataSourceName();
+            String resolved = ((name != null) && SOURCES.containsKey(name)) ? getConnectionStr(name) : connectionStr;
+            resolution = new Resolution(version, resolved);
+            cache.set(constant.ordinal(), resolution);
+        }
+        return resolution.connectionStr;
+    }
+
+    /**
+     * Invalidate resolved connections and close the pool for the specified data source.
+     *
+     * @param name data source name
+     */
+    private static void changed(String name) {
+        VERSION.incrementAndGet();
+        ConnectionPool.closePool(getConnectionStr(name));
+    }
+
+    /**
+     * This class records the connection string resolved for a constant.
+     */
+    private static class Resolution {
+        final int version;
+        final String connectionStr;
+
+        /**
+         * Constructor for a resolution object
+         *
+         * @param version registry version at the time of resolution
+         * @param connectionStr resolved connection string
+         */
+        Resolution(int version, String connectionStr) {
+            this.version = version;
+            this.connectionStr = connectionStr;
+        }
+    }
+}
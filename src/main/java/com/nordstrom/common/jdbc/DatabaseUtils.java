@@ -1,20 +1,20 @@
 package com.nordstrom.common.jdbc;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.CallableStatement;
 import java.sql.Connection;
-import java.sql.Driver;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.Objects;
-import java.util.ServiceLoader;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.nordstrom.common.base.UncheckedThrow;
-import com.nordstrom.common.jdbc.Param.Mode;
 
 import java.sql.PreparedStatement;
 
@@ -68,6 +68,8 @@ import java.sql.PreparedStatement;
  * <li>To support execution on multiple endpoints, implement {@link QueryAPI#getConnection()} or {@link
  *     SProcAPI#getConnection()} with sub-configurations or other dynamic data sources (e.g.
  *     - web service).</li>
+ * <li>To obtain connections from an application-managed {@link javax.sql.DataSource DataSource}, implement {@link
+ *     DataSourceAPI} and register the data source with {@link DataSources}.</li>
  * </ul>
  * <b>Query Collection Example</b>
  * 
@@ -232,20 +234,15 @@ import java.sql.PreparedStatement;
  */
 public class DatabaseUtils {
     
-    private static Pattern SPROC_PATTERN = 
-                    Pattern.compile("([\\p{Alpha}_][\\p{Alpha}\\p{Digit}@$#_]*)(?:\\(([<>=](?:,\\s*[<>=])*)?(:)?\\))?");
+    /** default number of rows submitted to the database per batch */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    
+    private static volatile ListeningExecutorService asyncExecutor;
     
     private DatabaseUtils() {
         throw new AssertionError("DatabaseUtils is a static utility class that cannot be instantiated");
     }
     
-    static {
-        Iterator<Driver> iterator = ServiceLoader.load(Driver.class).iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-        }
-    }
-    
     /**
      * Execute the specified query object with supplied arguments as an 'update' operation
      * 
@@ -281,6 +278,42 @@ public class DatabaseUtils {
         return (String) executeQuery(String.class, query, queryArgs);
     }
     
+    /**
+     * Execute the specified query object with supplied arguments as a 'query' operation
+     * 
+     * @param query query object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param queryArgs replacement values for query place-holders
+     * @return row 1 / column 1 as long; the specified default if absent
+     */
+    public static long getLong(QueryAPI query, long defaultValue, Object... queryArgs) {
+        return ((Scalar) executeQuery(Scalar.OfLong.class, query, queryArgs)).getLong(defaultValue);
+    }
+    
+    /**
+     * Execute the specified query object with supplied arguments as a 'query' operation
+     * 
+     * @param query query object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param queryArgs replacement values for query place-holders
+     * @return row 1 / column 1 as double; the specified default if absent
+     */
+    public static double getDouble(QueryAPI query, double defaultValue, Object... queryArgs) {
+        return ((Scalar) executeQuery(Scalar.OfDouble.class, query, queryArgs)).getDouble(defaultValue);
+    }
+    
+    /**
+     * Execute the specified query object with supplied arguments as a 'query' operation
+     * 
+     * @param query query object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param queryArgs replacement values for query place-holders
+     * @return row 1 / column 1 as boolean; the specified default if absent
+     */
+    public static boolean getBoolean(QueryAPI query, boolean defaultValue, Object... queryArgs) {
+        return ((Scalar) executeQuery(Scalar.OfBoolean.class, query, queryArgs)).getBoolean(defaultValue);
+    }
+    
     /**
      * Execute the specified query object with supplied arguments as a 'query' operation
      * 
@@ -309,7 +342,54 @@ public class DatabaseUtils {
      * <b>NOTE</b>: If you specify {@link ResultPackage} as the result type, it's recommended that you close this object
      * when you're done with it to free up database and JDBC resources that were allocated for it. 
      */
-    private static Object executeQuery(Class<?> resultType, QueryAPI query, Object... queryArgs) {
+    private static Object executeQuery(final Class<?> resultType, final QueryAPI query, final Object... queryArgs) {
+        checkArgCount(query, queryArgs);
+        if ((resultType != null) && (resultType != ResultPackage.class) && (query instanceof CachedQueryAPI)) {
+            return QueryCache.get(resultType, (CachedQueryAPI) query, queryArgs, new Callable<Object>() {
+                @Override
+                public Object call() {
+                    return executeQuery(resultType, query.getEnum(), connectionOf(query), query.getQueryStr(), 0,
+                                    queryArgs);
+                }
+            });
+        }
+        Object result = executeQuery(resultType, query.getEnum(), connectionOf(query), query.getQueryStr(), 0,
+                        queryArgs);
+        if ((resultType == null) && (query instanceof InvalidatingQueryAPI)) {
+            QueryCache.invalidate((InvalidatingQueryAPI) query);
+        }
+        return result;
+    }
+    
+    /**
+     * Get the connection string for the specified query object, resolving its {@link DataSourceAPI data source}.
+     *
+     * @param query query object
+     * @return resolved connection string
+     */
+    static String connectionOf(QueryAPI query) {
+        return DataSources.resolve(query.getEnum(), query.getConnection());
+    }
+
+    /**
+     * Get the connection string for the specified stored procedure object, resolving its {@link DataSourceAPI data
+     * source}.
+     *
+     * @param sproc stored procedure object
+     * @return resolved connection string
+     */
+    static String connectionOf(SProcAPI sproc) {
+        return DataSources.resolve(sproc.getEnum(), sproc.getConnection());
+    }
+
+    /**
+     * Verify that the number of supplied arguments matches the number of arguments declared by the specified query.
+     * 
+     * @param query query object
+     * @param queryArgs replacement values for query place-holders
+     * @throws IllegalArgumentException if the argument count is incorrect
+     */
+    static void checkArgCount(QueryAPI query, Object... queryArgs) {
         int expectCount = query.getArgNames().length;
         int actualCount = queryArgs.length;
         
@@ -325,218 +405,1019 @@ public class DatabaseUtils {
             
             throw new IllegalArgumentException(message);
         }
+    }
+    
+    /**
+     * Execute the specified query with the supplied arguments, returning a result of the indicated type.
+     * <p>
+     * <b>TYPES</b>: Specific result types produce the following behaviors: <ul>
+     * <li>{@code null} - The query is executed as an update operation.</li>
+     * <li>{@link ResultPackage} - An object containing the connection, statement, and result set is returned</li>
+     * <li>{@link Integer} - If rows were returned, row 1 / column 1 is returned as an Integer; otherwise -1</li>
+     * <li>{@link String} - If rows were returned, row 1 / column 1 is returned as an String; otherwise {@code null}</li>
+     * <li>For other types, {@link ResultSet#getObject(int, Class)} to return row 1 / column 1 as that type</li></ul>
+     * 
+     * @param resultType desired result type (see TYPES above)
+     * @param connectionStr database connection string
+     * @param queryStr a SQL statement that may contain one or more '?' IN parameter placeholders
+     * @param params an array of objects containing the input parameter values
+     * @return for update operations, the number of rows affected; for query operations, an object of the indicated type<br>
+     * <b>NOTE</b>: If you specify {@link ResultPackage} as the result type, it's recommended that you close this object
+     * when you're done with it to free up database and JDBC resources that were allocated for it. 
+     */
+    public static Object executeQuery(Class<?> resultType, String connectionStr, String queryStr, Object... params) {
+        return executeQuery(resultType, null, connectionStr, queryStr, 0, params);
+    }
+    
+    /**
+     * Execute the specified query with the supplied arguments and fetch size, returning a result of the indicated
+     * type.
+     * <p>
+     * If the constant is an {@link IdempotentAPI}, transient failures are retried as per its {@link RetryPolicy}.
+     * 
+     * @param resultType desired result type (see {@link #executeQuery(Class, String, String, Object...)})
+     * @param constant query enumerated constant; {@code null} for ad hoc SQL
+     * @param connectionStr database connection string
+     * @param queryStr a SQL statement that may contain one or more '?' IN parameter placeholders
+     * @param fetchSize number of rows to fetch per database round trip; 0 for the driver default
+     * @param params an array of objects containing the input parameter values
+     * @return for update operations, the number of rows affected; for query operations, an object of the indicated type
+     */
+    private static Object executeQuery(Class<?> resultType, Enum<?> constant, String connectionStr, String queryStr,
+                    int fetchSize, Object[] params) {
+        RetryPolicy policy = RetryPolicy.of(constant);
+        if (policy != null) {
+            policy.attempted();
+        }
+        for (int attempt = 1; ; attempt++) {
+            Execution execution = new Execution(constant, queryStr, params);
+            execution.begin();
+            try {
+                return executeQuery(resultType, execution, acquire(execution, connectionStr), fetchSize);
+            } catch (Exception e) {
+                if ((policy == null) || !policy.retry(ExecutionMetrics.metricsOf(constant), e, attempt)) {
+                    throw UncheckedThrow.throwUnchecked(e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Execute the query of the specified execution on the indicated connection, returning a result of the indicated
+     * type.
+     * 
+     * @param resultType desired result type (see {@link #executeQuery(Class, String, String, Object...)})
+     * @param execution {@link Execution} that describes the query and its arguments
+     * @param connection pooled database connection
+     * @param fetchSize number of rows to fetch per database round trip; 0 for the driver default
+     * @return for update operations, the number of rows affected; for query operations, an object of the indicated type
+     */
+    static Object executeQuery(Class<?> resultType, Execution execution, PooledConnection connection, int fetchSize) {
+        PreparedStatement statement = null;
+        String sql = execution.getSql();
+        Object[] params = execution.getArgs();
+        
+        try {
+            if (ListArgs.hasLists(params)) {
+                ListArgs expanded = ListArgs.expand(sql, params);
+                sql = expanded.getSql();
+                params = expanded.getArgs();
+            }
+            
+            statement = connection.prepareStatement(sql);
+            ListArgs.bind(statement, params);
+        } catch (SQLException | RuntimeException e) {
+            abandon(connection, statement, e);
+            execution.failed(e);
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+        
+        return executeStatement(resultType, execution, connection, statement, fetchSize);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with supplied parameters
+     * 
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return row 1 / column 1 as integer; -1 if no rows were returned
+     */
+    public static int getInt(SProcAPI sproc, Object... params) {
+        Integer result = (Integer) executeStoredProcedure(Integer.class, sproc, params);
+        return (result != null) ? result.intValue() : -1;
+    }
+    
+    /**
+     * Execute the specified stored procedure object with supplied parameters
+     * 
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return row 1 / column 1 as string; {@code null} if no rows were returned
+     */
+    public static String getString(SProcAPI sproc, Object... params) {
+        return (String) executeStoredProcedure(String.class, sproc, params);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with supplied parameters
+     * 
+     * @param sproc stored procedure object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param params an array of objects containing the input parameter values
+     * @return row 1 / column 1 as long; the specified default if absent
+     */
+    public static long getLong(SProcAPI sproc, long defaultValue, Object... params) {
+        return ((Scalar) executeStoredProcedure(Scalar.OfLong.class, sproc, params)).getLong(defaultValue);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with supplied parameters
+     * 
+     * @param sproc stored procedure object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param params an array of objects containing the input parameter values
+     * @return row 1 / column 1 as double; the specified default if absent
+     */
+    public static double getDouble(SProcAPI sproc, double defaultValue, Object... params) {
+        return ((Scalar) executeStoredProcedure(Scalar.OfDouble.class, sproc, params)).getDouble(defaultValue);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with supplied parameters
+     * 
+     * @param sproc stored procedure object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param params an array of objects containing the input parameter values
+     * @return row 1 / column 1 as boolean; the specified default if absent
+     */
+    public static boolean getBoolean(SProcAPI sproc, boolean defaultValue, Object... params) {
+        return ((Scalar) executeStoredProcedure(Scalar.OfBoolean.class, sproc, params)).getBoolean(defaultValue);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with supplied parameters
+     * 
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return {@link ResultPackage} object
+     */
+    public static ResultPackage getResultPackage(SProcAPI sproc, Object... params) {
+        return (ResultPackage) executeStoredProcedure(ResultPackage.class, sproc, params);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with supplied parameters, returning the values of its OUT and INOUT
+     * parameters. The connection is released before this method returns.
+     * 
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return {@link OutParams} object
+     */
+    public static OutParams getOutParams(SProcAPI sproc, Object... params) {
+        return (OutParams) executeStoredProcedure(OutParams.class, sproc, params);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with the parameters in a reusable parameter array
+     * 
+     * @param sproc stored procedure object to execute
+     * @param params {@link ParamArray} created for this stored procedure object
+     * @return row 1 / column 1 as integer; -1 if no rows were returned
+     */
+    public static int getInt(SProcAPI sproc, ParamArray params) {
+        Integer result = (Integer) executeStoredProcedure(Integer.class, sproc, params);
+        return (result != null) ? result.intValue() : -1;
+    }
+    
+    /**
+     * Execute the specified stored procedure object with the parameters in a reusable parameter array
+     * 
+     * @param sproc stored procedure object to execute
+     * @param params {@link ParamArray} created for this stored procedure object
+     * @return row 1 / column 1 as string; {@code null} if no rows were returned
+     */
+    public static String getString(SProcAPI sproc, ParamArray params) {
+        return (String) executeStoredProcedure(String.class, sproc, params);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with the parameters in a reusable parameter array
+     * 
+     * @param sproc stored procedure object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param params {@link ParamArray} created for this stored procedure object
+     * @return row 1 / column 1 as long; the specified default if absent
+     */
+    public static long getLong(SProcAPI sproc, long defaultValue, ParamArray params) {
+        return ((Scalar) executeStoredProcedure(Scalar.OfLong.class, sproc, params)).getLong(defaultValue);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with the parameters in a reusable parameter array
+     * 
+     * @param sproc stored procedure object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param params {@link ParamArray} created for this stored procedure object
+     * @return row 1 / column 1 as double; the specified default if absent
+     */
+    public static double getDouble(SProcAPI sproc, double defaultValue, ParamArray params) {
+        return ((Scalar) executeStoredProcedure(Scalar.OfDouble.class, sproc, params)).getDouble(defaultValue);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with the parameters in a reusable parameter array
+     * 
+     * @param sproc stored procedure object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param params {@link ParamArray} created for this stored procedure object
+     * @return row 1 / column 1 as boolean; the specified default if absent
+     */
+    public static boolean getBoolean(SProcAPI sproc, boolean defaultValue, ParamArray params) {
+        return ((Scalar) executeStoredProcedure(Scalar.OfBoolean.class, sproc, params)).getBoolean(defaultValue);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with the parameters in a reusable parameter array
+     * 
+     * @param sproc stored procedure object to execute
+     * @param params {@link ParamArray} created for this stored procedure object
+     * @return {@link ResultPackage} object
+     */
+    public static ResultPackage getResultPackage(SProcAPI sproc, ParamArray params) {
+        return (ResultPackage) executeStoredProcedure(ResultPackage.class, sproc, params);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with the parameters in a reusable parameter array, returning the values of its OUT and INOUT
+     * parameters. The connection is released before this method returns.
+     * 
+     * @param sproc stored procedure object to execute
+     * @param params {@link ParamArray} created for this stored procedure object
+     * @return {@link OutParams} object
+     */
+    public static OutParams getOutParams(SProcAPI sproc, ParamArray params) {
+        return (OutParams) executeStoredProcedure(OutParams.class, sproc, params);
+    }
+    
+    /**
+     * Execute the specified stored procedure with the parameters in a reusable parameter array, returning a result of
+     * the indicated type.
+     * 
+     * @param resultType desired result type (see {@link #executeStoredProcedure(Class, SProcAPI, Object...)})
+     * @param sproc stored procedure object to execute
+     * @param params {@link ParamArray} created for this stored procedure object
+     * @return an object of the indicated type
+     */
+    public static Object executeStoredProcedure(Class<?> resultType, SProcAPI sproc, ParamArray params) {
+        Objects.requireNonNull(resultType, "[resultType] argument must be non-null");
+        CallPlan plan = CallPlan.of(sproc);
+        if (params.getPlan() != plan) {
+            throw new IllegalArgumentException("Specified parameter array was not created for " + plan.getEnumName());
+        }
+        return executeCall(resultType, sproc.getEnum(), connectionOf(sproc), plan.getCallStr(params.size()), 0,
+                        params.getParams());
+    }
+    
+    /**
+     * Execute the specified stored procedure with the specified arguments, returning a result of the indicated type.
+     * <p>
+     * <b>TYPES</b>: Specific result types produce the following behaviors: <ul>
+     * <li>{@link ResultPackage} - An object containing the connection, statement, and result set is returned</li>
+     * <li>{@link Integer} - If rows were returned, row 1 / column 1 is returned as an Integer; otherwise -1</li>
+     * <li>{@link String} - If rows were returned, row 1 / column 1 is returned as an String; otherwise {@code null}</li>
+     * <li>{@link OutParams} - The values of all OUT and INOUT parameters are returned</li>
+     * <li>For other types, {@link ResultSet#getObject(int, Class)} to return row 1 / column 1 as that type</li></ul>
+     * 
+     * @param resultType desired result type (see TYPES above)
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return an object of the indicated type<br>
+     * <b>NOTE</b>: If you specify {@link ResultPackage} as the result type, it's recommended that you close this object
+     * when you're done with it to free up database and JDBC resources that were allocated for it. 
+     */
+    public static Object executeStoredProcedure(Class<?> resultType, SProcAPI sproc, Object... params) {
+        Objects.requireNonNull(resultType, "[resultType] argument must be non-null");
+        CallPlan plan = CallPlan.of(sproc);
+        Param[] parmArray = plan.toParams(params);
+        return executeCall(resultType, sproc.getEnum(), connectionOf(sproc), plan.getCallStr(parmArray.length), 0,
+                        parmArray);
+    }
+    
+    /**
+     * Execute the specified stored procedure with the supplied arguments, returning a result of the indicated type.
+     * <p>
+     * <b>TYPES</b>: Specific result types produce the following behaviors: <ul>
+     * <li>{@link ResultPackage} - An object containing the connection, statement, and result set is returned</li>
+     * <li>{@link Integer} - If rows were returned, row 1 / column 1 is returned as an Integer; otherwise -1</li>
+     * <li>{@link String} - If rows were returned, row 1 / column 1 is returned as an String; otherwise {@code null}</li>
+     * <li>{@link OutParams} - The values of all OUT and INOUT parameters are returned</li>
+     * <li>For other types, {@link ResultSet#getObject(int, Class)} to return row 1 / column 1 as that type</li></ul>
+     * 
+     * @param resultType desired result type (see TYPES above)
+     * @param connectionStr database connection string
+     * @param sprocName name of the stored procedure to be executed
+     * @param params an array of objects containing the input parameter values
+     * @return an object of the indicated type<br>
+     * <b>NOTE</b>: If you specify {@link ResultPackage} as the result type, it's recommended that you close this object
+     * when you're done with it to free up database and JDBC resources that were allocated for it. 
+     */
+    public static Object executeStoredProcedure(Class<?> resultType, String connectionStr, String sprocName, Param... params) {
+        Objects.requireNonNull(resultType, "[resultType] argument must be non-null");
+        return executeCall(resultType, null, connectionStr, CallPlan.buildCallStr(sprocName, params.length), 0,
+                        params);
+    }
+    
+    /**
+     * Execute the specified stored procedure call with the supplied arguments, returning a result of the indicated
+     * type.
+     * <p>
+     * If the constant is an {@link IdempotentAPI}, transient failures are retried as per its {@link RetryPolicy}.
+     * 
+     * @param resultType desired result type (see {@link #executeStoredProcedure(Class, String, String, Param...)})
+     * @param constant stored procedure enumerated constant; {@code null} for ad hoc calls
+     * @param connectionStr database connection string
+     * @param callStr stored procedure call string (e.g. - <b>{call SPROC_NAME(?,?)}</b>)
+     * @param fetchSize number of rows to fetch per database round trip; 0 for the driver default
+     * @param params an array of objects containing the input parameter values
+     * @return an object of the indicated type
+     */
+    private static Object executeCall(Class<?> resultType, Enum<?> constant, String connectionStr, String callStr,
+                    int fetchSize, Param[] params) {
+        RetryPolicy policy = RetryPolicy.of(constant);
+        if (policy != null) {
+            policy.attempted();
+        }
+        for (int attempt = 1; ; attempt++) {
+            Execution execution = new Execution(constant, callStr, params);
+            execution.begin();
+            try {
+                return executeCall(resultType, execution, acquire(execution, connectionStr), fetchSize, params);
+            } catch (Exception e) {
+                if ((policy == null) || !policy.retry(ExecutionMetrics.metricsOf(constant), e, attempt)) {
+                    throw UncheckedThrow.throwUnchecked(e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Execute the stored procedure call of the specified execution on the indicated connection, returning a result of
+     * the indicated type.
+     * 
+     * @param resultType desired result type (see {@link #executeStoredProcedure(Class, String, String, Param...)})
+     * @param execution {@link Execution} that describes the call
+     * @param connection pooled database connection
+     * @param fetchSize number of rows to fetch per database round trip; 0 for the driver default
+     * @param params an array of objects containing the input parameter values
+     * @return an object of the indicated type
+     */
+    static Object executeCall(Class<?> resultType, Execution execution, PooledConnection connection, int fetchSize,
+                    Param[] params) {
+        CallableStatement statement = null;
+        
+        try {
+            statement = connection.prepareCall(execution.getSql());
+            
+            for (int i = 0; i < params.length; i++) {
+                params[i].set(statement, i + 1);
+            }
+        } catch (SQLException | RuntimeException e) {
+            abandon(connection, statement, e);
+            execution.failed(e);
+            throw UncheckedThrow.throwUnchecked(e);
+        }
         
-        return executeQuery(resultType, query.getConnection(), query.getQueryStr(), queryArgs);
+        return executeStatement(resultType, execution, connection, statement, fetchSize);
+    }
+    
+    /**
+     * Validate the constants of the specified query enumerations and warm up the resources they use. This is intended
+     * to be called at startup, so that defective constants are reported before the first request, and the first
+     * requests don't pay for opening connections and preparing statements.
+     * <ul>
+     * <li>Each constant is checked for an empty query string, a mismatch between the number of '?' place-holders and
+     *     the number of argument names, a {@code null} connection string, and a {@code getEnum()} implementation that
+     *     doesn't return the constant itself.</li>
+     * <li>The connection pool of each connection string is opened and filled to its minimum size.</li>
+     * <li>Each query is prepared once on every connection opened, which verifies it against the database and places
+     *     it in the statement cache of the connection.</li>
+     * </ul>
+     * All constants are checked before any connection is opened, and all problems found are reported together.
+     * 
+     * @param queryEnums query enumerations to warm up
+     * @throws IllegalArgumentException if any constant is defective or any query fails to prepare
+     */
+    @SafeVarargs
+    public static void warmUp(Class<? extends Enum<? extends QueryAPI>>... queryEnums) {
+        WarmUp warmUp = new WarmUp();
+        for (Class<? extends Enum<? extends QueryAPI>> queryEnum : queryEnums) {
+            warmUp.addQueries(queryEnum);
+        }
+        warmUp.run();
+    }
+    
+    /**
+     * Validate the constants of the specified stored procedure enumerations and warm up the resources they use. Each
+     * constant's signature is checked against its declared argument types, and the call is prepared once on every
+     * connection opened. For stored procedures that accept varargs, the call with the minimum parameter count is
+     * prepared.
+     * 
+     * @param sprocEnums stored procedure enumerations to warm up
+     * @throws IllegalArgumentException if any constant is defective or any call fails to prepare
+     * @see #warmUp(Class...)
+     */
+    @SafeVarargs
+    public static void warmUpStoredProcedures(Class<? extends Enum<? extends SProcAPI>>... sprocEnums) {
+        WarmUp warmUp = new WarmUp();
+        for (Class<? extends Enum<? extends SProcAPI>> sprocEnum : sprocEnums) {
+            warmUp.addProcedures(sprocEnum);
+        }
+        warmUp.run();
+    }
+    
+    /**
+     * Begin a transaction on a connection to the database associated with the specified connection string. All
+     * operations executed through the transaction share this connection, and their changes are committed or rolled
+     * back together.
+     * 
+     * @param connectionStr database connection string
+     * @return new {@link Transaction} object
+     */
+    public static Transaction beginTransaction(String connectionStr) {
+        return new Transaction(getConnection(connectionStr), connectionStr, false);
+    }
+    
+    /**
+     * Begin a read-only transaction on a connection to the database associated with the specified connection string.
+     * The connection is placed in read-only mode, which enables drivers and databases to optimize for queries.
+     * 
+     * @param connectionStr database connection string
+     * @return new {@link Transaction} object
+     * @see #beginTransaction(String)
+     */
+    public static Transaction beginReadOnlyTransaction(String connectionStr) {
+        return new Transaction(getConnection(connectionStr), connectionStr, true);
+    }
+    
+    /**
+     * Asynchronously execute the specified query object with supplied arguments as an 'update' operation
+     * 
+     * @param query query object to execute
+     * @param queryArgs replacement values for query place-holders
+     * @return future for the count of records updated
+     * @see #update(QueryAPI, Object...)
+     */
+    public static ListenableFuture<Integer> updateAsync(final QueryAPI query, final Object... queryArgs) {
+        return getAsyncExecutor().submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return update(query, queryArgs);
+            }
+        });
+    }
+    
+    /**
+     * Asynchronously execute the specified query object with supplied arguments as a 'query' operation
+     * 
+     * @param query query object to execute
+     * @param queryArgs replacement values for query place-holders
+     * @return future for row 1 / column 1 as integer; -1 if no rows were returned
+     * @see #getInt(QueryAPI, Object...)
+     */
+    public static ListenableFuture<Integer> getIntAsync(final QueryAPI query, final Object... queryArgs) {
+        return getAsyncExecutor().submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return getInt(query, queryArgs);
+            }
+        });
+    }
+    
+    /**
+     * Asynchronously execute the specified query object with supplied arguments as a 'query' operation
+     * 
+     * @param query query object to execute
+     * @param queryArgs replacement values for query place-holders
+     * @return future for row 1 / column 1 as string; {@code null} if no rows were returned
+     * @see #getString(QueryAPI, Object...)
+     */
+    public static ListenableFuture<String> getStringAsync(final QueryAPI query, final Object... queryArgs) {
+        return getAsyncExecutor().submit(new Callable<String>() {
+            @Override
+            public String call() {
+                return getString(query, queryArgs);
+            }
+        });
+    }
+    
+    /**
+     * Asynchronously execute the specified query object with supplied arguments as a 'query' operation
+     * <p>
+     * <b>NOTE</b>: The connection of the {@link ResultPackage} is held until the package is closed. If the future is
+     * cancelled after the query completes, the package is not closed automatically.
+     * 
+     * @param query query object to execute
+     * @param queryArgs replacement values for query place-holders
+     * @return future for {@link ResultPackage} object
+     * @see #getResultPackage(QueryAPI, Object...)
+     */
+    public static ListenableFuture<ResultPackage> getResultPackageAsync(final QueryAPI query,
+                    final Object... queryArgs) {
+        return getAsyncExecutor().submit(new Callable<ResultPackage>() {
+            @Override
+            public ResultPackage call() {
+                return getResultPackage(query, queryArgs);
+            }
+        });
+    }
+    
+    /**
+     * Asynchronously execute the specified stored procedure object with supplied parameters
+     * 
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return future for row 1 / column 1 as integer; -1 if no rows were returned
+     * @see #getInt(SProcAPI, Object...)
+     */
+    public static ListenableFuture<Integer> getIntAsync(final SProcAPI sproc, final Object... params) {
+        return getAsyncExecutor().submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return getInt(sproc, params);
+            }
+        });
+    }
+    
+    /**
+     * Asynchronously execute the specified stored procedure object with supplied parameters
+     * 
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return future for row 1 / column 1 as string; {@code null} if no rows were returned
+     * @see #getString(SProcAPI, Object...)
+     */
+    public static ListenableFuture<String> getStringAsync(final SProcAPI sproc, final Object... params) {
+        return getAsyncExecutor().submit(new Callable<String>() {
+            @Override
+            public String call() {
+                return getString(sproc, params);
+            }
+        });
+    }
+    
+    /**
+     * Asynchronously execute the specified stored procedure object with supplied parameters
+     * <p>
+     * <b>NOTE</b>: The connection of the {@link ResultPackage} is held until the package is closed. If the future is
+     * cancelled after the call completes, the package is not closed automatically.
+     * 
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return future for {@link ResultPackage} object
+     * @see #getResultPackage(SProcAPI, Object...)
+     */
+    public static ListenableFuture<ResultPackage> getResultPackageAsync(final SProcAPI sproc,
+                    final Object... params) {
+        return getAsyncExecutor().submit(new Callable<ResultPackage>() {
+            @Override
+            public ResultPackage call() {
+                return getResultPackage(sproc, params);
+            }
+        });
+    }
+    
+    /**
+     * Get the executor that runs asynchronous operations, creating the default executor if none has been set.
+     * 
+     * @return executor for asynchronous operations
+     * @see AsyncExecutors
+     */
+    public static ListeningExecutorService getAsyncExecutor() {
+        ListeningExecutorService executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (DatabaseUtils.class) {
+                executor = asyncExecutor;
+                if (executor == null) {
+                    executor = MoreExecutors.listeningDecorator(AsyncExecutors.newDefaultExecutor());
+                    asyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+    
+    /**
+     * Set the executor that runs asynchronous operations. The previous executor (if any) is not shut down.
+     * <p>
+     * <b>NOTE</b>: Each concurrent operation holds a pooled connection, so the concurrency of this executor should not
+     * exceed the maximum size of the connection pools it uses.
+     * 
+     * @param executor executor for asynchronous operations (e.g. - {@link AsyncExecutors#newBoundedExecutor(int, int)}
+     *     or {@link AsyncExecutors#newVirtualThreadExecutor()})
+     */
+    public static void setAsyncExecutor(ExecutorService executor) {
+        Objects.requireNonNull(executor, "[executor] argument must be non-null");
+        synchronized (DatabaseUtils.class) {
+            asyncExecutor = MoreExecutors.listeningDecorator(executor);
+        }
+    }
+    
+    /**
+     * Execute the specified query object with supplied arguments as a 'query' operation, streaming the rows of its
+     * result set through the specified row mapper.
+     * <p>
+     * The query is executed with a forward-only, read-only cursor, and rows are fetched from the database in groups of
+     * the specified size as the returned iterator advances, so result sets of any size can be scanned in constant
+     * memory. The connection is released when the last row has been read. If iteration is abandoned early, close the
+     * iterator to release its resources.
+     * 
+     * @param <T> row type
+     * @param query query object to execute
+     * @param fetchSize number of rows to fetch per database round trip; 0 for the driver default
+     * @param mapper {@link RowMapper} that converts each row to an object
+     * @param queryArgs replacement values for query place-holders
+     * @return {@link RowIterator} over the mapped rows
+     */
+    public static <T> RowIterator<T> iterate(QueryAPI query, int fetchSize, RowMapper<T> mapper,
+                    Object... queryArgs) {
+        checkArgCount(query, queryArgs);
+        checkFetchSize(fetchSize);
+        ResultPackage pkg = (ResultPackage) executeQuery(ResultPackage.class, query.getEnum(), connectionOf(query),
+                        query.getQueryStr(), fetchSize, queryArgs);
+        return pkg.iterate(mapper);
+    }
+    
+    /**
+     * Execute the specified stored procedure object with supplied parameters, streaming the rows of its result set
+     * through the specified row mapper.
+     * 
+     * @param <T> row type
+     * @param sproc stored procedure object to execute
+     * @param fetchSize number of rows to fetch per database round trip; 0 for the driver default
+     * @param mapper {@link RowMapper} that converts each row to an object
+     * @param params an array of objects containing the input parameter values
+     * @return {@link RowIterator} over the mapped rows
+     * @see #iterate(QueryAPI, int, RowMapper, Object...)
+     */
+    public static <T> RowIterator<T> iterate(SProcAPI sproc, int fetchSize, RowMapper<T> mapper, Object... params) {
+        checkFetchSize(fetchSize);
+        CallPlan plan = CallPlan.of(sproc);
+        Param[] parmArray = plan.toParams(params);
+        ResultPackage pkg = (ResultPackage) executeCall(ResultPackage.class, sproc.getEnum(), connectionOf(sproc),
+                        plan.getCallStr(parmArray.length), fetchSize, parmArray);
+        return pkg.iterate(mapper);
     }
     
     /**
-     * Execute the specified query with the supplied arguments, returning a result of the indicated type.
+     * Execute the specified stored procedure object with supplied parameters, streaming each of its result sets and
+     * update counts to the specified handler in the order they're returned.
      * <p>
-     * <b>TYPES</b>: Specific result types produce the following behaviors: <ul>
-     * <li>{@code null} - The query is executed as an update operation.</li>
-     * <li>{@link ResultPackage} - An object containing the connection, statement, and result set is returned</li>
-     * <li>{@link Integer} - If rows were returned, row 1 / column 1 is returned as an Integer; otherwise -1</li>
-     * <li>{@link String} - If rows were returned, row 1 / column 1 is returned as an String; otherwise {@code null}</li>
-     * <li>For other types, {@link ResultSet#getObject(int, Class)} to return row 1 / column 1 as that type</li></ul>
+     * Results are walked with {@link java.sql.Statement#getMoreResults() getMoreResults()} and {@link
+     * java.sql.Statement#getUpdateCount() getUpdateCount()}. The rows of each result set are handed to the handler as
+     * they're fetched, and each result set is closed before the next one is read, so results of any size can be
+     * processed in constant memory. OUT and INOUT parameters are read after the
+     * last result, and the connection is released before this method returns.
      * 
-     * @param resultType desired result type (see TYPES above)
-     * @param connectionStr database connection string
-     * @param queryStr a SQL statement that may contain one or more '?' IN parameter placeholders
+     * @param sproc stored procedure object to execute
+     * @param fetchSize number of rows to fetch per database round trip; 0 for the driver default
+     * @param handler {@link ResultsHandler} that receives the rows and update counts
      * @param params an array of objects containing the input parameter values
-     * @return for update operations, the number of rows affected; for query operations, an object of the indicated type<br>
-     * <b>NOTE</b>: If you specify {@link ResultPackage} as the result type, it's recommended that you close this object
-     * when you're done with it to free up database and JDBC resources that were allocated for it. 
+     * @return {@link OutParams} object with the values of the OUT and INOUT parameters
      */
-    public static Object executeQuery(Class<?> resultType, String connectionStr, String queryStr, Object... params) {
+    public static OutParams streamResults(SProcAPI sproc, int fetchSize, ResultsHandler handler, Object... params) {
+        checkFetchSize(fetchSize);
+        CallPlan plan = CallPlan.of(sproc);
+        Param[] parmArray = plan.toParams(params);
+        ResultPackage pkg = (ResultPackage) executeCall(ResultPackage.class, sproc.getEnum(),
+                        connectionOf(sproc), plan.getCallStr(parmArray.length), fetchSize, parmArray);
         try {
-            Connection connection = getConnection(connectionStr);
-            PreparedStatement statement = connection.prepareStatement(queryStr);
-            
-            for (int i = 0; i < params.length; i++) {
-                statement.setObject(i + 1, params[i]);
+            CallableStatement statement = pkg.getCallable();
+            ResultSet resultSet = pkg.resultSet;
+            int resultIndex = 0;
+            int countIndex = 0;
+            while (true) {
+                if (resultSet != null) {
+                    int rowNum = 0;
+                    while (resultSet.next()) {
+                        handler.handleRow(resultIndex, resultSet, ++rowNum);
+                    }
+                    pkg.addRows(rowNum);
+                    resultIndex++;
+                } else {
+                    int updateCount = statement.getUpdateCount();
+                    if (updateCount == -1) {
+                        break;
+                    }
+                    handler.handleUpdateCount(countIndex++, updateCount);
+                }
+                resultSet = statement.getMoreResults() ? statement.getResultSet() : null;
+                pkg.resultSet = resultSet;
             }
-            
-            return executeStatement(resultType, connection, statement);
-        } catch (SQLException e) {
+            return OutParams.read(statement, parmArray);
+        } catch (SQLException | RuntimeException e) {
+            pkg.failed(e);
             throw UncheckedThrow.throwUnchecked(e);
+        } finally {
+            pkg.close();
         }
     }
     
     /**
-     * Execute the specified stored procedure object with supplied parameters
+     * Execute the specified query object with supplied arguments as a 'query' operation, streaming the rows of its
+     * result set to the next available file in sequence for the indicated base name.
+     * <p>
+     * The query is executed with a forward-only, read-only cursor, and rows are written as they're fetched, so result
+     * sets of any size can be exported in constant memory. The connection is released when the export completes.
      * 
-     * @param sproc stored procedure object to execute
-     * @param params an array of objects containing the input parameter values
-     * @return row 1 / column 1 as integer; -1 if no rows were returned
+     * @param query query object to execute
+     * @param fetchSize number of rows to fetch per database round trip; 0 for the driver default
+     * @param format export {@link ResultExporter.Format Format}
+     * @param targetPath path to existing target directory
+     * @param baseName base name for the path sequence
+     * @param queryArgs replacement values for query place-holders
+     * @return path of the exported file
+     * @throws IOException if an I/O error occurs
+     * @see ResultExporter#exportToNext(ResultPackage, ResultExporter.Format, Path, String)
      */
-    public static int getInt(SProcAPI sproc, Object... params) {
-        Integer result = (Integer) executeStoredProcedure(Integer.class, sproc, params);
-        return (result != null) ? result.intValue() : -1;
+    public static Path export(QueryAPI query, int fetchSize, ResultExporter.Format format, Path targetPath,
+                    String baseName, Object... queryArgs) throws IOException {
+        checkArgCount(query, queryArgs);
+        checkFetchSize(fetchSize);
+        try (ResultPackage pkg = (ResultPackage) executeQuery(ResultPackage.class, query.getEnum(),
+                        connectionOf(query), query.getQueryStr(), fetchSize, queryArgs)) {
+            return ResultExporter.exportToNext(pkg, format, targetPath, baseName);
+        }
     }
     
     /**
-     * Execute the specified stored procedure object with supplied parameters
+     * Execute the specified stored procedure object with supplied parameters, streaming the rows of its result set to
+     * the next available file in sequence for the indicated base name.
      * 
      * @param sproc stored procedure object to execute
+     * @param fetchSize number of rows to fetch per database round trip; 0 for the driver default
+     * @param format export {@link ResultExporter.Format Format}
+     * @param targetPath path to existing target directory
+     * @param baseName base name for the path sequence
      * @param params an array of objects containing the input parameter values
-     * @return row 1 / column 1 as string; {@code null} if no rows were returned
+     * @return path of the exported file
+     * @throws IOException if an I/O error occurs
+     * @see #export(QueryAPI, int, ResultExporter.Format, Path, String, Object...)
      */
-    public static String getString(SProcAPI sproc, Object... params) {
-        return (String) executeStoredProcedure(String.class, sproc, params);
+    public static Path export(SProcAPI sproc, int fetchSize, ResultExporter.Format format, Path targetPath,
+                    String baseName, Object... params) throws IOException {
+        checkFetchSize(fetchSize);
+        CallPlan plan = CallPlan.of(sproc);
+        Param[] parmArray = plan.toParams(params);
+        try (ResultPackage pkg = (ResultPackage) executeCall(ResultPackage.class, sproc.getEnum(),
+                        connectionOf(sproc), plan.getCallStr(parmArray.length), fetchSize, parmArray)) {
+            return ResultExporter.exportToNext(pkg, format, targetPath, baseName);
+        }
     }
     
     /**
-     * Execute the specified stored procedure object with supplied parameters
+     * Verify that the specified fetch size is non-negative.
      * 
-     * @param sproc stored procedure object to execute
-     * @param params an array of objects containing the input parameter values
-     * @return {@link ResultPackage} object
+     * @param fetchSize number of rows to fetch per database round trip
      */
-    public static ResultPackage getResultPackage(SProcAPI sproc, Object... params) {
-        return (ResultPackage) executeStoredProcedure(ResultPackage.class, sproc, params);
+    private static void checkFetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("Fetch size must be non-negative; specified: " + fetchSize);
+        }
     }
     
     /**
-     * Execute the specified stored procedure with the specified arguments, returning a result of the indicated type.
+     * Execute the specified query object as a batch update, with one batch entry per row of arguments.
      * <p>
-     * <b>TYPES</b>: Specific result types produce the following behaviors: <ul>
-     * <li>{@link ResultPackage} - An object containing the connection, statement, and result set is returned</li>
-     * <li>{@link Integer} - If rows were returned, row 1 / column 1 is returned as an Integer; otherwise -1</li>
-     * <li>{@link String} - If rows were returned, row 1 / column 1 is returned as an String; otherwise {@code null}</li>
-     * <li>For other types, {@link ResultSet#getObject(int, Class)} to return row 1 / column 1 as that type</li></ul>
+     * Rows are submitted in batches of {@value #DEFAULT_BATCH_SIZE}, and all rows are committed together after the
+     * last batch has been executed.
      * 
-     * @param resultType desired result type (see TYPES above)
-     * @param sproc stored procedure object to execute
-     * @param params an array of objects containing the input parameter values
-     * @return an object of the indicated type<br>
-     * <b>NOTE</b>: If you specify {@link ResultPackage} as the result type, it's recommended that you close this object
-     * when you're done with it to free up database and JDBC resources that were allocated for it. 
+     * @param query query object to execute
+     * @param rows sequence of argument arrays, each containing replacement values for query place-holders
+     * @return count of records updated for each row
+     * @see #updateBatch(QueryAPI, int, int, Iterable)
      */
-    public static Object executeStoredProcedure(Class<?> resultType, SProcAPI sproc, Object... params) {
-        Objects.requireNonNull(resultType, "[resultType] argument must be non-null");
-        
-        String[] args = {};
-        String sprocName = null;
-        boolean hasVarArgs = false;
-        int[] argTypes = sproc.getArgTypes();
-        String signature = sproc.getSignature();
-        Matcher matcher = SPROC_PATTERN.matcher(signature);
-        
-        String message = null;
-        if (matcher.matches()) {
-            sprocName = matcher.group(1);
-            hasVarArgs = (matcher.group(3) != null);
-            if (matcher.group(2) != null) {
-                args = matcher.group(2).split(",\\s");
-            } else {
-                if (hasVarArgs) {
-                    message = String.format("VarArgs indicated with no placeholder in signature for %s: %s",
-                            sproc.getEnum().name(), signature);
+    public static int[] updateBatch(QueryAPI query, Iterable<Object[]> rows) {
+        return updateBatch(query, DEFAULT_BATCH_SIZE, 0, rows);
+    }
+    
+    /**
+     * Execute the specified query object as a batch update, with one batch entry per row of arguments.
+     * <p>
+     * <b>NOTE</b>: Rows are executed with auto-commit disabled. If execution fails, rows that haven't been committed
+     * yet are rolled back; rows committed at earlier commit intervals remain in effect.
+     * 
+     * @param query query object to execute
+     * @param batchSize number of rows submitted to the database per batch
+     * @param commitInterval number of rows executed between commits; 0 to commit once after the last batch
+     * @param rows sequence of argument arrays, each containing replacement values for query place-holders
+     * @return count of records updated for each row (may be {@link java.sql.Statement#SUCCESS_NO_INFO})
+     */
+    public static int[] updateBatch(final QueryAPI query, int batchSize, int commitInterval, Iterable<Object[]> rows) {
+        final String queryStr = query.getQueryStr();
+        int[] counts = executeBatch(connectionOf(query), batchSize, commitInterval, rows, new BatchBinder() {
+            private Object[] params;
+            
+            @Override
+            public String getSqlStr(Object[] args) {
+                checkArgCount(query, args);
+                if (ListArgs.hasLists(args)) {
+                    ListArgs expanded = ListArgs.expand(queryStr, args);
+                    params = expanded.getArgs();
+                    return expanded.getSql();
                 }
+                params = args;
+                return queryStr;
             }
-        } else {
-            message = String.format("Unsupported stored procedure signature for %s: %s",
-                            sproc.getEnum().name(), signature);
-        }
-        
-        if (message != null) {
-            throw new IllegalArgumentException(message);
-        }
-        
-        int argsCount = args.length;
-        int typesCount = argTypes.length;
-        int parmsCount = params.length;
-        
-        int minCount = typesCount;
-        
-        // if unbalanced args/types
-        if (argsCount != typesCount) {
-            message = String.format(
-                            "Signature argument count differs from declared type count for %s%s: "
-                                            + "signature: %d; declared: %d",
-                            sproc.getEnum().name(), Arrays.toString(argTypes), argsCount, typesCount);
-        } else if (hasVarArgs) {
-            minCount -= 1;
-            if (parmsCount < minCount) {
-                message = String.format(
-                                "Insufficient arguments count for %s%s: minimum: %d; actual: %d",
-                                sproc.getEnum().name(), Arrays.toString(argTypes), minCount, parmsCount);
-            }
-        } else if (parmsCount != typesCount) {
-            if (typesCount == 0) {
-                message = "No arguments expected for " + sproc.getEnum().name();
-            } else {
-                message = String.format(
-                                "Incorrect arguments count for %s%s: expect: %d; actual: %d",
-                                sproc.getEnum().name(), Arrays.toString(argTypes), typesCount, parmsCount);
+            
+            @Override
+            public boolean isCallable() {
+                return false;
             }
+            
+            @Override
+            public void bind(PreparedStatement statement, Object[] args) throws SQLException {
+                ListArgs.bind(statement, params);
+            }
+        });
+        if (query instanceof InvalidatingQueryAPI) {
+            QueryCache.invalidate((InvalidatingQueryAPI) query);
         }
-        
-        if (message != null) {
-            throw new IllegalArgumentException(message);
-        }
-        
-        Param[] parmArray = Param.array(parmsCount);
-        
-        int i;
-        
-        // process declared parameters
-        for (i = 0; i < minCount; i++) {
-            Mode mode = Mode.fromChar(args[i].charAt(0));
-            parmArray[i] = Param.create(mode, argTypes[i], params[i]);
-        }
-        
-        // handle varargs parameters
-        for (int j = i; j < parmsCount; j++) {
-            Mode mode = Mode.fromChar(args[i].charAt(0));
-            parmArray[j] = Param.create(mode, argTypes[i], params[j]);
-        }
-        
-        return executeStoredProcedure(resultType, sproc.getConnection(), sprocName, parmArray);
+        return counts;
     }
     
     /**
-     * Execute the specified stored procedure with the supplied arguments, returning a result of the indicated type.
+     * Execute the specified stored procedure object as a batch, with one batch entry per row of parameters.
      * <p>
-     * <b>TYPES</b>: Specific result types produce the following behaviors: <ul>
-     * <li>{@link ResultPackage} - An object containing the connection, statement, and result set is returned</li>
-     * <li>{@link Integer} - If rows were returned, row 1 / column 1 is returned as an Integer; otherwise -1</li>
-     * <li>{@link String} - If rows were returned, row 1 / column 1 is returned as an String; otherwise {@code null}</li>
-     * <li>For other types, {@link ResultSet#getObject(int, Class)} to return row 1 / column 1 as that type</li></ul>
+     * Rows are submitted in batches of {@value #DEFAULT_BATCH_SIZE}, and all rows are committed together after the
+     * last batch has been executed.
+     * 
+     * @param sproc stored procedure object to execute
+     * @param rows sequence of parameter arrays, each containing the input parameter values for one call
+     * @return count of records updated for each row
+     * @see #updateBatch(SProcAPI, int, int, Iterable)
+     */
+    public static int[] updateBatch(SProcAPI sproc, Iterable<Object[]> rows) {
+        return updateBatch(sproc, DEFAULT_BATCH_SIZE, 0, rows);
+    }
+    
+    /**
+     * Execute the specified stored procedure object as a batch, with one batch entry per row of parameters.
+     * <p>
+     * <b>NOTE</b>: Batched stored procedures can only declare IN parameters. If a stored procedure accepts varargs,
+     * a change in the number of parameters from one row to the next causes the pending batch to be executed before
+     * the row is added to a new batch. Rows are executed with auto-commit disabled. If execution fails, rows that
+     * haven't been committed yet are rolled back; rows committed at earlier commit intervals remain in effect.
+     * 
+     * @param sproc stored procedure object to execute
+     * @param batchSize number of rows submitted to the database per batch
+     * @param commitInterval number of rows executed between commits; 0 to commit once after the last batch
+     * @param rows sequence of parameter arrays, each containing the input parameter values for one call
+     * @return count of records updated for each row (may be {@link java.sql.Statement#SUCCESS_NO_INFO})
+     */
+    public static int[] updateBatch(final SProcAPI sproc, int batchSize, int commitInterval, Iterable<Object[]> rows) {
+        final CallPlan plan = CallPlan.of(sproc);
+        return executeBatch(connectionOf(sproc), batchSize, commitInterval, rows, new BatchBinder() {
+            private Param[] params;
+            
+            @Override
+            public String getSqlStr(Object[] args) {
+                params = plan.toParams(args);
+                for (Param param : params) {
+                    if (param.isOutput()) {
+                        throw new IllegalArgumentException(
+                                "Batched stored procedures can only declare IN parameters: " + plan.getEnumName());
+                    }
+                }
+                return plan.getCallStr(params.length);
+            }
+            
+            @Override
+            public boolean isCallable() {
+                return true;
+            }
+            
+            @Override
+            public void bind(PreparedStatement statement, Object[] args) throws SQLException {
+                for (int i = 0; i < params.length; i++) {
+                    params[i].set((CallableStatement) statement, i + 1);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Execute the specified rows as batches of the statement produced by the supplied binder.
      * 
-     * @param resultType desired result type (see TYPES above)
      * @param connectionStr database connection string
-     * @param sprocName name of the stored procedure to be executed
-     * @param params an array of objects containing the input parameter values
-     * @return an object of the indicated type<br>
-     * <b>NOTE</b>: If you specify {@link ResultPackage} as the result type, it's recommended that you close this object
-     * when you're done with it to free up database and JDBC resources that were allocated for it. 
+     * @param batchSize number of rows submitted to the database per batch
+     * @param commitInterval number of rows executed between commits; 0 to commit once after the last batch
+     * @param rows sequence of argument arrays
+     * @param binder {@link BatchBinder} that produces and populates the statement for each row
+     * @return count of records updated for each row
      */
-    public static Object executeStoredProcedure(Class<?> resultType, String connectionStr, String sprocName, Param... params) {
-        Objects.requireNonNull(resultType, "[resultType] argument must be non-null");
-        
-        StringBuilder sprocStr = new StringBuilder("{call ").append(sprocName).append("(");
-        
-        String placeholder = "?";
-        for (int i = 0; i < params.length; i++) {
-            sprocStr.append(placeholder);
-            placeholder = ",?";
+    private static int[] executeBatch(String connectionStr, int batchSize, int commitInterval,
+                    Iterable<Object[]> rows, BatchBinder binder) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive; specified: " + batchSize);
+        }
+        if (commitInterval < 0) {
+            throw new IllegalArgumentException("Commit interval must be non-negative; specified: " + commitInterval);
         }
         
-        sprocStr.append(")}");
+        int[] counts = new int[16];
+        int countsSize = 0;
+        
+        boolean failed = true;
+        String sqlStr = null;
+        PreparedStatement statement = null;
+        PooledConnection connection = getConnection(connectionStr);
+        Connection conn = connection.getConnection();
         
         try {
-            Connection connection = getConnection(connectionStr);
-            CallableStatement statement = connection.prepareCall(sprocStr.toString());
+            conn.setAutoCommit(false);
             
-            for (int i = 0; i < params.length; i++) {
-                params[i].set(statement, i + 1);
+            int pending = 0;
+            int uncommitted = 0;
+            for (Object[] args : rows) {
+                String rowSqlStr = binder.getSqlStr(args);
+                if (!rowSqlStr.equals(sqlStr)) {
+                    if (pending > 0) {
+                        counts = append(counts, countsSize, statement.executeBatch());
+                        countsSize += pending;
+                        uncommitted += pending;
+                        pending = 0;
+                    }
+                    if (statement != null) {
+                        connection.releaseStatement(statement);
+                        statement = null;
+                    }
+                    statement = binder.isCallable() ? connection.prepareCall(rowSqlStr)
+                                    : connection.prepareStatement(rowSqlStr);
+                    sqlStr = rowSqlStr;
+                }
+                
+                binder.bind(statement, args);
+                statement.addBatch();
+                
+                if (++pending == batchSize) {
+                    counts = append(counts, countsSize, statement.executeBatch());
+                    countsSize += pending;
+                    uncommitted += pending;
+                    pending = 0;
+                }
+                
+                if ((commitInterval > 0) && (uncommitted >= commitInterval)) {
+                    conn.commit();
+                    uncommitted = 0;
+                }
             }
             
-            return executeStatement(resultType, connection, statement);
+            if (pending > 0) {
+                counts = append(counts, countsSize, statement.executeBatch());
+                countsSize += pending;
+            }
+            
+            conn.commit();
+            failed = false;
+            return Arrays.copyOf(counts, countsSize);
         } catch (SQLException e) {
+            connection.checkFailure(e);
             throw UncheckedThrow.throwUnchecked(e);
+        } finally {
+            if (statement != null) {
+                if (failed) {
+                    connection.discardStatement(statement);
+                } else {
+                    connection.releaseStatement(statement);
+                }
+            }
+            try {
+                if (failed) {
+                    conn.rollback();
+                }
+                conn.setAutoCommit(true);
+                connection.release();
+            } catch (SQLException e) {
+                connection.discard();
+            }
+        }
+    }
+    
+    /**
+     * Append the specified update counts to the indicated array, growing it as needed.
+     * 
+     * @param counts array of accumulated update counts
+     * @param size number of accumulated update counts
+     * @param batch update counts to be appended
+     * @return array of accumulated update counts (may be a new array)
+     */
+    private static int[] append(int[] counts, int size, int[] batch) {
+        int[] result = counts;
+        if (size + batch.length > counts.length) {
+            result = Arrays.copyOf(counts, Math.max(counts.length * 2, size + batch.length));
         }
+        System.arraycopy(batch, 0, result, size, batch.length);
+        return result;
     }
     
     /**
@@ -549,25 +1430,36 @@ public class DatabaseUtils {
      * <li>{@link String} - If rows were returned, row 1 / column 1 is returned as an String; otherwise {@code null}</li>
      * <li>For other types, {@link ResultSet#getObject(int, Class)} to return row 1 / column 1 as that type</li></ul>
      * <p>
-     * <b>NOTE</b>: For all result types except {@link ResultPackage}, the specified connection and statement, as well
-     * as the result set from executing the statement, are closed prior to returning the result. 
+     * <b>NOTE</b>: For all result types except {@link ResultPackage}, the specified statement and the result set from
+     * executing it are closed and the connection is returned to its pool prior to returning the result. For a
+     * {@link ResultPackage}, the execution is completed when the package is closed.
      * 
      * @param resultType desired result type (see TYPES above)
-     * @param connectionStr database connection string
+     * @param execution {@link Execution} that records the outcome of this statement
+     * @param connection pooled database connection
      * @param statement prepared statement to be executed (query or store procedure)
+     * @param fetchSize number of rows to fetch per database round trip; 0 for the driver default
      * @return for update operations, the number of rows affected; for query operations, an object of the indicated type<br>
      * <b>NOTE</b>: If you specify {@link ResultPackage} as the result type, it's recommended that you close this object
      * when you're done with it to free up database and JDBC resources that were allocated for it. 
      */
-    private static Object executeStatement(Class<?> resultType, Connection connection, PreparedStatement statement) {
+    private static Object executeStatement(Class<?> resultType, Execution execution, PooledConnection connection,
+                    PreparedStatement statement, int fetchSize) {
         Object result = null;
         boolean failed = false;
+        long rows = -1;
         
         ResultSet resultSet = null;
         
         try {
+            if (fetchSize > 0) {
+                statement.setFetchSize(fetchSize);
+            }
+            
             if (resultType == null) {
-                result = Integer.valueOf(statement.executeUpdate());
+                int count = statement.executeUpdate();
+                result = Integer.valueOf(count);
+                rows = count;
             } else {
                 if (statement instanceof CallableStatement) {
                     if (statement.execute()) {
@@ -575,11 +1467,15 @@ public class DatabaseUtils {
                     }
                     
                     if (resultType == ResultPackage.class) {
-                        result = new ResultPackage(connection, statement, resultSet); //NOSONAR
+                        result = new ResultPackage(execution, connection, statement, resultSet, fetchSize); //NOSONAR
                     } else if (resultType == Integer.class) {
                         result = ((CallableStatement) statement).getInt(1);
                     } else if (resultType == String.class) {
                         result = ((CallableStatement) statement).getString(1);
+                    } else if (resultType == OutParams.class) {
+                        result = OutParams.read((CallableStatement) statement, execution.getArgs());
+                    } else if (Scalar.isScalarType(resultType)) {
+                        result = Scalar.read((CallableStatement) statement, resultType);
                     } else {
                         result = ((CallableStatement) statement).getObject(1);
                     }
@@ -587,19 +1483,31 @@ public class DatabaseUtils {
                     resultSet = statement.executeQuery(); //NOSONAR
                     
                     if (resultType == ResultPackage.class) {
-                        result = new ResultPackage(connection, statement, resultSet); //NOSONAR
-                    } else if (resultType == Integer.class) {
-                        result = Integer.valueOf((resultSet.next()) ? resultSet.getInt(1) : -1);
-                    } else if (resultType == String.class) {
-                        result = (resultSet.next()) ? resultSet.getString(1) : null;
+                        result = new ResultPackage(execution, connection, statement, resultSet, fetchSize); //NOSONAR
                     } else {
-                        result = (resultSet.next()) ? resultSet.getObject(1, resultType) : null;
+                        boolean hasRow = resultSet.next();
+                        if (resultType == Integer.class) {
+                            result = Integer.valueOf(hasRow ? resultSet.getInt(1) : -1);
+                        } else if (resultType == String.class) {
+                            result = hasRow ? resultSet.getString(1) : null;
+                        } else if (Scalar.isScalarType(resultType)) {
+                            result = Scalar.read(resultSet, resultType, hasRow);
+                        } else {
+                            result = hasRow ? resultSet.getObject(1, resultType) : null;
+                        }
+                        rows = hasRow ? 1 : 0;
                     }
                 }
             }
+            
+            if (resultType != ResultPackage.class) {
+                execution.succeeded(rows);
+            }
 
-        } catch (SQLException e) {
+        } catch (SQLException | RuntimeException e) {
             failed = true;
+            connection.checkFailure(e);
+            execution.failed(e);
             throw UncheckedThrow.throwUnchecked(e);
         } finally {
             if (failed || (resultType != ResultPackage.class)) {
@@ -611,19 +1519,14 @@ public class DatabaseUtils {
                     }
                 }
                 if (statement != null) {
-                    try {
-                        statement.close();
-                    } catch (SQLException e) {
-                        // Suppress shutdown failures
+                    if (failed) {
+                        connection.discardStatement(statement);
+                    } else {
+                        releaseStatement(connection, statement, fetchSize);
                     }
                 }
                 if (connection != null) {
-                    try {
-                        connection.commit();
-                        connection.close();
-                    } catch (SQLException e) {
-                        // Suppress shutdown failures
-                    }
+                    releaseConnection(connection);
                 }
             }
         }
@@ -632,19 +1535,129 @@ public class DatabaseUtils {
     }
     
     /**
-     * Get a connection to the database associated with the specified connection string.
+     * Get a pooled connection to the database associated with the specified connection string.
+     * 
+     * @param connectionString database connection string
+     * @return pooled database connection object
+     */
+    private static PooledConnection getConnection(String connectionString) {
+        try {
+            return ConnectionPool.getPool(connectionString).borrow();
+        } catch (SQLException e) {
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+    }
+    
+    /**
+     * Get a pooled connection for the specified execution, recording the time spent acquiring it.
      * 
+     * @param execution {@link Execution} object
      * @param connectionString database connection string
-     * @return database connection object
+     * @return pooled database connection object
      */
-    private static Connection getConnection(String connectionString) {
+    private static PooledConnection acquire(Execution execution, String connectionString) {
         try {
-            return DriverManager.getConnection(connectionString);
+            PooledConnection connection = ConnectionPool.getPool(connectionString).borrow();
+            execution.acquired();
+            return connection;
         } catch (SQLException e) {
+            execution.failed(e);
             throw UncheckedThrow.throwUnchecked(e);
         }
     }
     
+    /**
+     * Return the specified statement to the statement cache of its connection, restoring the default fetch size if it
+     * was changed.
+     * 
+     * @param connection pooled database connection
+     * @param statement statement acquired from this connection
+     * @param fetchSize fetch size applied to the statement; 0 if unchanged
+     */
+    private static void releaseStatement(PooledConnection connection, PreparedStatement statement, int fetchSize) {
+        if (fetchSize > 0) {
+            try {
+                statement.setFetchSize(0);
+            } catch (SQLException e) {
+                connection.discardStatement(statement);
+                return;
+            }
+        }
+        connection.releaseStatement(statement);
+    }
+    
+    /**
+     * Commit pending work on the specified connection and return it to its pool. If the commit fails, the connection
+     * is discarded. Connections in auto-commit mode have no pending work, so no commit is issued for them.
+     * <p>
+     * <b>NOTE</b>: Connections pinned by a {@link Transaction} are left untouched; they're committed or rolled back
+     * and released by the transaction itself.
+     * 
+     * @param connection pooled database connection
+     */
+    private static void releaseConnection(PooledConnection connection) {
+        if (connection.isPinned()) {
+            return;
+        }
+        try {
+            Connection conn = connection.getConnection();
+            if (!conn.getAutoCommit()) {
+                conn.commit();
+            }
+            connection.release();
+        } catch (SQLException e) {
+            connection.discard();
+        }
+    }
+    
+    /**
+     * Close the specified statement and return its connection to the pool after a failure to prepare or bind it. If
+     * the failure indicates that the connection itself failed, the connection is discarded.
+     * 
+     * @param connection pooled database connection
+     * @param statement prepared statement (may be {@code null})
+     * @param thrown failure that caused the statement to be abandoned
+     */
+    private static void abandon(PooledConnection connection, PreparedStatement statement, Throwable thrown) {
+        connection.checkFailure(thrown);
+        if (statement != null) {
+            connection.discardStatement(statement);
+        }
+        releaseConnection(connection);
+    }
+    
+    /**
+     * This interface defines the strategy used by {@link DatabaseUtils#executeBatch executeBatch} to produce and
+     * populate the statement for each row of a batch.
+     */
+    private interface BatchBinder {
+        
+        /**
+         * Validate the specified row and get the SQL text of the statement that executes it.
+         * 
+         * @param args arguments for this row
+         * @return SQL text for this row
+         */
+        String getSqlStr(Object[] args);
+        
+        /**
+         * Determine if the statements produced by this binder are stored procedure calls.
+         * 
+         * @return {@code true} if statements are callable; otherwise {@code false}
+         */
+        boolean isCallable();
+        
+        /**
+         * Bind the arguments of the row most recently passed to {@link #getSqlStr(Object[])} to the specified
+         * statement.
+         * 
+         * @param statement statement produced for this row
+         * @param args arguments for this row
+         * @throws SQLException if a database access error occurs
+         */
+        void bind(PreparedStatement statement, Object[] args) throws SQLException;
+    }
+    
     /**
      * This interface defines the API supported by database query collections
      */
@@ -736,32 +1749,46 @@ public class DatabaseUtils {
      */
     public static class ResultPackage implements AutoCloseable {
         
-        private Connection connection;
+        private PooledConnection connection;
         private PreparedStatement statement;
         private ResultSet resultSet;
+        private Execution execution;
+        private long rowCount = -1;
+        private Throwable failure;
+        private final int fetchSize;
+        private final ResultPackageTracker.Entry tracking;
         
         /**
          * Constructor for a result package object
          * 
-         * @param connection {@link Connection} object
+         * @param execution {@link Execution} that opened this package
+         * @param connection {@link PooledConnection} object
          * @param statement {@link PreparedStatement} object
          * @param resultSet {@link ResultSet} object
+         * @param fetchSize fetch size applied to the statement; 0 if unchanged
          */
-        private ResultPackage(Connection connection, PreparedStatement statement, ResultSet resultSet) {
+        private ResultPackage(Execution execution, PooledConnection connection, PreparedStatement statement,
+                        ResultSet resultSet, int fetchSize) {
             this.connection = connection;
             this.statement = statement;
             this.resultSet = resultSet;
+            this.execution = execution;
+            this.fetchSize = fetchSize;
+            this.tracking = ResultPackageTracker.track(this, execution, connection, statement);
         }
         
         public Connection getConnection() {
-            return connection;
+            tracking.expose();
+            return (connection != null) ? connection.getConnection() : null;
         }
         
         public PreparedStatement getStatement() {
+            tracking.expose();
             return statement;
         }
         
         public CallableStatement getCallable() {
+            tracking.expose();
             if (statement instanceof CallableStatement) {
                 return (CallableStatement) statement;
             }
@@ -774,12 +1801,68 @@ public class DatabaseUtils {
          * @return {@link ResultSet} object
          */
         public ResultSet getResultSet() {
+            tracking.expose();
             if (resultSet != null) return resultSet;
             throw new IllegalStateException("The result set in this package has been closed");
         }
         
+        /**
+         * Get an iterator over the rows of the result set of this package, mapped by the specified row mapper. Rows are
+         * read from the result set as the iterator advances, and this package is closed when the last row has been
+         * read. If iteration is abandoned early, close the iterator (or this package) to release its resources.
+         * <p>
+         * <b>NOTE</b>: The returned iterator can only be traversed once. If this package has no result set (e.g. - a
+         * stored procedure that returns none), the iterator is empty.
+         * 
+         * @param <T> row type
+         * @param mapper {@link RowMapper} that converts each row to an object
+         * @return {@link RowIterator} over the mapped rows
+         */
+        public <T> RowIterator<T> iterate(RowMapper<T> mapper) {
+            return new RowIterator<>(this, resultSet, mapper);
+        }
+        
+        /**
+         * Record rows read from the results of this package. The total is reported to {@link ExecutionListener}
+         * objects as the row count of the execution when this package is closed.
+         * 
+         * @param rows number of rows read
+         */
+        void addRows(long rows) {
+            rowCount = Math.max(rowCount, 0) + rows;
+        }
+        
+        /**
+         * Record a failure to read the results of this package. The failure is reported to {@link ExecutionListener}
+         * objects when this package is closed, and the statement is discarded instead of being cached.
+         * 
+         * @param thrown exception that caused the failure
+         */
+        void failed(Throwable thrown) {
+            if (failure == null) {
+                failure = thrown;
+            }
+        }
+        
+        /**
+         * {@inheritDoc}
+         * <p>
+         * The execution that opened this package is completed when it's closed, so the reported execution time includes
+         * the time spent reading its results. If rows were read through {@link #iterate(RowMapper)} or the streaming
+         * methods of {@link DatabaseUtils}, the execution reports how many; otherwise its row count is -1 (unknown).
+         * <p>
+         * <b>NOTE</b>: If this package was forcibly closed by {@link ResultPackageTracker}, its resources have already
+         * been released, and this method simply clears its references.
+         */
         @Override
         public void close() {
+            Execution finished = execution;
+            execution = null;
+            if ((connection != null) && !tracking.release()) {
+                resultSet = null;
+                statement = null;
+                connection = null;
+            }
             if (resultSet != null) {
                 try {
                     resultSet.close();
@@ -787,17 +1870,26 @@ public class DatabaseUtils {
                 } catch (SQLException e) { }
             }
             if (statement != null) {
-                try {
-                    statement.close();
-                    statement = null;
-                } catch (SQLException e) { }
+                if (failure != null) {
+                    connection.discardStatement(statement);
+                } else {
+                    releaseStatement(connection, statement, fetchSize);
+                }
+                statement = null;
             }
             if (connection != null) {
-                try {
-                    connection.commit();
-                    connection.close();
-                    connection = null;
-                } catch (SQLException e) { }
+                if (failure != null) {
+                    connection.checkFailure(failure);
+                }
+                releaseConnection(connection);
+                connection = null;
+            }
+            if (finished != null) {
+                if (failure != null) {
+                    finished.failed(failure);
+                } else {
+                    finished.succeeded(rowCount);
+                }
             }
         }
     }
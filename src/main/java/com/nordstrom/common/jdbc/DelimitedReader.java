@@ -0,0 +1,128 @@
+package com.nordstrom.common.jdbc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class reads records from a stream of delimited text (e.g. - CSV or TSV). Fields may be enclosed in double
+ * quotes, in which case they may contain delimiters and line breaks, and embedded quotes are escaped by doubling them.
+ * Records are parsed one at a time, so memory use is bounded by the size of the largest record.
+ */
+final class DelimitedReader implements Closeable {
+
+    private static final int EOF = -1;
+    private static final char QUOTE = '"';
+
+    private final Reader reader;
+    private final char delimiter;
+    private final StringBuilder field = new StringBuilder();
+    private int pushback = EOF - 1;
+
+    /**
+     * Constructor for a delimited reader object
+     *
+     * @param reader source of delimited text (should be buffered)
+     * @param delimiter field delimiter
+     */
+    DelimitedReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return array of field values; {@code null} at end of stream
+     * @throws IOException if an I/O error occurs
+     */
+    String[] next() throws IOException {
+        int ch = read();
+        if (ch == EOF) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        boolean quoted = false;
+        field.setLength(0);
+
+        while (true) {
+            if (quoted) {
+                if (ch == EOF) {
+                    throw new IOException("Unterminated quoted field at end of input");
+                } else if (ch == QUOTE) {
+                    int next = read();
+                    if (next == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        quoted = false;
+                        pushback = next;
+                    }
+                } else {
+                    field.append((char) ch);
+                }
+            } else if ((ch == QUOTE) && (field.length() == 0)) {
+                quoted = true;
+            } else if (ch == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if ((ch == '\n') || (ch == '\r') || (ch == EOF)) {
+                if (ch == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushback = next;
+                    }
+                }
+                fields.add(field.toString());
+                return fields.toArray(new String[fields.size()]);
+            } else {
+                field.append((char) ch);
+            }
+            ch = read();
+        }
+    }
+
+    /**
+     * Format the specified fields as a delimited record, quoting fields as needed.
+     *
+     * @param fields array of field values
+     * @param delimiter field delimiter
+     * @return delimited record (without line terminator)
+     */
+    static String format(String[] fields, char delimiter) {
+        StringBuilder record = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) record.append(delimiter);
+            String value = (fields[i] != null) ? fields[i] : "";
+            if ((value.indexOf(delimiter) >= 0) || (value.indexOf(QUOTE) >= 0) || (value.indexOf('\n') >= 0)
+                            || (value.indexOf('\r') >= 0)) {
+                record.append(QUOTE).append(value.replace("\"", "\"\"")).append(QUOTE);
+            } else {
+                record.append(value);
+            }
+        }
+        return record.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Read the next character, honoring any pushed-back character.
+     *
+     * @return next character; {@link #EOF} at end of stream
+     * @throws IOException if an I/O error occurs
+     */
+    private int read() throws IOException {
+        if (pushback >= EOF) {
+            int ch = pushback;
+            pushback = EOF - 1;
+            return ch;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,173 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class locates the JDBC drivers that open the connections of {@link ConnectionPool}. Drivers declared in
+ * <b>META-INF/services/java.sql.Driver</b> provider configuration files are instantiated lazily, one at a time, until
+ * one accepts the requested URL. Matching drivers are cached by URL prefix (<b>jdbc:</b><i>subprotocol</i><b>:</b>),
+ * so later connections for the same prefix are opened with {@link Driver#connect(String, Properties)} directly, without
+ * a search of the drivers registered with {@link DriverManager}. Because different drivers can share a prefix (e.g. -
+ * the Derby embedded and network client drivers), each prefix caches every driver it has matched, and a cached driver
+ * is used only if it accepts the requested URL.
+ * <p>
+ * If no declared driver accepts a URL, drivers registered with {@link DriverManager} by other means (e.g. - {@code
+ * Class.forName}) are consulted. Drivers can also be registered explicitly with {@link #register(String, Driver)}.
+ */
+public final class DriverRegistry {
+
+    private static final ConcurrentMap<String, Driver[]> DRIVERS = new ConcurrentHashMap<>();
+
+    private static final List<Driver> LOADED = new ArrayList<>();
+    private static Iterator<Driver> providers;
+
+    private DriverRegistry() {
+        throw new AssertionError("DriverRegistry is a static utility class that cannot be instantiated");
+    }
+
+    /**
+     * Register the specified driver for connection URLs with the indicated prefix, replacing any drivers previously
+     * cached for this prefix. URLs with this prefix that the driver doesn't accept are matched by search.
+     *
+     * @param prefix URL prefix (e.g. - <b>jdbc:oracle:</b>)
+     * @param driver JDBC driver for connection URLs with the specified prefix
+     */
+    public static void register(String prefix, Driver driver) {
+        DRIVERS.put(prefix, new Driver[] {driver});
+    }
+
+    /**
+     * Get the driver for the specified connection URL.
+     *
+     * @param url database connection URL
+     * @return JDBC driver that accepts the specified URL
+     * @throws SQLException if no driver accepts the specified URL
+     */
+    public static Driver getDriver(String url) throws SQLException {
+        String prefix = getPrefix(url);
+        Driver[] cached = DRIVERS.get(prefix);
+        if (cached != null) {
+            for (Driver driver : cached) {
+                if (driver.acceptsURL(url)) {
+                    return driver;
+                }
+            }
+        }
+        Driver driver = findDriver(url);
+        cache(prefix, driver);
+        return driver;
+    }
+
+    /**
+     * Add the specified driver to the drivers cached for the indicated prefix.
+     *
+     * @param prefix URL prefix
+     * @param driver JDBC driver that accepts a URL with the specified prefix
+     */
+    private static void cache(String prefix, Driver driver) {
+        while (true) {
+            Driver[] cached = DRIVERS.get(prefix);
+            if (cached == null) {
+                if (DRIVERS.putIfAbsent(prefix, new Driver[] {driver}) == null) {
+                    return;
+                }
+                continue;
+            }
+            for (Driver each : cached) {
+                if (each == driver) {
+                    return;
+                }
+            }
+            Driver[] drivers = Arrays.copyOf(cached, cached.length + 1);
+            drivers[cached.length] = driver;
+            if (DRIVERS.replace(prefix, cached, drivers)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Open a connection to the database at the specified URL.
+     *
+     * @param url database connection URL
+     * @return new database connection
+     * @throws SQLException if no driver accepts the specified URL; if a database access error occurs
+     */
+    public static Connection connect(String url) throws SQLException {
+        Connection connection = getDriver(url).connect(url, new Properties());
+        if (connection == null) {
+            throw new SQLException("No suitable driver found for " + url, "08001");
+        }
+        return connection;
+    }
+
+    /**
+     * Get the driver-matching prefix of the specified connection URL.
+     *
+     * @param url database connection URL
+     * @return URL prefix through the sub-protocol (e.g. - <b>jdbc:derby:</b>); the entire URL if it has no sub-protocol
+     */
+    static String getPrefix(String url) {
+        int start = url.startsWith("jdbc:") ? 5 : 0;
+        int end = url.indexOf(':', start);
+        return (end < 0) ? url : url.substring(0, end + 1);
+    }
+
+    /**
+     * Find a driver that accepts the specified URL, instantiating declared drivers as needed.
+     *
+     * @param url database connection URL
+     * @return JDBC driver that accepts the specified URL
+     * @throws SQLException if no driver accepts the specified URL
+     */
+    private static synchronized Driver findDriver(String url) throws SQLException {
+        for (Driver driver : LOADED) {
+            if (driver.acceptsURL(url)) {
+                return driver;
+            }
+        }
+
+        if (providers == null) {
+            providers = ServiceLoader.load(Driver.class).iterator();
+        }
+        while (true) {
+            Driver driver;
+            try {
+                if (!providers.hasNext()) {
+                    break;
+                }
+            } catch (ServiceConfigurationError e) {
+                // Suppress malformed provider configuration
+                break;
+            }
+            try {
+                driver = providers.next();
+            } catch (ServiceConfigurationError e) {
+                // Suppress unavailable providers
+                continue;
+            }
+            LOADED.add(driver);
+            if (driver.acceptsURL(url)) {
+                return driver;
+            }
+        }
+
+        try {
+            return DriverManager.getDriver(url);
+        } catch (SQLException e) {
+            throw new SQLException("No suitable driver found for " + url, "08001", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.nordstrom.common.jdbc;
+
+/**
+ * This class describes a single query or stored procedure execution performed by {@link DatabaseUtils}. It's passed
+ * to {@link ExecutionListener} objects, and records the time spent acquiring a connection, the time spent executing
+ * the statement, and the number of rows affected or returned.
+ */
+public final class Execution {
+
+    private final Enum<?> constant;
+    private final String sql;
+    private final Object[] args;
+    private long startNanos;
+    private long acquireNanos;
+    private long executeNanos;
+    private long rowCount = -1;
+    private boolean acquired;
+
+    /**
+     * Constructor for an execution object
+     *
+     * @param constant query or stored procedure enumerated constant; {@code null} for ad hoc SQL
+     * @param sql SQL text of the statement
+     * @param args bind arguments of the statement
+     */
+    Execution(Enum<?> constant, String sql, Object[] args) {
+        this.constant = constant;
+        this.sql = sql;
+        this.args = args;
+    }
+
+    /**
+     * Get the enumerated constant of the query or stored procedure object being executed.
+     *
+     * @return query or stored procedure enumerated constant; {@code null} for ad hoc SQL
+     */
+    public Enum<?> getConstant() {
+        return constant;
+    }
+
+    /**
+     * Get the name of the enumerated constant of the query or stored procedure object being executed.
+     *
+     * @return enumerated constant name; {@code null} for ad hoc SQL
+     */
+    public String getName() {
+        return (constant != null) ? constant.name() : null;
+    }
+
+    /**
+     * Get the SQL text of the statement being executed.
+     *
+     * @return SQL text (for stored procedures, the call string)
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Get the bind arguments of the statement being executed. For stored procedures, these are {@link Param} objects.
+     * <p>
+     * <b>NOTE</b>: The returned array must not be modified.
+     *
+     * @return bind arguments
+     */
+    public Object[] getArgs() {
+        return args;
+    }
+
+    /**
+     * Get the time spent acquiring a connection for this execution.
+     *
+     * @return connection acquire time (nS)
+     */
+    public long getAcquireNanos() {
+        return acquireNanos;
+    }
+
+    /**
+     * Get the time spent preparing and executing the statement of this execution. For results returned as a {@link
+     * DatabaseUtils.ResultPackage ResultPackage}, this includes the time spent reading the results until the package
+     * was closed.
+     *
+     * @return statement execution time (nS)
+     */
+    public long getExecuteNanos() {
+        return executeNanos;
+    }
+
+    /**
+     * Get the number of rows affected or returned by this execution. For updates, this is the update count; for
+     * single-value queries, this is 1 if a row was returned and 0 otherwise; for results that are iterated, streamed,
+     * or exported, this is the number of rows read.
+     *
+     * @return row count; -1 if unknown (e.g. - for a {@link DatabaseUtils.ResultPackage} whose result set was read by
+     *         the caller)
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Start this execution, notifying registered listeners.
+     */
+    void begin() {
+        startNanos = System.nanoTime();
+        ExecutionMetrics.fireBefore(this);
+    }
+
+    /**
+     * Record that a connection has been acquired for this execution.
+     */
+    void acquired() {
+        long now = System.nanoTime();
+        acquireNanos = now - startNanos;
+        startNanos = now;
+        acquired = true;
+    }
+
+    /**
+     * Record the successful completion of this execution.
+     *
+     * @param rows number of rows affected or returned; -1 if unknown
+     */
+    void succeeded(long rows) {
+        executeNanos = System.nanoTime() - startNanos;
+        rowCount = rows;
+        ExecutionMetrics.recordSuccess(this);
+    }
+
+    /**
+     * Record the failure of this execution.
+     *
+     * @param thrown exception that caused the failure
+     */
+    void failed(Throwable thrown) {
+        if (acquired) {
+            executeNanos = System.nanoTime() - startNanos;
+        } else {
+            acquireNanos = System.nanoTime() - startNanos;
+        }
+        ExecutionMetrics.recordFailure(this, thrown);
+    }
+}
@@ -0,0 +1,34 @@
+package com.nordstrom.common.jdbc;
+
+/**
+ * This interface defines the API of listeners that are notified of each query and stored procedure execution performed
+ * by {@link DatabaseUtils}. Listeners are registered via {@link ExecutionMetrics#addListener(ExecutionListener)} or
+ * declared as service providers in <b>META-INF/services/com.nordstrom.common.jdbc.ExecutionListener</b>.
+ * <p>
+ * <b>NOTE</b>: Listeners are invoked on the thread that performs the execution, so implementations must be
+ * thread-safe and should return quickly. Exceptions thrown by listeners are suppressed.
+ */
+public interface ExecutionListener {
+
+    /**
+     * Invoked before a connection is acquired for the specified execution.
+     *
+     * @param execution {@link Execution} object
+     */
+    void beforeExecution(Execution execution);
+
+    /**
+     * Invoked after the specified execution completes successfully.
+     *
+     * @param execution {@link Execution} object
+     */
+    void afterExecution(Execution execution);
+
+    /**
+     * Invoked after the specified execution fails.
+     *
+     * @param execution {@link Execution} object
+     * @param thrown exception that caused the failure
+     */
+    void onFailure(Execution execution, Throwable thrown);
+}
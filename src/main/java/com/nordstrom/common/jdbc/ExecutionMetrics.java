@@ -0,0 +1,170 @@
+package com.nordstrom.common.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+
+/**
+ * This class records metrics for the query and stored procedure executions performed by {@link DatabaseUtils} and
+ * dispatches them to registered {@link ExecutionListener} objects. For each {@link QueryAPI} and {@link SProcAPI}
+ * constant, {@link QueryMetrics} accumulates call, error, and row counts along with histograms of connection acquire
+ * and statement execution times. Executions of ad hoc SQL are dispatched to listeners but not recorded.
+ * <p>
+ * Listeners declared as service providers of {@link ExecutionListener} are registered when this class is initialized,
+ * as is a {@link SlowQueryLog} if one is specified by system properties.
+ */
+public final class ExecutionMetrics {
+
+    private static final List<ExecutionListener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final Queue<QueryMetrics> ALL_METRICS = new ConcurrentLinkedQueue<>();
+
+    private static final ClassValue<AtomicReferenceArray<QueryMetrics>> METRICS =
+                    new ClassValue<AtomicReferenceArray<QueryMetrics>>() {
+        @Override
+        protected AtomicReferenceArray<QueryMetrics> computeValue(Class<?> type) {
+            return new AtomicReferenceArray<>(type.getEnumConstants().length);
+        }
+    };
+
+    static {
+        for (ExecutionListener listener : ServiceLoader.load(ExecutionListener.class)) {
+            LISTENERS.add(listener);
+        }
+        SlowQueryLog slowQueryLog = SlowQueryLog.fromProperties();
+        if (slowQueryLog != null) {
+            LISTENERS.add(slowQueryLog);
+        }
+    }
+
+    private ExecutionMetrics() {
+        throw new AssertionError("ExecutionMetrics is a static utility class that cannot be instantiated");
+    }
+
+    /**
+     * Register the specified execution listener.
+     *
+     * @param listener {@link ExecutionListener} object
+     */
+    public static void addListener(ExecutionListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Unregister the specified execution listener.
+     *
+     * @param listener {@link ExecutionListener} object
+     * @return {@code true} if the listener was registered; otherwise {@code false}
+     */
+    public static boolean removeListener(ExecutionListener listener) {
+        return LISTENERS.remove(listener);
+    }
+
+    /**
+     * Get the metrics of the specified query object.
+     *
+     * @param query query object
+     * @return {@link QueryMetrics} object
+     */
+    public static QueryMetrics getMetrics(QueryAPI query) {
+        return metricsOf(query.getEnum());
+    }
+
+    /**
+     * Get the metrics of the specified stored procedure object.
+     *
+     * @param sproc stored procedure object
+     * @return {@link QueryMetrics} object
+     */
+    public static QueryMetrics getMetrics(SProcAPI sproc) {
+        return metricsOf(sproc.getEnum());
+    }
+
+    /**
+     * Get the metrics of every query and stored procedure constant that has been executed.
+     *
+     * @return list of {@link QueryMetrics} objects
+     */
+    public static List<QueryMetrics> getAllMetrics() {
+        return Collections.unmodifiableList(new ArrayList<>(ALL_METRICS));
+    }
+
+    /**
+     * Notify registered listeners that the specified execution is starting.
+     *
+     * @param execution {@link Execution} object
+     */
+    static void fireBefore(Execution execution) {
+        for (ExecutionListener listener : LISTENERS) {
+            try {
+                listener.beforeExecution(execution);
+            } catch (RuntimeException e) {
+                // Suppress listener failures
+            }
+        }
+    }
+
+    /**
+     * Record the successful completion of the specified execution and notify registered listeners.
+     *
+     * @param execution {@link Execution} object
+     */
+    static void recordSuccess(Execution execution) {
+        if (execution.getConstant() != null) {
+            metricsOf(execution.getConstant()).record(execution, false);
+        }
+        for (ExecutionListener listener : LISTENERS) {
+            try {
+                listener.afterExecution(execution);
+            } catch (RuntimeException e) {
+                // Suppress listener failures
+            }
+        }
+    }
+
+    /**
+     * Record the failure of the specified execution and notify registered listeners.
+     *
+     * @param execution {@link Execution} object
+     * @param thrown exception that caused the failure
+     */
+    static void recordFailure(Execution execution, Throwable thrown) {
+        if (execution.getConstant() != null) {
+            metricsOf(execution.getConstant()).record(execution, true);
+        }
+        for (ExecutionListener listener : LISTENERS) {
+            try {
+                listener.onFailure(execution, thrown);
+            } catch (RuntimeException e) {
+                // Suppress listener failures
+            }
+        }
+    }
+
+    /**
+     * Get the metrics of the specified enumerated constant, creating them on first use.
+     *
+     * @param constant query or stored procedure enumerated constant
+     * @return {@link QueryMetrics} object
+     */
+    static QueryMetrics metricsOf(Enum<?> constant) {
+        AtomicReferenceArray<QueryMetrics> metrics = METRICS.get(constant.getDeclaringClass());
+        QueryMetrics result = metrics.get(constant.ordinal());
+        if (result == null) {
+            result = new QueryMetrics(constant);
+            if (metrics.compareAndSet(constant.ordinal(), null, result)) {
+                ALL_METRICS.add(result);
+            } else {
+                result = metrics.get(constant.ordinal());
+            }
+        }
+        return result;
+    }
+}
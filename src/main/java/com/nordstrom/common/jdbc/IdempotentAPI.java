@@ -0,0 +1,22 @@
+package com.nordstrom.common.jdbc;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+
+/**
+ * This interface marks {@link QueryAPI} and {@link SProcAPI} objects whose execution can safely be repeated. When an
+ * execution of one of these objects fails with a transient error (e.g. - a deadlock), it's retried according to its
+ * {@link RetryPolicy}. Objects that don't implement this interface are never retried.
+ * <p>
+ * <b>NOTE</b>: Executions within a {@link Transaction} and batch updates are never retried, because a failure rolls
+ * back work that the retry wouldn't repeat.
+ */
+public interface IdempotentAPI {
+
+    /**
+     * Get the retry policy for this object.
+     *
+     * @return {@link RetryPolicy} object; {@code null} for the {@link RetryPolicy#getDefault() default policy}
+     */
+    RetryPolicy getRetryPolicy();
+}
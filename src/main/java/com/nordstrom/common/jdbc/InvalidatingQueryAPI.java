@@ -0,0 +1,18 @@
+package com.nordstrom.common.jdbc;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+
+/**
+ * This interface defines the API of query objects that write tables read by {@link CachedQueryAPI} queries. When an
+ * update is executed through one of these queries, cached results that depend on the tables it writes are evicted
+ * from {@link QueryCache}.
+ */
+public interface InvalidatingQueryAPI extends QueryAPI {
+
+    /**
+     * Get the names of the tables written by this query.
+     *
+     * @return array of table names (case-insensitive)
+     */
+    String[] getWriteTables();
+}
@@ -0,0 +1,256 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+
+/**
+ * This class pages through the rows of a {@link QueryAPI} query by key instead of by offset. Each page is selected by
+ * the key of the last row of the previous page, so every page costs the same index seek no matter how deep into the
+ * table it lies. The query must order its rows by a unique key column and must declare an argument named {@value
+ * #LAST_KEY_ARG}, which is bound to the key that precedes the page. It may also declare an argument named {@value
+ * #PAGE_SIZE_ARG}, which is bound to the page size:
+ * <pre>
+ * USERS_AFTER("select id, name from users where region=? and id &gt; ? order by id fetch first ? rows only",
+ *         "region", "lastKey", "pageSize")
+ * ...
+ * KeysetPager&lt;User&gt; pager = new KeysetPager&lt;&gt;(OpctValues.USERS_AFTER, "id", 500, RowMappers.forBean(User.class));
+ * for (User user : pager.rows(0L, "west")) {
+ *     ...
+ * }
+ * </pre>
+ * Arguments supplied to this pager are bound to the other place-holders of the query in order. If the query has no
+ * {@value #PAGE_SIZE_ARG} argument, the pager stops reading each page after the page size is reached. Keys are read
+ * from the key column with {@link ResultSet#getObject(String)} and bound as-is to the next page.
+ * <p>
+ * <b>NOTE</b>: Each page is read on its own pooled connection, so rows inserted or deleted while paging may be seen
+ * or missed, but no row is ever returned twice.
+ *
+ * @param <T> row type
+ */
+public final class KeysetPager<T> {
+
+    /** name of the query argument that receives the key preceding each page */
+    public static final String LAST_KEY_ARG = "lastKey";
+    /** name of the optional query argument that receives the page size */
+    public static final String PAGE_SIZE_ARG = "pageSize";
+
+    private final QueryAPI query;
+    private final String keyColumn;
+    private final int pageSize;
+    private final RowMapper<T> mapper;
+    private final int lastKeyIndex;
+    private final int pageSizeIndex;
+
+    /**
+     * Constructor for a keyset pager object
+     *
+     * @param query query object that selects a page of rows after a key
+     * @param keyColumn label of the key column in the result set
+     * @param pageSize maximum number of rows per page
+     * @param mapper {@link RowMapper} that converts each row to an object
+     */
+    public KeysetPager(QueryAPI query, String keyColumn, int pageSize, RowMapper<T> mapper) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive; specified: " + pageSize);
+        }
+        this.query = query;
+        this.keyColumn = keyColumn;
+        this.pageSize = pageSize;
+        this.mapper = mapper;
+
+        int lastKey = -1;
+        int size = -1;
+        String[] argNames = query.getArgNames();
+        for (int i = 0; i < argNames.length; i++) {
+            if (LAST_KEY_ARG.equals(argNames[i])) {
+                lastKey = i;
+            } else if (PAGE_SIZE_ARG.equals(argNames[i])) {
+                size = i;
+            }
+        }
+        if (lastKey < 0) {
+            throw new IllegalArgumentException(
+                            "Query " + query.getEnum().name() + " has no '" + LAST_KEY_ARG + "' argument");
+        }
+        this.lastKeyIndex = lastKey;
+        this.pageSizeIndex = size;
+    }
+
+    /**
+     * Get the page of rows that follows the specified key.
+     *
+     * @param lastKey key that precedes the page (e.g. - the key of the last row of the previous page)
+     * @param queryArgs replacement values for the other query place-holders
+     * @return {@link Page} object
+     */
+    public Page<T> page(Object lastKey, Object... queryArgs) {
+        Object[] args = bind(lastKey, queryArgs);
+        List<T> rows = new ArrayList<>(Math.min(pageSize, DatabaseUtils.DEFAULT_BATCH_SIZE));
+        KeyRecorder recorder = new KeyRecorder();
+        try (RowIterator<T> iterator = DatabaseUtils.iterate(query, pageSize, recorder, args)) {
+            while ((rows.size() < pageSize) && iterator.hasNext()) {
+                rows.add(iterator.next());
+            }
+        }
+        return new Page<>(rows, rows.isEmpty() ? lastKey : recorder.key, rows.size() == pageSize);
+    }
+
+    /**
+     * Get all rows that follow the specified key. Pages are fetched as the returned iterable is traversed.
+     *
+     * @param startKey key that precedes the first row (e.g. - a value below the smallest key)
+     * @param queryArgs replacement values for the other query place-holders
+     * @return iterable over the rows of all pages
+     */
+    public Iterable<T> rows(final Object startKey, final Object... queryArgs) {
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new PageIterator(startKey, queryArgs);
+            }
+        };
+    }
+
+    /**
+     * Merge the specified key and query arguments into the argument array for the query.
+     *
+     * @param lastKey key that precedes the page
+     * @param queryArgs replacement values for the other query place-holders
+     * @return replacement values for all query place-holders
+     */
+    private Object[] bind(Object lastKey, Object[] queryArgs) {
+        Object[] args = new Object[query.getArgNames().length];
+        int expect = args.length - ((pageSizeIndex < 0) ? 1 : 2);
+        if (queryArgs.length != expect) {
+            throw new IllegalArgumentException(String.format("Wrong number of arguments for [%s]: expect %d; got %d",
+                            query.getEnum().name(), expect, queryArgs.length));
+        }
+        int next = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (i == lastKeyIndex) {
+                args[i] = lastKey;
+            } else if (i == pageSizeIndex) {
+                args[i] = pageSize;
+            } else {
+                args[i] = queryArgs[next++];
+            }
+        }
+        return args;
+    }
+
+    /**
+     * This class holds a page of rows and the key of its last row.
+     *
+     * @param <T> row type
+     */
+    public static final class Page<T> {
+
+        private final List<T> rows;
+        private final Object lastKey;
+        private final boolean hasMore;
+
+        /**
+         * Constructor for a page object
+         *
+         * @param rows rows of this page
+         * @param lastKey key of the last row of this page
+         * @param hasMore {@code true} if this page is full
+         */
+        Page(List<T> rows, Object lastKey, boolean hasMore) {
+            this.rows = Collections.unmodifiableList(rows);
+            this.lastKey = lastKey;
+            this.hasMore = hasMore;
+        }
+
+        /**
+         * Get the rows of this page.
+         *
+         * @return unmodifiable list of rows
+         */
+        public List<T> getRows() {
+            return rows;
+        }
+
+        /**
+         * Get the key of the last row of this page. If this page is empty, this is the key that preceded it.
+         *
+         * @return key that precedes the next page
+         */
+        public Object getLastKey() {
+            return lastKey;
+        }
+
+        /**
+         * Determine if more rows may follow this page. This is {@code true} if this page is full.
+         *
+         * @return {@code true} if more rows may follow; {@code false} if this is the last page
+         */
+        public boolean hasMore() {
+            return hasMore;
+        }
+    }
+
+    /**
+     * This row mapper records the key of each row before converting it with the mapper of this pager.
+     */
+    private class KeyRecorder implements RowMapper<T> {
+
+        private Object key;
+
+        @Override
+        public T mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+            key = resultSet.getObject(keyColumn);
+            return mapper.mapRow(resultSet, rowNum);
+        }
+    }
+
+    /**
+     * This iterator traverses the rows of successive pages.
+     */
+    private class PageIterator implements Iterator<T> {
+
+        private final Object[] queryArgs;
+        private Page<T> page;
+        private int index;
+
+        /**
+         * Constructor for a page iterator object
+         *
+         * @param startKey key that precedes the first row
+         * @param queryArgs replacement values for the other query place-holders
+         */
+        PageIterator(Object startKey, Object[] queryArgs) {
+            this.queryArgs = queryArgs;
+            this.page = page(startKey, queryArgs);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if ((index == page.getRows().size()) && page.hasMore()) {
+                page = page(page.getLastKey(), queryArgs);
+                index = 0;
+            }
+            return index < page.getRows().size();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more rows follow the last page");
+            }
+            return page.getRows().get(index++);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Rows cannot be removed from a result set");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.nordstrom.common.jdbc;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class implements a lock-free histogram of durations in nanoseconds. Values are recorded in log-linear buckets
+ * (eight buckets per power of two), so reported percentiles are within 12.5% of the recorded values with a fixed
+ * memory footprint.
+ */
+public final class LatencyHistogram {
+
+    /** buckets per power of two (must be a power of two) */
+    private static final int SUB_BUCKETS = 8;
+    private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    private static final int BUCKET_COUNT = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final StripedCounter total = new StripedCounter();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record the specified duration.
+     *
+     * @param nanos duration (nS); negative values are recorded as 0
+     */
+    void record(long nanos) {
+        long value = Math.max(nanos, 0L);
+        buckets.getAndIncrement(indexOf(value));
+        total.add(value);
+        long current = max.get();
+        while ((value > current) && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Get the number of recorded durations.
+     *
+     * @return recorded duration count
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Get the sum of recorded durations.
+     *
+     * @return total duration (nS)
+     */
+    public long getTotalNanos() {
+        return total.sum();
+    }
+
+    /**
+     * Get the mean of recorded durations.
+     *
+     * @return mean duration (nS); 0 if no durations have been recorded
+     */
+    public long getMeanNanos() {
+        long count = getCount();
+        return (count > 0) ? getTotalNanos() / count : 0L;
+    }
+
+    /**
+     * Get the longest recorded duration.
+     *
+     * @return maximum duration (nS)
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Get the duration at the specified percentile of recorded durations.
+     *
+     * @param percentile percentile (0.0 - 100.0)
+     * @return upper bound of the bucket that contains the specified percentile (nS); 0 if no durations have been
+     *         recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if ((percentile < 0.0) || (percentile > 100.0)) {
+            throw new IllegalArgumentException("Percentile must be in the range 0.0 to 100.0: " + percentile);
+        }
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0L;
+        }
+        long rank = Math.max((long) Math.ceil((percentile / 100.0) * count), 1L);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Get the index of the bucket for the specified value.
+     *
+     * @param value non-negative value
+     * @return bucket index
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Get the largest value recorded in the specified bucket.
+     *
+     * @param index bucket index
+     * @return bucket upper bound
+     */
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >>> SUB_BITS) - 1;
+        long lower = (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,245 @@
+package com.nordstrom.common.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * This class expands list arguments of SQL statements. A {@link Collection} supplied for a place-holder that forms an
+ * entire IN list (e.g. - <b>where id in (?)</b>) is expanded to one place-holder per value. The place-holder count is
+ * rounded up to the next power of two, and the extra place-holders repeat the last value, so lists of any length are
+ * executed with a handful of distinct statements. Duplicate values don't change the outcome of an IN predicate.
+ * <p>
+ * A {@link Collection} supplied for any other place-holder is bound as a SQL array created with {@link
+ * java.sql.Connection#createArrayOf(String, Object[]) createArrayOf}, for drivers that support array parameters (e.g.
+ * - <b>where id = any(?)</b> in PostgreSQL). The array type is inferred from the first non-null value.
+ */
+final class ListArgs {
+
+    private final String sql;
+    private final Object[] args;
+
+    /**
+     * Constructor for an expanded statement object
+     *
+     * @param sql expanded SQL statement
+     * @param args expanded arguments
+     */
+    private ListArgs(String sql, Object[] args) {
+        this.sql = sql;
+        this.args = args;
+    }
+
+    /**
+     * Get the expanded SQL statement.
+     *
+     * @return SQL statement with IN list place-holders expanded
+     */
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * Get the expanded arguments.
+     *
+     * @return arguments with IN list values flattened and padded
+     */
+    Object[] getArgs() {
+        return args;
+    }
+
+    /**
+     * Determine if any of the specified arguments is a list.
+     *
+     * @param args statement arguments
+     * @return {@code true} if any argument is a {@link Collection}; otherwise {@code false}
+     */
+    static boolean hasLists(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Collection) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Expand the IN list place-holders of the specified statement for the indicated arguments.
+     *
+     * @param sql SQL statement with one '?' place-holder per argument
+     * @param args statement arguments
+     * @return expanded statement object
+     * @throws IllegalArgumentException if an IN list argument is empty
+     */
+    static ListArgs expand(String sql, Object[] args) {
+        StringBuilder builder = new StringBuilder(sql.length() + 32);
+        List<Object> flat = new ArrayList<>(args.length + 16);
+        int start = 0;
+        int from = 0;
+        for (int i = 0; i < args.length; i++) {
+            int index = nextPlaceholder(sql, from);
+            from = (index < 0) ? sql.length() : index + 1;
+            Object arg = args[i];
+            if ((index >= 0) && (arg instanceof Collection) && isInList(sql, index)) {
+                Collection<?> values = (Collection<?>) arg;
+                if (values.isEmpty()) {
+                    throw new IllegalArgumentException("Empty list supplied for IN list argument " + (i + 1));
+                }
+                Object last = null;
+                for (Object value : values) {
+                    flat.add(value);
+                    last = value;
+                }
+                int padded = bucket(values.size());
+                for (int j = values.size(); j < padded; j++) {
+                    flat.add(last);
+                }
+                builder.append(sql, start, index).append('?');
+                for (int j = 1; j < padded; j++) {
+                    builder.append(",?");
+                }
+                start = index + 1;
+            } else {
+                flat.add(arg);
+            }
+        }
+        builder.append(sql, start, sql.length());
+        return new ListArgs(builder.toString(), flat.toArray());
+    }
+
+    /**
+     * Bind the specified arguments to the indicated statement. List arguments are bound as SQL arrays.
+     *
+     * @param statement prepared statement
+     * @param args statement arguments, with IN lists already expanded
+     * @throws SQLException if a database access error occurs; if the driver doesn't support array parameters
+     */
+    static void bind(PreparedStatement statement, Object[] args) throws SQLException {
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg instanceof Collection) {
+                Collection<?> values = (Collection<?>) arg;
+                arg = statement.getConnection().createArrayOf(getTypeName(values), values.toArray());
+            }
+            statement.setObject(i + 1, arg);
+        }
+    }
+
+    /**
+     * Get the padded size of a list with the specified number of values.
+     *
+     * @param size number of values
+     * @return the least power of two that is not less than the size; 0 for an empty list
+     */
+    static int bucket(int size) {
+        return (size <= 1) ? size : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    /**
+     * Find the next '?' place-holder in the specified SQL statement, skipping literals, quoted identifiers, and
+     * comments.
+     *
+     * @param sql SQL statement
+     * @param from index at which to start the search
+     * @return index of the next place-holder; -1 if there are no more place-holders
+     */
+    static int nextPlaceholder(String sql, int from) {
+        int length = sql.length();
+        for (int i = from; i < length; i++) {
+            char ch = sql.charAt(i);
+            if ((ch == '\'') || (ch == '"')) {
+                int end = sql.indexOf(ch, i + 1);
+                i = (end < 0) ? length : end;
+            } else if ((ch == '-') && (i + 1 < length) && (sql.charAt(i + 1) == '-')) {
+                int end = sql.indexOf('\n', i);
+                i = (end < 0) ? length : end;
+            } else if ((ch == '/') && (i + 1 < length) && (sql.charAt(i + 1) == '*')) {
+                int end = sql.indexOf("*/", i + 2);
+                i = (end < 0) ? length : end + 1;
+            } else if (ch == '?') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Determine if the place-holder at the specified index forms an entire IN list.
+     *
+     * @param sql SQL statement
+     * @param index index of the place-holder
+     * @return {@code true} if the place-holder is enclosed as <b>IN (?)</b>; otherwise {@code false}
+     */
+    private static boolean isInList(String sql, int index) {
+        int after = skipSpace(sql, index + 1, 1);
+        if ((after >= sql.length()) || (sql.charAt(after) != ')')) {
+            return false;
+        }
+        int open = skipSpace(sql, index - 1, -1);
+        if ((open < 0) || (sql.charAt(open) != '(')) {
+            return false;
+        }
+        int end = skipSpace(sql, open - 1, -1);
+        if ((end < 1) || !sql.regionMatches(true, end - 1, "in", 0, 2)) {
+            return false;
+        }
+        return (end < 2) || !Character.isJavaIdentifierPart(sql.charAt(end - 2));
+    }
+
+    /**
+     * Skip whitespace in the specified direction.
+     *
+     * @param sql SQL statement
+     * @param index index at which to start
+     * @param step 1 to skip forward; -1 to skip backward
+     * @return index of the first character that isn't whitespace (may be out of bounds)
+     */
+    private static int skipSpace(String sql, int index, int step) {
+        while ((index >= 0) && (index < sql.length()) && Character.isWhitespace(sql.charAt(index))) {
+            index += step;
+        }
+        return index;
+    }
+
+    /**
+     * Get the SQL type name for an array of the specified values.
+     *
+     * @param values list values
+     * @return SQL type name inferred from the first non-null value
+     * @throws IllegalArgumentException if the type can't be inferred
+     */
+    private static String getTypeName(Collection<?> values) {
+        Object sample = null;
+        for (Iterator<?> iterator = values.iterator(); (sample == null) && iterator.hasNext(); ) {
+            sample = iterator.next();
+        }
+        if (sample instanceof String) {
+            return "VARCHAR";
+        } else if (sample instanceof Integer) {
+            return "INTEGER";
+        } else if (sample instanceof Long) {
+            return "BIGINT";
+        } else if (sample instanceof Short) {
+            return "SMALLINT";
+        } else if (sample instanceof BigDecimal) {
+            return "NUMERIC";
+        } else if (sample instanceof Double) {
+            return "DOUBLE";
+        } else if (sample instanceof Float) {
+            return "REAL";
+        } else if (sample instanceof Boolean) {
+            return "BOOLEAN";
+        } else if (sample instanceof java.sql.Timestamp) {
+            return "TIMESTAMP";
+        } else if (sample instanceof java.sql.Date) {
+            return "DATE";
+        } else if (sample instanceof java.sql.Time) {
+            return "TIME";
+        }
+        throw new IllegalArgumentException("Unable to infer SQL array type for list argument: " + values);
+    }
+}
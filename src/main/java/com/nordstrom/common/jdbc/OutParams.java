@@ -0,0 +1,263 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * This class is an immutable holder for the OUT and INOUT parameter values of a stored procedure call. The values are
+ * read as soon as the call completes, so the connection is released before this object is returned. Numeric and
+ * boolean parameters are stored as primitives and can be read without boxing.
+ * <p>
+ * Parameters are addressed by their 1-based position in the call, as with {@link CallableStatement}. Positions of IN
+ * parameters hold no value.
+ */
+public final class OutParams {
+
+    private static final int NONE = 0;
+    private static final int INTEGRAL = 1;
+    private static final int FLOATING = 2;
+    private static final int BOOLEAN = 3;
+    private static final int OBJECT = 4;
+
+    private final int[] kinds;
+    private final long[] primitives;
+    private final Object[] objects;
+    private final boolean[] nulls;
+
+    /**
+     * Constructor for an OUT parameter holder object
+     *
+     * @param count number of parameters in the call
+     */
+    private OutParams(int count) {
+        kinds = new int[count];
+        primitives = new long[count];
+        objects = new Object[count];
+        nulls = new boolean[count];
+    }
+
+    /**
+     * Read the OUT and INOUT parameter values of the specified executed call.
+     *
+     * @param statement executed stored procedure call
+     * @param params parameters of the call ({@link Param} objects)
+     * @return OUT parameter holder object
+     * @throws SQLException if a database access error occurs
+     */
+    static OutParams read(CallableStatement statement, Object[] params) throws SQLException {
+        OutParams outParams = new OutParams(params.length);
+        for (int i = 0; i < params.length; i++) {
+            Param param = (Param) params[i];
+            if (param.isOutput()) {
+                int index = i + 1;
+                int kind = kindOf(param.getParamType());
+                switch (kind) {
+                    case INTEGRAL:
+                        outParams.primitives[i] = statement.getLong(index);
+                        break;
+                    case FLOATING:
+                        outParams.primitives[i] = Double.doubleToRawLongBits(statement.getDouble(index));
+                        break;
+                    case BOOLEAN:
+                        outParams.primitives[i] = statement.getBoolean(index) ? 1 : 0;
+                        break;
+                    default:
+                        outParams.objects[i] = statement.getObject(index);
+                }
+                outParams.kinds[i] = kind;
+                outParams.nulls[i] = statement.wasNull();
+            }
+        }
+        return outParams;
+    }
+
+    /**
+     * Get the number of parameters in the call.
+     *
+     * @return parameter count
+     */
+    public int getParamCount() {
+        return kinds.length;
+    }
+
+    /**
+     * Determine if the parameter at the specified position is an OUT or INOUT parameter.
+     *
+     * @param index parameter position (1-based)
+     * @return {@code true} if the parameter holds an output value; otherwise {@code false}
+     */
+    public boolean isOutput(int index) {
+        return (index > 0) && (index <= kinds.length) && (kinds[index - 1] != NONE);
+    }
+
+    /**
+     * Determine if the value of the parameter at the specified position is SQL NULL.
+     *
+     * @param index parameter position (1-based)
+     * @return {@code true} if the value is SQL NULL; otherwise {@code false}
+     * @throws IllegalArgumentException if the specified position isn't an OUT or INOUT parameter
+     */
+    public boolean isNull(int index) {
+        return nulls[check(index)];
+    }
+
+    /**
+     * Get the value of the parameter at the specified position as an {@code int}.
+     *
+     * @param index parameter position (1-based)
+     * @return parameter value; 0 if SQL NULL
+     * @throws IllegalArgumentException if the specified position isn't an OUT or INOUT parameter
+     */
+    public int getInt(int index) {
+        return (int) getLong(index);
+    }
+
+    /**
+     * Get the value of the parameter at the specified position as a {@code long}.
+     *
+     * @param index parameter position (1-based)
+     * @return parameter value; 0 if SQL NULL
+     * @throws IllegalArgumentException if the specified position isn't an OUT or INOUT parameter
+     * @throws ClassCastException if the value isn't numeric
+     */
+    public long getLong(int index) {
+        int i = check(index);
+        switch (kinds[i]) {
+            case INTEGRAL:
+            case BOOLEAN:
+                return primitives[i];
+            case FLOATING:
+                return (long) Double.longBitsToDouble(primitives[i]);
+            default:
+                return (objects[i] != null) ? ((Number) objects[i]).longValue() : 0;
+        }
+    }
+
+    /**
+     * Get the value of the parameter at the specified position as a {@code double}.
+     *
+     * @param index parameter position (1-based)
+     * @return parameter value; 0 if SQL NULL
+     * @throws IllegalArgumentException if the specified position isn't an OUT or INOUT parameter
+     * @throws ClassCastException if the value isn't numeric
+     */
+    public double getDouble(int index) {
+        int i = check(index);
+        switch (kinds[i]) {
+            case INTEGRAL:
+            case BOOLEAN:
+                return primitives[i];
+            case FLOATING:
+                return Double.longBitsToDouble(primitives[i]);
+            default:
+                return (objects[i] != null) ? ((Number) objects[i]).doubleValue() : 0;
+        }
+    }
+
+    /**
+     * Get the value of the parameter at the specified position as a {@code boolean}.
+     *
+     * @param index parameter position (1-based)
+     * @return parameter value; {@code false} if SQL NULL
+     * @throws IllegalArgumentException if the specified position isn't an OUT or INOUT parameter
+     * @throws ClassCastException if the value isn't boolean or numeric
+     */
+    public boolean getBoolean(int index) {
+        int i = check(index);
+        if (kinds[i] == OBJECT) {
+            Object value = objects[i];
+            return (value instanceof Boolean) ? (Boolean) value : (getDouble(index) != 0);
+        }
+        return getDouble(index) != 0;
+    }
+
+    /**
+     * Get the value of the parameter at the specified position as a {@link String}.
+     *
+     * @param index parameter position (1-based)
+     * @return parameter value; {@code null} if SQL NULL
+     * @throws IllegalArgumentException if the specified position isn't an OUT or INOUT parameter
+     */
+    public String getString(int index) {
+        Object value = getObject(index);
+        return (value != null) ? value.toString() : null;
+    }
+
+    /**
+     * Get the value of the parameter at the specified position as an object.
+     *
+     * @param index parameter position (1-based)
+     * @return parameter value; {@code null} if SQL NULL
+     * @throws IllegalArgumentException if the specified position isn't an OUT or INOUT parameter
+     */
+    public Object getObject(int index) {
+        int i = check(index);
+        if (nulls[i]) {
+            return null;
+        }
+        switch (kinds[i]) {
+            case INTEGRAL:
+                return Long.valueOf(primitives[i]);
+            case FLOATING:
+                return Double.valueOf(Double.longBitsToDouble(primitives[i]));
+            case BOOLEAN:
+                return Boolean.valueOf(primitives[i] != 0);
+            default:
+                return objects[i];
+        }
+    }
+
+    /**
+     * Get the value of the parameter at the specified position as an object of the indicated type.
+     *
+     * @param <T> value type
+     * @param index parameter position (1-based)
+     * @param type value type
+     * @return parameter value; {@code null} if SQL NULL
+     * @throws IllegalArgumentException if the specified position isn't an OUT or INOUT parameter
+     * @throws ClassCastException if the value isn't of the indicated type
+     */
+    public <T> T getObject(int index, Class<T> type) {
+        return type.cast(getObject(index));
+    }
+
+    /**
+     * Verify that the parameter at the specified position holds an output value.
+     *
+     * @param index parameter position (1-based)
+     * @return parameter position (0-based)
+     * @throws IllegalArgumentException if the specified position isn't an OUT or INOUT parameter
+     */
+    private int check(int index) {
+        if (!isOutput(index)) {
+            throw new IllegalArgumentException("Parameter " + index + " is not an OUT or INOUT parameter");
+        }
+        return index - 1;
+    }
+
+    /**
+     * Get the storage kind for the specified parameter type.
+     *
+     * @param paramType parameter {@link Types type}
+     * @return storage kind
+     */
+    private static int kindOf(int paramType) {
+        switch (paramType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return INTEGRAL;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return FLOATING;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return BOOLEAN;
+            default:
+                return OBJECT;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.nordstrom.common.jdbc;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+
+/**
+ * This interface marks {@link SProcAPI} objects whose varargs are treated as a set, so repeating a value doesn't change
+ * the outcome of a call (e.g. - a procedure that looks up records by a list of IDs). The varargs of these objects are
+ * padded up to the next power of two by repeating the last value, so calls with any number of varargs are prepared
+ * with a handful of distinct call strings.
+ * <p>
+ * <b>NOTE</b>: The varargs of these objects must be IN parameters. Parameters supplied in a {@link ParamArray} aren't
+ * padded.
+ */
+public interface PaddedVarArgsAPI {
+}
@@ -8,12 +8,20 @@ import java.sql.Types;
 /**
  * This class is used to encapsulate parameters for stored procedure calls. In addition to parameter value, instances
  * of this class define {@link Mode parameter mode} (IN/OUT/INOUT) and {@link Types parameter type} (e.g. - INTEGER).
+ * <p>
+ * The strategy used to store each parameter is resolved from its type when the parameter is created. To avoid boxing
+ * numeric and boolean values, create parameters with the primitive-specialized factories (e.g. - {@link
+ * #inInt(int)}), or bind values into a reusable {@link ParamArray}.
  */
 public class Param {
     
     private Mode mode = Mode.IN;
     private int paramType;
+    private Binder binder;
     private Object inputValue;
+    private long longValue;
+    private double doubleValue;
+    private boolean primitive;
     
     /**
      * Constructor: Private, to discourage direct instantiation.
@@ -49,6 +57,7 @@ public class Param {
         Param parameter = new Param();
         parameter.mode = Mode.IN;
         parameter.paramType = paramType;
+        parameter.binder = Binder.forType(paramType);
         parameter.inputValue = inputValue;
         return parameter;
     }
@@ -63,6 +72,7 @@ public class Param {
         Param parameter = new Param();
         parameter.mode = Mode.OUT;
         parameter.paramType = paramType;
+        parameter.binder = Binder.forType(paramType);
         return parameter;
     }
     
@@ -78,6 +88,7 @@ public class Param {
         parameter.mode = Mode.INOUT;
         parameter.inputValue = inputValue;
         parameter.paramType = paramType;
+        parameter.binder = Binder.forType(paramType);
         return parameter;
     }
     
@@ -92,318 +103,171 @@ public class Param {
     }
     
     /**
-     * Store this parameter at the indicated index for the specified callable statement.
-     *  
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
-     */
-    public void set(CallableStatement sproc, int index) throws SQLException {
-        if (isOutput()) {
-            sproc.registerOutParameter(index, paramType);
-        }
-        
-        if (isInput()) {
-            if (inputValue == null) {
-                sproc.setNull(index, paramType);
-            } else {
-                switch (paramType) {
-    
-                    case Types.CHAR:
-                    case Types.VARCHAR:
-                    case Types.LONGVARCHAR:
-                        setCharString(sproc, index);
-                        break;
-    
-                    case Types.NCHAR:
-                    case Types.NVARCHAR:
-                    case Types.LONGNVARCHAR:
-                        setNCharString(sproc, index);
-                        break;
-    
-                    case Types.BINARY:
-                    case Types.VARBINARY:
-                    case Types.LONGVARBINARY:
-                        setBinary(sproc, index);
-                        break;
-    
-                    case Types.BIT:
-                    case Types.BOOLEAN:
-                        setBoolean(sproc, index);
-                        break;
-    
-                    case Types.SMALLINT:
-                        setSmallInt(sproc, index);
-                        break;
-    
-                    case Types.INTEGER:
-                        setInteger(sproc, index);
-                        break;
-    
-                    case Types.BIGINT:
-                        setBigInt(sproc, index);
-                        break;
-    
-                    case Types.REAL:
-                        setReal(sproc, index);
-                        break;
-    
-                    case Types.DOUBLE:
-                    case Types.FLOAT:
-                        setDouble(sproc, index);
-                        break;
-    
-                    case Types.DECIMAL:
-                    case Types.NUMERIC:
-                        setDecimal(sproc, index);
-                        break;
-    
-                    case Types.DATE:
-                        setDate(sproc, index);
-                        break;
-    
-                    case Types.TIME:
-                        setTime(sproc, index);
-                        break;
-    
-                    case Types.TIMESTAMP:
-                        setTimestamp(sproc, index);
-                        break;
-    
-                    case Types.OTHER:
-                    case Types.JAVA_OBJECT:
-                        setJavaObject(sproc, index);
-                        break;
-    
-                    default:
-                        throw new UnsupportedOperationException("Specified parameter type ["
-                                        + paramType + "] is unsupported");
-                }
-            }
-        }
-    }
-    
-    /**
-     * Store this character string parameter at the indicated index for the specified callable statement.
+     * Instantiate an IN parameter of type {@link Types#INTEGER INTEGER} with the specified primitive value.
      * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
+     * @param inputValue parameter value
+     * @return new {@link Param} object
      */
-    private void setCharString(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof String) {
-            sproc.setString(index, (String) inputValue); 
-        } else {
-            throw new IllegalArgumentException("Specified parameter value is not a string");
-        }
+    public static Param inInt(int inputValue) {
+        Param parameter = in(Types.INTEGER, null);
+        parameter.setInt(inputValue);
+        return parameter;
     }
     
     /**
-     * Store this character string parameter at the indicated index for the specified callable statement.
+     * Instantiate an IN parameter of type {@link Types#BIGINT BIGINT} with the specified primitive value.
      * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
+     * @param inputValue parameter value
+     * @return new {@link Param} object
      */
-    private void setNCharString(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof String) {
-            sproc.setNString(index, (String) inputValue); 
-        } else {
-            throw new IllegalArgumentException("Specified parameter value is not a string");
-        }
+    public static Param inLong(long inputValue) {
+        Param parameter = in(Types.BIGINT, null);
+        parameter.setLong(inputValue);
+        return parameter;
     }
     
     /**
-     * Store this binary parameter at the indicated index for the specified callable statement.
+     * Instantiate an IN parameter of type {@link Types#DOUBLE DOUBLE} with the specified primitive value.
      * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
+     * @param inputValue parameter value
+     * @return new {@link Param} object
      */
-    private void setBinary(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof byte[]) {
-            sproc.setBytes(index, (byte[]) inputValue); 
-        } else {
-            throw new IllegalArgumentException("Specified parameter value is not an array of bytes");
-        }
+    public static Param inDouble(double inputValue) {
+        Param parameter = in(Types.DOUBLE, null);
+        parameter.setDouble(inputValue);
+        return parameter;
     }
     
     /**
-     * Store this boolean parameter at the indicated index for the specified callable statement.
+     * Instantiate an IN parameter of type {@link Types#BOOLEAN BOOLEAN} with the specified primitive value.
      * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
+     * @param inputValue parameter value
+     * @return new {@link Param} object
      */
-    private void setBoolean(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof Boolean) {
-            sproc.setBoolean(index, (Boolean) inputValue);
-        } else {
-            throw new IllegalArgumentException("Specified parameter value is not a boolean");
-        }
+    public static Param inBoolean(boolean inputValue) {
+        Param parameter = in(Types.BOOLEAN, null);
+        parameter.setBoolean(inputValue);
+        return parameter;
     }
     
     /**
-     * Store this small integer parameter at the indicated index for the specified callable statement.
-     * 
+     * Store this parameter at the indicated index for the specified callable statement.
+     *  
      * @param sproc target {@link CallableStatement} object
      * @param index parameter index
      * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
      *         called on a closed {@link CallableStatement}
      */
-    private void setSmallInt(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof Short) {
-            sproc.setShort(index, (Short) inputValue);
-        } else {
-            throw new IllegalArgumentException("Specified parameter value is not a small integer (short)");
+    public void set(CallableStatement sproc, int index) throws SQLException {
+        if (isOutput()) {
+            sproc.registerOutParameter(index, paramType);
         }
-    }
-    
-    /**
-     * Store this integer parameter at the indicated index for the specified callable statement.
-     * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
-     */
-    private void setInteger(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof Integer) {
-            sproc.setInt(index, (Integer) inputValue);
-        } else {
-            throw new IllegalArgumentException("Specified parameter value is not an integer");
+        
+        if (isInput()) {
+            if ((inputValue == null) && !primitive) {
+                sproc.setNull(index, paramType);
+            } else if (binder != null) {
+                binder.bind(this, sproc, index);
+            } else {
+                throw new UnsupportedOperationException("Specified parameter type ["
+                                + paramType + "] is unsupported");
+            }
         }
     }
     
     /**
-     * Store this big integer parameter at the indicated index for the specified callable statement.
+     * Replace the input value of this parameter with the specified object.
      * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
+     * @param inputValue parameter value
      */
-    private void setBigInt(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof Long) {
-            sproc.setLong(index, (Long) inputValue);
-        } else {
-            throw new IllegalArgumentException("Specified parameter value is not a big integer (long)");
-        }
+    void setObject(Object inputValue) {
+        this.inputValue = inputValue;
+        this.primitive = false;
     }
     
     /**
-     * Store this single-precision floating-point parameter at the indicated index for the specified callable
-     * statement.
+     * Replace the input value of this parameter with the specified primitive integer.
      * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
+     * @param inputValue parameter value
+     * @throws IllegalArgumentException if the value can't be stored as the type of this parameter without loss
      */
-    private void setReal(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof Float) {
-            sproc.setFloat(index, (Float) inputValue);
+    void setInt(int inputValue) {
+        if (binder == Binder.JAVA_OBJECT) {
+            setObject(Integer.valueOf(inputValue));
         } else {
-            throw new IllegalArgumentException("Specified parameter value is not a single-precision float (float)");
+            setLong(inputValue);
         }
     }
     
     /**
-     * Store this double-precision floating-point parameter at the indicated index for the specified callable
-     * statement.
+     * Replace the input value of this parameter with the specified primitive long integer.
      * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
+     * @param inputValue parameter value
+     * @throws IllegalArgumentException if the value can't be stored as the type of this parameter without loss
      */
-    private void setDouble(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof Double) {
-            sproc.setDouble(index, (Double) inputValue);
-        } else {
-            throw new IllegalArgumentException("Specified parameter value is not a double-precision float (double)");
+    void setLong(long inputValue) {
+        if (binder == Binder.JAVA_OBJECT) {
+            setObject(Long.valueOf(inputValue));
+            return;
         }
-    }
-    
-    /**
-     * Store this decimal parameter at the indicated index for the specified callable statement.
-     * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
-     */
-    private void setDecimal(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof BigDecimal) {
-            sproc.setBigDecimal(index, (BigDecimal) inputValue);
-        } else {
-            throw new IllegalArgumentException("Specified parameter value is not a decimal (BigDecimal)");
+        if ((binder != null) && !binder.acceptsLong(inputValue)) {
+            throw mismatch(inputValue);
         }
+        this.inputValue = null;
+        this.longValue = inputValue;
+        this.doubleValue = inputValue;
+        this.primitive = true;
     }
     
     /**
-     * Store this SQL Date parameter at the indicated index for the specified callable statement.
+     * Replace the input value of this parameter with the specified primitive double-precision float.
      * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
+     * @param inputValue parameter value
+     * @throws IllegalArgumentException if the value can't be stored as the type of this parameter without loss
      */
-    private void setDate(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof java.sql.Date) {
-            sproc.setDate(index, (java.sql.Date) inputValue);
-        } else {
-            throw new IllegalArgumentException("Specified parameter value is not a SQL Date object");
+    void setDouble(double inputValue) {
+        if (binder == Binder.JAVA_OBJECT) {
+            setObject(Double.valueOf(inputValue));
+            return;
         }
-    }
-    
-    /**
-     * Store this SQL Time parameter at the indicated index for the specified callable statement.
-     * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
-     */
-    private void setTime(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof java.sql.Time) {
-            sproc.setTime(index, (java.sql.Time) inputValue);
-        } else {
-            throw new IllegalArgumentException("Specified parameter value is not a SQL Time object");
+        if ((binder != null) && !binder.acceptsDouble(inputValue)) {
+            throw mismatch(inputValue);
         }
+        this.inputValue = null;
+        this.longValue = 0L;
+        this.doubleValue = inputValue;
+        this.primitive = true;
     }
     
     /**
-     * Store this SQL Timestamp parameter at the indicated index for the specified callable statement.
+     * Replace the input value of this parameter with the specified primitive boolean.
      * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
+     * @param inputValue parameter value
+     * @throws IllegalArgumentException if the type of this parameter isn't boolean
      */
-    private void setTimestamp(CallableStatement sproc, int index) throws SQLException {
-        if (inputValue instanceof java.sql.Timestamp) {
-            sproc.setTimestamp(index, (java.sql.Timestamp) inputValue);
-        } else {
-            throw new IllegalArgumentException("Specified parameter value is not a SQL Timestamp object");
+    void setBoolean(boolean inputValue) {
+        if (binder == Binder.JAVA_OBJECT) {
+            setObject(Boolean.valueOf(inputValue));
+            return;
+        }
+        if ((binder != null) && (binder != Binder.BOOLEAN)) {
+            throw mismatch(inputValue);
         }
+        this.inputValue = null;
+        this.longValue = inputValue ? 1L : 0L;
+        this.doubleValue = this.longValue;
+        this.primitive = true;
     }
     
     /**
-     * Store this Java object parameter at the indicated index for the specified callable statement.
+     * Create an exception for a primitive value that doesn't match the type of this parameter.
      * 
-     * @param sproc target {@link CallableStatement} object
-     * @param index parameter index
-     * @throws SQLException if the specified index is not valid; if a database access error occurs or this method is
-     *         called on a closed {@link CallableStatement}
+     * @param inputValue parameter value
+     * @return {@link IllegalArgumentException} that describes the mismatch
      */
-    private void setJavaObject(CallableStatement sproc, int index) throws SQLException {
-        sproc.setObject(index, inputValue);
+    private IllegalArgumentException mismatch(Object inputValue) {
+        return new IllegalArgumentException("Specified parameter value [" + inputValue
+                        + "] can't be stored as parameter type [" + paramType + "] without loss");
     }
     
     /**
@@ -439,6 +303,24 @@ public class Param {
      * @return parameter input value
      */
     public Object getInValue() {
+        if (primitive) {
+            switch (paramType) {
+                case Types.BIT:
+                case Types.BOOLEAN:
+                    return Boolean.valueOf(longValue != 0L);
+                case Types.SMALLINT:
+                    return Short.valueOf((short) longValue);
+                case Types.INTEGER:
+                    return Integer.valueOf((int) longValue);
+                case Types.REAL:
+                    return Float.valueOf((float) doubleValue);
+                case Types.DOUBLE:
+                case Types.FLOAT:
+                    return Double.valueOf(doubleValue);
+                default:
+                    return Long.valueOf(longValue);
+            }
+        }
         return inputValue;
     }
     
@@ -451,6 +333,312 @@ public class Param {
         return paramType;
     }
     
+    /**
+     * This enumeration defines the strategies used to store parameter values in callable statements. The strategy for
+     * each parameter is resolved from its {@link Types type} when the parameter is created. Numeric and boolean
+     * strategies store primitive values directly, without boxing.
+     */
+    private enum Binder {
+        /** CHAR, VARCHAR, LONGVARCHAR */
+        CHAR_STRING {
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.inputValue instanceof String) {
+                    sproc.setString(index, (String) param.inputValue); 
+                } else {
+                    throw new IllegalArgumentException("Specified parameter value is not a string");
+                }
+            }
+        },
+        
+        /** NCHAR, NVARCHAR, LONGNVARCHAR */
+        NCHAR_STRING {
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.inputValue instanceof String) {
+                    sproc.setNString(index, (String) param.inputValue); 
+                } else {
+                    throw new IllegalArgumentException("Specified parameter value is not a string");
+                }
+            }
+        },
+        
+        /** BINARY, VARBINARY, LONGVARBINARY */
+        BINARY {
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.inputValue instanceof byte[]) {
+                    sproc.setBytes(index, (byte[]) param.inputValue); 
+                } else {
+                    throw new IllegalArgumentException("Specified parameter value is not an array of bytes");
+                }
+            }
+        },
+        
+        /** BIT, BOOLEAN */
+        BOOLEAN {
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.primitive) {
+                    sproc.setBoolean(index, param.longValue != 0L);
+                } else if (param.inputValue instanceof Boolean) {
+                    sproc.setBoolean(index, (Boolean) param.inputValue);
+                } else {
+                    throw new IllegalArgumentException("Specified parameter value is not a boolean");
+                }
+            }
+        },
+        
+        /** SMALLINT */
+        SMALLINT {
+            @Override
+            boolean acceptsLong(long value) {
+                return (value >= Short.MIN_VALUE) && (value <= Short.MAX_VALUE);
+            }
+            
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.primitive) {
+                    sproc.setShort(index, (short) param.longValue);
+                } else if (param.inputValue instanceof Short) {
+                    sproc.setShort(index, (Short) param.inputValue);
+                } else {
+                    throw new IllegalArgumentException("Specified parameter value is not a small integer (short)");
+                }
+            }
+        },
+        
+        /** INTEGER */
+        INTEGER {
+            @Override
+            boolean acceptsLong(long value) {
+                return (value >= Integer.MIN_VALUE) && (value <= Integer.MAX_VALUE);
+            }
+            
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.primitive) {
+                    sproc.setInt(index, (int) param.longValue);
+                } else if (param.inputValue instanceof Integer) {
+                    sproc.setInt(index, (Integer) param.inputValue);
+                } else {
+                    throw new IllegalArgumentException("Specified parameter value is not an integer");
+                }
+            }
+        },
+        
+        /** BIGINT */
+        BIGINT {
+            @Override
+            boolean acceptsLong(long value) {
+                return true;
+            }
+            
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.primitive) {
+                    sproc.setLong(index, param.longValue);
+                } else if (param.inputValue instanceof Long) {
+                    sproc.setLong(index, (Long) param.inputValue);
+                } else {
+                    throw new IllegalArgumentException("Specified parameter value is not a big integer (long)");
+                }
+            }
+        },
+        
+        /** REAL */
+        REAL {
+            @Override
+            boolean acceptsDouble(double value) {
+                return ((float) value == value) || Double.isNaN(value);
+            }
+            
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.primitive) {
+                    sproc.setFloat(index, (float) param.doubleValue);
+                } else if (param.inputValue instanceof Float) {
+                    sproc.setFloat(index, (Float) param.inputValue);
+                } else {
+                    throw new IllegalArgumentException(
+                                    "Specified parameter value is not a single-precision float (float)");
+                }
+            }
+        },
+        
+        /** DOUBLE, FLOAT */
+        DOUBLE {
+            @Override
+            boolean acceptsDouble(double value) {
+                return true;
+            }
+            
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.primitive) {
+                    sproc.setDouble(index, param.doubleValue);
+                } else if (param.inputValue instanceof Double) {
+                    sproc.setDouble(index, (Double) param.inputValue);
+                } else {
+                    throw new IllegalArgumentException(
+                                    "Specified parameter value is not a double-precision float (double)");
+                }
+            }
+        },
+        
+        /** DECIMAL, NUMERIC */
+        DECIMAL {
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.inputValue instanceof BigDecimal) {
+                    sproc.setBigDecimal(index, (BigDecimal) param.inputValue);
+                } else {
+                    throw new IllegalArgumentException("Specified parameter value is not a decimal (BigDecimal)");
+                }
+            }
+        },
+        
+        /** DATE */
+        DATE {
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.inputValue instanceof java.sql.Date) {
+                    sproc.setDate(index, (java.sql.Date) param.inputValue);
+                } else {
+                    throw new IllegalArgumentException("Specified parameter value is not a SQL Date object");
+                }
+            }
+        },
+        
+        /** TIME */
+        TIME {
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.inputValue instanceof java.sql.Time) {
+                    sproc.setTime(index, (java.sql.Time) param.inputValue);
+                } else {
+                    throw new IllegalArgumentException("Specified parameter value is not a SQL Time object");
+                }
+            }
+        },
+        
+        /** TIMESTAMP */
+        TIMESTAMP {
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                if (param.inputValue instanceof java.sql.Timestamp) {
+                    sproc.setTimestamp(index, (java.sql.Timestamp) param.inputValue);
+                } else {
+                    throw new IllegalArgumentException("Specified parameter value is not a SQL Timestamp object");
+                }
+            }
+        },
+        
+        /** OTHER, JAVA_OBJECT */
+        JAVA_OBJECT {
+            @Override
+            void bind(Param param, CallableStatement sproc, int index) throws SQLException {
+                sproc.setObject(index, param.getInValue());
+            }
+        };
+        
+        /**
+         * Store the value of the specified parameter at the indicated index for the specified callable statement.
+         * 
+         * @param param parameter whose value is to be stored
+         * @param sproc target {@link CallableStatement} object
+         * @param index parameter index
+         * @throws SQLException if the specified index is not valid; if a database access error occurs or this method
+         *         is called on a closed {@link CallableStatement}
+         */
+        abstract void bind(Param param, CallableStatement sproc, int index) throws SQLException;
+        
+        /**
+         * Determine if this strategy can store the specified primitive integer without loss.
+         * 
+         * @param value parameter value
+         * @return {@code true} if the value is accepted; otherwise {@code false}
+         */
+        boolean acceptsLong(long value) {
+            return false;
+        }
+        
+        /**
+         * Determine if this strategy can store the specified primitive double-precision float without loss.
+         * 
+         * @param value parameter value
+         * @return {@code true} if the value is accepted; otherwise {@code false}
+         */
+        boolean acceptsDouble(double value) {
+            return false;
+        }
+        
+        /**
+         * Get the binding strategy for the specified parameter type.
+         * 
+         * @param paramType parameter {@link Types type}
+         * @return binding strategy; {@code null} if the specified type is unsupported
+         */
+        static Binder forType(int paramType) {
+            switch (paramType) {
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.LONGVARCHAR:
+                    return CHAR_STRING;
+                    
+                case Types.NCHAR:
+                case Types.NVARCHAR:
+                case Types.LONGNVARCHAR:
+                    return NCHAR_STRING;
+                    
+                case Types.BINARY:
+                case Types.VARBINARY:
+                case Types.LONGVARBINARY:
+                    return BINARY;
+                    
+                case Types.BIT:
+                case Types.BOOLEAN:
+                    return BOOLEAN;
+                    
+                case Types.SMALLINT:
+                    return SMALLINT;
+                    
+                case Types.INTEGER:
+                    return INTEGER;
+                    
+                case Types.BIGINT:
+                    return BIGINT;
+                    
+                case Types.REAL:
+                    return REAL;
+                    
+                case Types.DOUBLE:
+                case Types.FLOAT:
+                    return DOUBLE;
+                    
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                    return DECIMAL;
+                    
+                case Types.DATE:
+                    return DATE;
+                    
+                case Types.TIME:
+                    return TIME;
+                    
+                case Types.TIMESTAMP:
+                    return TIMESTAMP;
+                    
+                case Types.OTHER:
+                case Types.JAVA_OBJECT:
+                    return JAVA_OBJECT;
+                    
+                default:
+                    return null;
+            }
+        }
+    }
+    
     /**
      * This enumeration defines the stored procedure parameter modes with their associated placeholder characters.
      */
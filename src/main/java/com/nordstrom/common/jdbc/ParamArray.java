@@ -0,0 +1,141 @@
+package com.nordstrom.common.jdbc;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+
+/**
+ * This class defines a reusable array of parameters for a specific stored procedure object. The modes and types of
+ * the parameters are taken from the signature of the stored procedure when the array is created, and parameter values
+ * can then be replaced for each call without allocating new {@link Param} objects or boxing primitive values.
+ * <p>
+ * <b>NOTE</b>: Instances of this class are not thread-safe. Each thread that calls the stored procedure should create
+ * its own parameter array.
+ * <pre>
+ * ParamArray params = ParamArray.forSProc(SProcValues.RAISE_PRICE, 3);
+ * ...
+ * params.setObject(1, coffeeName).setDouble(2, maxPercent).setObject(3, newPrice);
+ * DatabaseUtils.getResultPackage(SProcValues.RAISE_PRICE, params);
+ * </pre>
+ */
+public final class ParamArray {
+
+    private final CallPlan plan;
+    private final Param[] params;
+
+    /**
+     * Constructor for a parameter array object
+     *
+     * @param plan call plan of the target stored procedure
+     * @param paramCount number of parameters
+     */
+    private ParamArray(CallPlan plan, int paramCount) {
+        plan.checkParamCount(paramCount);
+        this.plan = plan;
+        this.params = Param.array(paramCount);
+        for (int i = 0; i < paramCount; i++) {
+            params[i] = Param.create(plan.getMode(i), plan.getType(i), null);
+        }
+    }
+
+    /**
+     * Create a parameter array for the specified stored procedure object.
+     *
+     * @param sproc stored procedure object
+     * @param paramCount number of parameters (for stored procedures with varargs, this determines the varargs count)
+     * @return new {@link ParamArray} object
+     * @throws IllegalArgumentException if the parameter count is not accepted by the stored procedure
+     */
+    public static ParamArray forSProc(SProcAPI sproc, int paramCount) {
+        return new ParamArray(CallPlan.of(sproc), paramCount);
+    }
+
+    /**
+     * Get the number of parameters in this array.
+     *
+     * @return parameter count
+     */
+    public int size() {
+        return params.length;
+    }
+
+    /**
+     * Set the parameter at the specified index to the indicated object.
+     *
+     * @param index parameter index (1-based)
+     * @param value parameter value (may be {@code null})
+     * @return this parameter array
+     */
+    public ParamArray setObject(int index, Object value) {
+        params[index - 1].setObject(value);
+        return this;
+    }
+
+    /**
+     * Set the parameter at the specified index to the indicated primitive integer.
+     *
+     * @param index parameter index (1-based)
+     * @param value parameter value
+     * @return this parameter array
+     * @throws IllegalArgumentException if the value can't be stored as the type of the parameter without loss
+     */
+    public ParamArray setInt(int index, int value) {
+        params[index - 1].setInt(value);
+        return this;
+    }
+
+    /**
+     * Set the parameter at the specified index to the indicated primitive long integer.
+     *
+     * @param index parameter index (1-based)
+     * @param value parameter value
+     * @return this parameter array
+     * @throws IllegalArgumentException if the value can't be stored as the type of the parameter without loss
+     */
+    public ParamArray setLong(int index, long value) {
+        params[index - 1].setLong(value);
+        return this;
+    }
+
+    /**
+     * Set the parameter at the specified index to the indicated primitive double-precision float.
+     *
+     * @param index parameter index (1-based)
+     * @param value parameter value
+     * @return this parameter array
+     * @throws IllegalArgumentException if the value can't be stored as the type of the parameter without loss
+     */
+    public ParamArray setDouble(int index, double value) {
+        params[index - 1].setDouble(value);
+        return this;
+    }
+
+    /**
+     * Set the parameter at the specified index to the indicated primitive boolean.
+     *
+     * @param index parameter index (1-based)
+     * @param value parameter value
+     * @return this parameter array
+     * @throws IllegalArgumentException if the type of the parameter isn't boolean
+     */
+    public ParamArray setBoolean(int index, boolean value) {
+        params[index - 1].setBoolean(value);
+        return this;
+    }
+
+    /**
+     * Get the call plan of the stored procedure for which this array was created.
+     *
+     * @return stored procedure call plan
+     */
+    CallPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Get the parameters of this array.
+     *
+     * @return array of {@link Param} objects
+     */
+    Param[] getParams() {
+        return params;
+    }
+}
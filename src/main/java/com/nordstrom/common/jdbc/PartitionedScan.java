@@ -0,0 +1,413 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.nordstrom.common.base.UncheckedThrow;
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+
+/**
+ * This class scans a key range of a {@link QueryAPI} query in parallel. The range is split into equal sub-ranges, each
+ * of which is read on its own pooled connection by a task of the {@link DatabaseUtils#getAsyncExecutor() async
+ * executor}, and the rows of all sub-ranges are merged into a single stream. The query must declare arguments named
+ * {@value #LOWER_BOUND_ARG} (inclusive) and {@value #UPPER_BOUND_ARG} (exclusive), which are bound to the bounds of
+ * each sub-range:
+ * <pre>
+ * ORDERS_IN_RANGE("select * from orders where status=? and id &gt;= ? and id &lt; ?",
+ *         "status", "lowerBound", "upperBound")
+ * ...
+ * try (PartitionedScan&lt;Order&gt; scan = PartitionedScan.of(OpctValues.ORDERS_IN_RANGE, mapper, 0L, maxId + 1, 8, "open")) {
+ *     for (Order order : scan) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * Arguments supplied to the factory methods are bound to the other place-holders of the query in order. Numeric ranges
+ * are bound as {@code Long} values, and date ranges are bound as {@link Timestamp} values.
+ * <p>
+ * Rows are delivered in arrival order, which interleaves the sub-ranges. Sub-range readers wait when the merge queue
+ * is full, so a slow consumer limits memory use rather than exhausting it. If a sub-range fails, its exception is
+ * thrown by the iterator once the rows read before the failure have been delivered, and the remaining sub-ranges are
+ * cancelled. If iteration is abandoned early, close the scan to cancel its sub-ranges and release their connections.
+ * <p>
+ * <b>NOTE</b>: This iterator can only be traversed once; {@link #iterator()} returns this object.
+ *
+ * @param <T> row type
+ */
+public final class PartitionedScan<T> implements Iterator<T>, Iterable<T>, AutoCloseable {
+
+    /** name of the query argument that receives the inclusive lower bound of each sub-range */
+    public static final String LOWER_BOUND_ARG = "lowerBound";
+    /** name of the query argument that receives the exclusive upper bound of each sub-range */
+    public static final String UPPER_BOUND_ARG = "upperBound";
+
+    /** rows queued per sub-range before readers wait */
+    private static final int QUEUE_DEPTH = 256;
+    private static final long POLL_MILLIS = 100;
+
+    private static final Object NULL_ROW = new Object();
+    private static final Object DONE = new Object();
+
+    /**
+     * This interface defines the API of objects that receive the rows of a partitioned scan.
+     *
+     * @param <T> row type
+     */
+    public interface RowHandler<T> {
+
+        /**
+         * Handle the specified row.
+         *
+         * @param row mapped row (may be {@code null} if the row mapper returns {@code null})
+         */
+        void handle(T row);
+    }
+
+    private final BlockingQueue<Object> queue;
+    private final int partitions;
+    private volatile boolean closed;
+    private int finished;
+    private Object next;
+
+    /**
+     * Constructor for a partitioned scan object
+     *
+     * @param partitions number of sub-ranges
+     */
+    private PartitionedScan(int partitions) {
+        this.partitions = partitions;
+        this.queue = new ArrayBlockingQueue<>(partitions * QUEUE_DEPTH);
+    }
+
+    /**
+     * Start a parallel scan of the specified numeric key range.
+     *
+     * @param <T> row type
+     * @param query query object that selects the rows of a key range
+     * @param mapper {@link RowMapper} that converts each row to an object
+     * @param lowerBound inclusive lower bound of the key range
+     * @param upperBound exclusive upper bound of the key range
+     * @param partitions number of sub-ranges (reduced if the range has fewer keys)
+     * @param queryArgs replacement values for the other query place-holders
+     * @return {@link PartitionedScan} that merges the rows of all sub-ranges
+     */
+    public static <T> PartitionedScan<T> of(QueryAPI query, RowMapper<T> mapper, long lowerBound, long upperBound,
+                    int partitions, Object... queryArgs) {
+        return start(query, mapper, split(lowerBound, upperBound, partitions), false, queryArgs);
+    }
+
+    /**
+     * Start a parallel scan of the specified date key range. The range is split by milliseconds.
+     *
+     * @param <T> row type
+     * @param query query object that selects the rows of a key range
+     * @param mapper {@link RowMapper} that converts each row to an object
+     * @param lowerBound inclusive lower bound of the key range
+     * @param upperBound exclusive upper bound of the key range
+     * @param partitions number of sub-ranges (reduced if the range has fewer milliseconds)
+     * @param queryArgs replacement values for the other query place-holders
+     * @return {@link PartitionedScan} that merges the rows of all sub-ranges
+     */
+    public static <T> PartitionedScan<T> of(QueryAPI query, RowMapper<T> mapper, Date lowerBound, Date upperBound,
+                    int partitions, Object... queryArgs) {
+        return start(query, mapper, split(lowerBound.getTime(), upperBound.getTime(), partitions), true, queryArgs);
+    }
+
+    /**
+     * Scan the specified numeric key range in parallel, passing each row to the indicated handler. Rows are handled
+     * on the calling thread, one at a time.
+     *
+     * @param <T> row type
+     * @param query query object that selects the rows of a key range
+     * @param mapper {@link RowMapper} that converts each row to an object
+     * @param handler {@link RowHandler} that receives each row
+     * @param lowerBound inclusive lower bound of the key range
+     * @param upperBound exclusive upper bound of the key range
+     * @param partitions number of sub-ranges (reduced if the range has fewer keys)
+     * @param queryArgs replacement values for the other query place-holders
+     * @return count of rows handled
+     */
+    public static <T> long scan(QueryAPI query, RowMapper<T> mapper, RowHandler<? super T> handler, long lowerBound,
+                    long upperBound, int partitions, Object... queryArgs) {
+        try (PartitionedScan<T> scan = of(query, mapper, lowerBound, upperBound, partitions, queryArgs)) {
+            return scan.forEach(handler);
+        }
+    }
+
+    /**
+     * Scan the specified date key range in parallel, passing each row to the indicated handler. Rows are handled on
+     * the calling thread, one at a time.
+     *
+     * @param <T> row type
+     * @param query query object that selects the rows of a key range
+     * @param mapper {@link RowMapper} that converts each row to an object
+     * @param handler {@link RowHandler} that receives each row
+     * @param lowerBound inclusive lower bound of the key range
+     * @param upperBound exclusive upper bound of the key range
+     * @param partitions number of sub-ranges (reduced if the range has fewer milliseconds)
+     * @param queryArgs replacement values for the other query place-holders
+     * @return count of rows handled
+     */
+    public static <T> long scan(QueryAPI query, RowMapper<T> mapper, RowHandler<? super T> handler, Date lowerBound,
+                    Date upperBound, int partitions, Object... queryArgs) {
+        try (PartitionedScan<T> scan = of(query, mapper, lowerBound, upperBound, partitions, queryArgs)) {
+            return scan.forEach(handler);
+        }
+    }
+
+    /**
+     * Pass each remaining row of this scan to the specified handler on the calling thread.
+     *
+     * @param handler {@link RowHandler} that receives each row
+     * @return count of rows handled
+     */
+    public long forEach(RowHandler<? super T> handler) {
+        long count = 0;
+        while (hasNext()) {
+            handler.handle(next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            if (closed || (finished == partitions)) {
+                return false;
+            }
+            Object item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw UncheckedThrow.throwUnchecked(e);
+            }
+            if (item == DONE) {
+                finished++;
+            } else if (item instanceof Failure) {
+                close();
+                throw UncheckedThrow.throwUnchecked(((Failure) item).thrown);
+            } else {
+                next = item;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more rows in this scan");
+        }
+        Object item = next;
+        next = null;
+        return (item == NULL_ROW) ? null : (T) item;
+    }
+
+    /**
+     * This operation is not supported.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Rows cannot be removed from a result set");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return this;
+    }
+
+    /**
+     * Cancel the sub-ranges of this scan that are still running. Their connections are released as they stop.
+     * Subsequent calls to {@link #hasNext()} return {@code false}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        next = null;
+        queue.clear();
+    }
+
+    /**
+     * Split the specified range into sub-ranges of equal size.
+     *
+     * @param lowerBound inclusive lower bound of the range
+     * @param upperBound exclusive upper bound of the range
+     * @param partitions maximum number of sub-ranges
+     * @return array of sub-range bounds; sub-range <i>i</i> is [bounds[i], bounds[i+1])
+     */
+    static long[] split(long lowerBound, long upperBound, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partition count must be positive; specified: " + partitions);
+        }
+        long span = upperBound - lowerBound;
+        if (upperBound <= lowerBound) {
+            throw new IllegalArgumentException("Upper bound must exceed lower bound");
+        }
+        if (span < 0) {
+            throw new IllegalArgumentException("Key range is too wide to be split");
+        }
+        int count = (int) Math.min(partitions, span);
+        long width = span / count;
+        long extra = span % count;
+        long[] bounds = new long[count + 1];
+        bounds[0] = lowerBound;
+        for (int i = 1; i <= count; i++) {
+            bounds[i] = bounds[i - 1] + width + ((i <= extra) ? 1 : 0);
+        }
+        return bounds;
+    }
+
+    /**
+     * Submit the readers of the specified sub-ranges to the async executor.
+     *
+     * @param <T> row type
+     * @param query query object that selects the rows of a key range
+     * @param mapper {@link RowMapper} that converts each row to an object
+     * @param bounds array of sub-range bounds
+     * @param dates {@code true} to bind bounds as {@link Timestamp} values; {@code false} to bind as {@code Long}
+     * @param queryArgs replacement values for the other query place-holders
+     * @return {@link PartitionedScan} that merges the rows of all sub-ranges
+     */
+    private static <T> PartitionedScan<T> start(QueryAPI query, RowMapper<T> mapper, long[] bounds, boolean dates,
+                    Object[] queryArgs) {
+        String[] argNames = query.getArgNames();
+        int lowerIndex = indexOf(argNames, LOWER_BOUND_ARG, query);
+        int upperIndex = indexOf(argNames, UPPER_BOUND_ARG, query);
+        if (queryArgs.length != argNames.length - 2) {
+            throw new IllegalArgumentException(String.format("Wrong number of arguments for [%s]: expect %d; got %d",
+                            query.getEnum().name(), argNames.length - 2, queryArgs.length));
+        }
+
+        int partitions = bounds.length - 1;
+        PartitionedScan<T> scan = new PartitionedScan<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            Object[] args = new Object[argNames.length];
+            int next = 0;
+            for (int j = 0; j < args.length; j++) {
+                if (j == lowerIndex) {
+                    args[j] = dates ? new Timestamp(bounds[i]) : Long.valueOf(bounds[i]);
+                } else if (j == upperIndex) {
+                    args[j] = dates ? new Timestamp(bounds[i + 1]) : Long.valueOf(bounds[i + 1]);
+                } else {
+                    args[j] = queryArgs[next++];
+                }
+            }
+            try {
+                DatabaseUtils.getAsyncExecutor().submit(scan.new Reader(query, mapper, args));
+            } catch (RuntimeException e) {
+                scan.close();
+                throw e;
+            }
+        }
+        return scan;
+    }
+
+    /**
+     * Get the index of the specified argument name.
+     *
+     * @param argNames argument names of the query
+     * @param name argument name to find
+     * @param query query object
+     * @return index of the argument
+     * @throws IllegalArgumentException if the query has no argument with the specified name
+     */
+    private static int indexOf(String[] argNames, String name, QueryAPI query) {
+        for (int i = 0; i < argNames.length; i++) {
+            if (name.equals(argNames[i])) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Query " + query.getEnum().name() + " has no '" + name + "' argument");
+    }
+
+    /**
+     * This task reads the rows of one sub-range into the merge queue.
+     */
+    private class Reader implements Runnable {
+
+        private final QueryAPI query;
+        private final RowMapper<T> mapper;
+        private final Object[] args;
+
+        /**
+         * Constructor for a sub-range reader object
+         *
+         * @param query query object that selects the rows of a key range
+         * @param mapper {@link RowMapper} that converts each row to an object
+         * @param args replacement values for query place-holders
+         */
+        Reader(QueryAPI query, RowMapper<T> mapper, Object[] args) {
+            this.query = query;
+            this.mapper = mapper;
+            this.args = args;
+        }
+
+        @Override
+        public void run() {
+            Object last = DONE;
+            if (!closed) {
+                try (RowIterator<T> rows = DatabaseUtils.iterate(query, QUEUE_DEPTH, mapper, args)) {
+                    while (!closed && rows.hasNext()) {
+                        T row = rows.next();
+                        offer((row != null) ? row : NULL_ROW);
+                    }
+                } catch (Throwable t) {
+                    last = new Failure(t);
+                }
+            }
+            offer(last);
+        }
+
+        /**
+         * Add the specified item to the merge queue, waiting for space until the scan is closed.
+         *
+         * @param item item to add
+         */
+        private void offer(Object item) {
+            try {
+                while (!closed && !queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    // wait for space
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * This class wraps the exception that stopped a sub-range reader.
+     */
+    private static final class Failure {
+
+        private final Throwable thrown;
+
+        /**
+         * Constructor for a failure object
+         *
+         * @param thrown exception that stopped the reader
+         */
+        Failure(Throwable thrown) {
+            this.thrown = thrown;
+        }
+    }
+}
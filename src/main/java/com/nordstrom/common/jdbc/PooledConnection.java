@@ -0,0 +1,195 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+
+/**
+ * This class binds a physical database connection to the {@link ConnectionPool} from which it was borrowed, along
+ * with the {@link StatementCache} of statements prepared on it.
+ */
+final class PooledConnection {
+
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final StatementCache statementCache;
+    private long lastUsed;
+    private boolean pinned;
+    private volatile boolean broken;
+
+    /**
+     * Constructor for a pooled connection object
+     *
+     * @param pool owning {@link ConnectionPool}
+     * @param connection physical {@link Connection} object
+     * @param statementCache cache of statements prepared on this connection
+     */
+    PooledConnection(ConnectionPool pool, Connection connection, StatementCache statementCache) {
+        this.pool = pool;
+        this.connection = connection;
+        this.statementCache = statementCache;
+    }
+
+    /**
+     * Get the physical connection of this pooled connection.
+     *
+     * @return {@link Connection} object
+     */
+    Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Get a prepared statement for the specified SQL text from the statement cache of this connection.
+     *
+     * @param sql a SQL statement that may contain one or more '?' IN parameter placeholders
+     * @return {@link PreparedStatement} object
+     * @throws SQLException if a database access error occurs
+     */
+    PreparedStatement prepareStatement(String sql) throws SQLException {
+        return statementCache.prepareStatement(connection, sql);
+    }
+
+    /**
+     * Get a callable statement for the specified SQL text from the statement cache of this connection.
+     *
+     * @param sql an SQL statement that may contain one or more '?' parameter placeholders
+     * @return {@link CallableStatement} object
+     * @throws SQLException if a database access error occurs
+     */
+    CallableStatement prepareCall(String sql) throws SQLException {
+        return statementCache.prepareCall(connection, sql);
+    }
+
+    /**
+     * Return the specified statement to the statement cache of this connection.
+     *
+     * @param statement statement acquired from this connection
+     */
+    void releaseStatement(PreparedStatement statement) {
+        statementCache.release(statement);
+    }
+
+    /**
+     * Close the specified statement instead of returning it to the statement cache of this connection.
+     *
+     * @param statement statement acquired from this connection
+     */
+    void discardStatement(PreparedStatement statement) {
+        statementCache.discard(statement);
+    }
+
+    /**
+     * Determine if this connection is pinned to a transaction.
+     *
+     * @return {@code true} if this connection is pinned; otherwise {@code false}
+     */
+    boolean isPinned() {
+        return pinned;
+    }
+
+    /**
+     * Pin this connection to a transaction, or unpin it. While pinned, completed operations leave this connection
+     * borrowed and uncommitted.
+     *
+     * @param pinned {@code true} to pin this connection; {@code false} to unpin it
+     */
+    void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+
+    /**
+     * Determine if this connection has been marked as broken by a connection failure.
+     *
+     * @return {@code true} if this connection is broken; otherwise {@code false}
+     */
+    boolean isBroken() {
+        return broken;
+    }
+
+    /**
+     * Examine the specified failure of an operation on this connection. If it indicates that the connection itself
+     * failed, mark this connection as broken so it's discarded instead of being returned to its pool.
+     *
+     * @param thrown failure of an operation on this connection
+     * @see #isConnectionFailure(Throwable)
+     */
+    void checkFailure(Throwable thrown) {
+        if (isConnectionFailure(thrown)) {
+            broken = true;
+        }
+    }
+
+    /**
+     * Determine if the specified failure indicates that the connection on which it occurred is no longer usable.
+     * This is the case if the cause chain includes a {@link SQLNonTransientConnectionException}, a {@link
+     * SQLRecoverableException}, or a {@link SQLException} with an SQLState of class <b>08</b> (connection exception).
+     *
+     * @param thrown failure of an operation on a connection
+     * @return {@code true} if the failure indicates a connection failure; otherwise {@code false}
+     */
+    static boolean isConnectionFailure(Throwable thrown) {
+        for (Throwable cause = thrown; cause != null; cause = cause.getCause()) {
+            if ((cause instanceof SQLNonTransientConnectionException) || (cause instanceof SQLRecoverableException)) {
+                return true;
+            }
+            if (cause instanceof SQLException) {
+                String sqlState = ((SQLException) cause).getSQLState();
+                if ((sqlState != null) && sqlState.startsWith("08")) {
+                    return true;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the time at which this connection was last returned to its pool.
+     *
+     * @return last-used time (mS)
+     */
+    long getLastUsed() {
+        return lastUsed;
+    }
+
+    /**
+     * Record the time at which this connection was returned to its pool.
+     *
+     * @param now current time (mS)
+     */
+    void touch(long now) {
+        lastUsed = now;
+    }
+
+    /**
+     * Return this connection to its pool. A connection that has been marked as broken is discarded instead.
+     */
+    void release() {
+        pool.release(this);
+    }
+
+    /**
+     * Close this connection and release its slot in the pool.
+     */
+    void discard() {
+        pool.discard(this);
+    }
+
+    /**
+     * Close the physical connection, suppressing failures.
+     */
+    void closeQuietly() {
+        statementCache.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // Suppress shutdown failures
+        }
+    }
+}
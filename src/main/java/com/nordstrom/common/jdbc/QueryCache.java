@@ -0,0 +1,223 @@
+package com.nordstrom.common.jdbc;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.nordstrom.common.base.UncheckedThrow;
+
+/**
+ * This class caches the results of {@link CachedQueryAPI} queries executed through {@link DatabaseUtils}. Results are
+ * keyed by query constant, result type, and arguments, and each result expires after the time-to-live of its query.
+ * The cache is bounded by the {@value #MAX_SIZE_PROPERTY} system property (default: {@value #DEFAULT_MAX_SIZE}), and
+ * the least-recently-used results are evicted when the bound is reached.
+ * <p>
+ * Updates executed through {@link InvalidatingQueryAPI} queries evict the cached results of queries that read any of
+ * the tables they write. Results loaded concurrently with an invalidation are not retained.
+ */
+public final class QueryCache {
+
+    /** system property: maximum cached results */
+    public static final String MAX_SIZE_PROPERTY = "java-utils.jdbc.cache.maxSize";
+
+    /** default maximum cached results */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final Cache<Key, Entry> CACHE = CacheBuilder.newBuilder()
+                    .maximumSize(Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE)).build();
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong INVALIDATIONS = new AtomicLong();
+
+    private QueryCache() {
+        throw new AssertionError("QueryCache is a static utility class that cannot be instantiated");
+    }
+
+    /**
+     * Get the number of lookups that were satisfied by cached results.
+     *
+     * @return cache hit count
+     */
+    public static long getHitCount() {
+        return HITS.get();
+    }
+
+    /**
+     * Get the number of lookups that required the query to be executed.
+     *
+     * @return cache miss count
+     */
+    public static long getMissCount() {
+        return MISSES.get();
+    }
+
+    /**
+     * Get the approximate number of cached results.
+     *
+     * @return cached result count
+     */
+    public static long size() {
+        return CACHE.size();
+    }
+
+    /**
+     * Evict the cached results of queries that read any of the specified tables.
+     *
+     * @param tables names of updated tables (case-insensitive)
+     */
+    public static void invalidate(String... tables) {
+        INVALIDATIONS.incrementAndGet();
+        Iterator<Key> iterator = CACHE.asMap().keySet().iterator();
+        while (iterator.hasNext()) {
+            if (readsAny(iterator.next().query, tables)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Evict all cached results.
+     */
+    public static void invalidateAll() {
+        INVALIDATIONS.incrementAndGet();
+        CACHE.invalidateAll();
+    }
+
+    /**
+     * Get the cached result of the specified query, executing the query with the supplied loader if no unexpired
+     * result is cached.
+     *
+     * @param resultType desired result type
+     * @param query query object
+     * @param queryArgs replacement values for query place-holders
+     * @param loader {@link Callable} that executes the query
+     * @return result of the specified query
+     */
+    static Object get(Class<?> resultType, CachedQueryAPI query, Object[] queryArgs, Callable<Object> loader) {
+        long ttlMillis = query.getTtlMillis();
+        if (ttlMillis <= 0) {
+            return call(loader);
+        }
+
+        Key key = new Key(query, resultType, queryArgs);
+        Entry entry = CACHE.getIfPresent(key);
+        if ((entry != null) && (entry.expires - System.nanoTime() > 0)) {
+            HITS.incrementAndGet();
+            return entry.value;
+        }
+
+        MISSES.incrementAndGet();
+        long invalidations = INVALIDATIONS.get();
+        Object value = call(loader);
+        CACHE.put(key, new Entry(value, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis)));
+        if (INVALIDATIONS.get() != invalidations) {
+            CACHE.invalidate(key);
+        }
+        return value;
+    }
+
+    /**
+     * Evict the cached results that depend on the tables written by the specified query object.
+     *
+     * @param query query object
+     */
+    static void invalidate(InvalidatingQueryAPI query) {
+        invalidate(query.getWriteTables());
+    }
+
+    /**
+     * Determine if the specified query reads any of the indicated tables.
+     *
+     * @param query query object
+     * @param tables names of tables (case-insensitive)
+     * @return {@code true} if the query reads any of the tables; otherwise {@code false}
+     */
+    private static boolean readsAny(CachedQueryAPI query, String[] tables) {
+        for (String readTable : query.getReadTables()) {
+            for (String table : tables) {
+                if (readTable.equalsIgnoreCase(table)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Execute the specified loader.
+     *
+     * @param loader {@link Callable} that executes a query
+     * @return query result
+     */
+    private static Object call(Callable<Object> loader) {
+        try {
+            return loader.call();
+        } catch (Exception e) {
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+    }
+
+    /**
+     * This class defines the key of a cached result.
+     */
+    private static final class Key {
+
+        private final CachedQueryAPI query;
+        private final Class<?> resultType;
+        private final Object[] queryArgs;
+        private final int hashCode;
+
+        /**
+         * Constructor for a cache key object
+         *
+         * @param query query object
+         * @param resultType desired result type
+         * @param queryArgs replacement values for query place-holders
+         */
+        Key(CachedQueryAPI query, Class<?> resultType, Object[] queryArgs) {
+            this.query = query;
+            this.resultType = resultType;
+            this.queryArgs = queryArgs.clone();
+            this.hashCode = (31 * (31 * query.hashCode() + resultType.hashCode())) + Arrays.hashCode(queryArgs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key that = (Key) obj;
+            return (query == that.query) && (resultType == that.resultType)
+                            && Arrays.equals(queryArgs, that.queryArgs);
+        }
+    }
+
+    /**
+     * This class defines a cached result and its expiration time.
+     */
+    private static final class Entry {
+
+        private final Object value;
+        private final long expires;
+
+        /**
+         * Constructor for a cache entry object
+         *
+         * @param value cached result (may be {@code null})
+         * @param expires expiration time (as per {@link System#nanoTime()})
+         */
+        Entry(Object value, long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.nordstrom.common.jdbc;
+
+/**
+ * This class accumulates execution metrics for a single query or stored procedure enumerated constant. Counters are
+ * striped to minimize contention between threads that execute the same constant.
+ */
+public final class QueryMetrics {
+
+    private final Enum<?> constant;
+    private final StripedCounter calls = new StripedCounter();
+    private final StripedCounter errors = new StripedCounter();
+    private final StripedCounter rows = new StripedCounter();
+    private final StripedCounter retries = new StripedCounter();
+    private final StripedCounter retriesExhausted = new StripedCounter();
+    private final StripedCounter retriesRejected = new StripedCounter();
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private final LatencyHistogram executeTime = new LatencyHistogram();
+
+    /**
+     * Constructor for a query metrics object
+     *
+     * @param constant query or stored procedure enumerated constant
+     */
+    QueryMetrics(Enum<?> constant) {
+        this.constant = constant;
+    }
+
+    /**
+     * Get the enumerated constant of these metrics.
+     *
+     * @return query or stored procedure enumerated constant
+     */
+    public Enum<?> getConstant() {
+        return constant;
+    }
+
+    /**
+     * Get the name of the enumerated constant of these metrics.
+     *
+     * @return enumerated constant name
+     */
+    public String getName() {
+        return constant.name();
+    }
+
+    /**
+     * Get the number of completed executions, including failures.
+     *
+     * @return call count
+     */
+    public long getCallCount() {
+        return calls.sum();
+    }
+
+    /**
+     * Get the number of failed executions.
+     *
+     * @return error count
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Get the total number of rows affected or returned by successful executions whose row counts are known.
+     *
+     * @return row count
+     */
+    public long getRowCount() {
+        return rows.sum();
+    }
+
+    /**
+     * Get the number of failed attempts that were retried.
+     *
+     * @return retry count
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Get the number of retryable failures that were thrown because all attempts had been used.
+     *
+     * @return exhausted retry count
+     */
+    public long getRetryExhaustedCount() {
+        return retriesExhausted.sum();
+    }
+
+    /**
+     * Get the number of retryable failures that were thrown because the retry budget was spent.
+     *
+     * @return rejected retry count
+     */
+    public long getRetryRejectedCount() {
+        return retriesRejected.sum();
+    }
+
+    /**
+     * Get the histogram of connection acquire times.
+     *
+     * @return acquire time histogram
+     */
+    public LatencyHistogram getAcquireTime() {
+        return acquireTime;
+    }
+
+    /**
+     * Get the histogram of statement execution times.
+     *
+     * @return execution time histogram
+     */
+    public LatencyHistogram getExecuteTime() {
+        return executeTime;
+    }
+
+    /**
+     * Record the specified execution.
+     *
+     * @param execution {@link Execution} object
+     * @param failed {@code true} if the execution failed
+     */
+    void record(Execution execution, boolean failed) {
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        } else if (execution.getRowCount() > 0) {
+            rows.add(execution.getRowCount());
+        }
+        acquireTime.record(execution.getAcquireNanos());
+        executeTime.record(execution.getExecuteNanos());
+    }
+
+    /**
+     * Record a retry of a failed attempt.
+     */
+    void retried() {
+        retries.increment();
+    }
+
+    /**
+     * Record a retryable failure that was thrown because all attempts had been used.
+     */
+    void retryExhausted() {
+        retriesExhausted.increment();
+    }
+
+    /**
+     * Record a retryable failure that was thrown because the retry budget was spent.
+     */
+    void retryRejected() {
+        retriesRejected.increment();
+    }
+}
@@ -0,0 +1,522 @@
+package com.nordstrom.common.jdbc;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import com.nordstrom.common.base.UncheckedThrow;
+import com.nordstrom.common.file.PathUtils;
+import com.nordstrom.common.jdbc.DatabaseUtils.ResultPackage;
+
+/**
+ * This class streams the rows of a {@link ResultSet} to a file in CSV or JSON-lines format. Rows are read from the
+ * result set one at a time and encoded as UTF-8 directly into a direct byte buffer, which is written to a
+ * {@link FileChannel} each time it fills. Each thread reuses a single buffer, sized by the {@value #BUFFER_SIZE_PROPERTY}
+ * system property (default: {@value #DEFAULT_BUFFER_SIZE}).
+ * <p>
+ * Cells are formatted according to their SQL type. Integral and boolean values are written without allocating
+ * strings, and character values are encoded from the driver's string without intermediate byte arrays. Binary values
+ * are written as hexadecimal, and SQL {@code NULL} is written as an empty CSV field or a JSON {@code null}.
+ * <pre>
+ * try (ResultPackage pkg = DatabaseUtils.getResultPackage(OpctValues.ALL_USERS)) {
+ *     Path dump = ResultExporter.exportToNext(pkg, Format.CSV, dumpDir, "users");
+ *     // =&gt; users.csv, users-1.csv, ...
+ * }
+ * </pre>
+ */
+public final class ResultExporter {
+
+    /** system property: export buffer size in bytes */
+    public static final String BUFFER_SIZE_PROPERTY = "java-utils.jdbc.export.bufferSize";
+
+    /** default export buffer size in bytes */
+    public static final int DEFAULT_BUFFER_SIZE = 65536;
+
+    private static final int BUFFER_SIZE = Math.max(Integer.getInteger(BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE), 64);
+
+    private static final ThreadLocal<ByteBuffer> BUFFER = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+    };
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    /**
+     * This enumeration defines the supported export formats.
+     */
+    public enum Format {
+        /** comma-separated values, with a header record of column labels */
+        CSV("csv"),
+        /** one JSON object per row, keyed by column label */
+        JSON_LINES("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * Get the file extension of this format.
+         *
+         * @return file extension (without leading period)
+         */
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private ResultExporter() {
+        throw new AssertionError("ResultExporter is a static utility class that cannot be instantiated");
+    }
+
+    /**
+     * Export the rows of the specified result package to the next available path in sequence for the indicated base
+     * name and the extension of the specified format.
+     * <p>
+     * <b>NOTE</b>: The result package is not closed by this method.
+     *
+     * @param pkg {@link ResultPackage} object
+     * @param format export {@link Format}
+     * @param targetPath path to existing target directory
+     * @param baseName base name for the path sequence
+     * @return path of the exported file
+     * @throws IOException if an I/O error occurs
+     * @see PathUtils#getNextPath(Path, String, String)
+     */
+    public static Path exportToNext(ResultPackage pkg, Format format, Path targetPath, String baseName)
+                    throws IOException {
+        Path file = PathUtils.getNextPath(targetPath, baseName, format.getExtension());
+        export(pkg, format, file);
+        return file;
+    }
+
+    /**
+     * Export the rows of the specified result package to the indicated file, replacing its contents.
+     * <p>
+     * <b>NOTE</b>: The result package is not closed by this method. The count of rows exported (or the failure) is
+     * reported to the execution that opened the package when it's closed.
+     *
+     * @param pkg {@link ResultPackage} object
+     * @param format export {@link Format}
+     * @param file path of output file
+     * @return count of rows exported
+     * @throws IOException if an I/O error occurs
+     */
+    public static long export(ResultPackage pkg, Format format, Path file) throws IOException {
+        try {
+            long rows = export(pkg.getResultSet(), format, file);
+            pkg.addRows(rows);
+            return rows;
+        } catch (IOException | RuntimeException e) {
+            pkg.failed(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Export the remaining rows of the specified result set to the indicated file, replacing its contents.
+     * <p>
+     * <b>NOTE</b>: The result set is not closed by this method.
+     *
+     * @param resultSet {@link ResultSet} object
+     * @param format export {@link Format}
+     * @param file path of output file
+     * @return count of rows exported
+     * @throws IOException if an I/O error occurs
+     */
+    public static long export(ResultSet resultSet, Format format, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            Sink sink = new Sink(channel, BUFFER.get());
+            long rows = sink.export(resultSet, format);
+            sink.flush();
+            return rows;
+        } catch (SQLException e) {
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+    }
+
+    /**
+     * This enumeration defines the formatting categories of SQL column types.
+     */
+    private enum Kind {
+        INTEGRAL, BOOLEAN, DECIMAL, FLOATING, BINARY, TEXT;
+
+        /**
+         * Get the formatting category of the specified SQL type.
+         *
+         * @param sqlType SQL type (as per {@link Types})
+         * @return formatting category
+         */
+        static Kind of(int sqlType) {
+            switch (sqlType) {
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                    return INTEGRAL;
+                case Types.BIT:
+                case Types.BOOLEAN:
+                    return BOOLEAN;
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                    return DECIMAL;
+                case Types.REAL:
+                case Types.FLOAT:
+                case Types.DOUBLE:
+                    return FLOATING;
+                case Types.BINARY:
+                case Types.VARBINARY:
+                case Types.LONGVARBINARY:
+                case Types.BLOB:
+                    return BINARY;
+                default:
+                    return TEXT;
+            }
+        }
+    }
+
+    /**
+     * This class encodes formatted rows into a byte buffer, writing the buffer to a file channel as it fills.
+     */
+    private static final class Sink {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final byte[] digits = new byte[20];
+
+        /**
+         * Constructor for a sink object
+         *
+         * @param channel output file channel
+         * @param buffer reusable byte buffer
+         */
+        Sink(FileChannel channel, ByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+            buffer.clear();
+        }
+
+        /**
+         * Export the remaining rows of the specified result set in the indicated format.
+         *
+         * @param resultSet {@link ResultSet} object
+         * @param format export {@link Format}
+         * @return count of rows exported
+         * @throws SQLException if a database access error occurs
+         * @throws IOException if an I/O error occurs
+         */
+        long export(ResultSet resultSet, Format format) throws SQLException, IOException {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            String[] labels = new String[columnCount];
+            Kind[] kinds = new Kind[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                labels[i] = metaData.getColumnLabel(i + 1);
+                kinds[i] = Kind.of(metaData.getColumnType(i + 1));
+            }
+
+            boolean json = (format == Format.JSON_LINES);
+            if (!json) {
+                for (int i = 0; i < columnCount; i++) {
+                    if (i > 0) put(',');
+                    putCsv(labels[i]);
+                }
+                put('\n');
+            }
+
+            long rows = 0;
+            while (resultSet.next()) {
+                if (json) put('{');
+                for (int i = 0; i < columnCount; i++) {
+                    if (json) {
+                        if (i > 0) put(',');
+                        putJson(labels[i]);
+                        put(':');
+                    } else if (i > 0) {
+                        put(',');
+                    }
+                    putCell(resultSet, i + 1, kinds[i], json);
+                }
+                if (json) put('}');
+                put('\n');
+                rows++;
+            }
+            return rows;
+        }
+
+        /**
+         * Write the value of the specified column of the current row.
+         *
+         * @param resultSet {@link ResultSet} object
+         * @param column column index (1-based)
+         * @param kind formatting category of the column
+         * @param json {@code true} for JSON format; {@code false} for CSV format
+         * @throws SQLException if a database access error occurs
+         * @throws IOException if an I/O error occurs
+         */
+        private void putCell(ResultSet resultSet, int column, Kind kind, boolean json)
+                        throws SQLException, IOException {
+            switch (kind) {
+                case INTEGRAL:
+                    long longVal = resultSet.getLong(column);
+                    if (resultSet.wasNull()) {
+                        putNull(json);
+                    } else {
+                        putLong(longVal);
+                    }
+                    break;
+
+                case BOOLEAN:
+                    boolean boolVal = resultSet.getBoolean(column);
+                    if (resultSet.wasNull()) {
+                        putNull(json);
+                    } else {
+                        putAscii(boolVal ? "true" : "false");
+                    }
+                    break;
+
+                case DECIMAL:
+                    BigDecimal decimal = resultSet.getBigDecimal(column);
+                    if (decimal == null) {
+                        putNull(json);
+                    } else {
+                        putAscii(decimal.toPlainString());
+                    }
+                    break;
+
+                case FLOATING:
+                    double doubleVal = resultSet.getDouble(column);
+                    if (resultSet.wasNull() || (json && (Double.isNaN(doubleVal) || Double.isInfinite(doubleVal)))) {
+                        putNull(json);
+                    } else {
+                        putAscii(Double.toString(doubleVal));
+                    }
+                    break;
+
+                case BINARY:
+                    byte[] bytes = resultSet.getBytes(column);
+                    if (bytes == null) {
+                        putNull(json);
+                    } else {
+                        if (json) put('"');
+                        for (byte b : bytes) {
+                            put(HEX[(b >> 4) & 0xF]);
+                            put(HEX[b & 0xF]);
+                        }
+                        if (json) put('"');
+                    }
+                    break;
+
+                default:
+                    String text = resultSet.getString(column);
+                    if (text == null) {
+                        putNull(json);
+                    } else if (json) {
+                        putJson(text);
+                    } else {
+                        putCsv(text);
+                    }
+                    break;
+            }
+        }
+
+        /**
+         * Write a SQL {@code NULL} value.
+         *
+         * @param json {@code true} for JSON format; {@code false} for CSV format
+         * @throws IOException if an I/O error occurs
+         */
+        private void putNull(boolean json) throws IOException {
+            if (json) putAscii("null");
+        }
+
+        /**
+         * Write the specified value as a CSV field, quoting it if it contains delimiters, quotes, or line breaks.
+         *
+         * @param value field value
+         * @throws IOException if an I/O error occurs
+         */
+        private void putCsv(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length(); i++) {
+                char ch = value.charAt(i);
+                if ((ch == ',') || (ch == '"') || (ch == '\n') || (ch == '\r')) {
+                    quote = true;
+                    break;
+                }
+            }
+            if (quote) {
+                put('"');
+                for (int i = 0; i < value.length(); i++) {
+                    char ch = value.charAt(i);
+                    if (ch == '"') put('"');
+                    i = putChar(value, i);
+                }
+                put('"');
+            } else {
+                for (int i = 0; i < value.length(); i++) {
+                    i = putChar(value, i);
+                }
+            }
+        }
+
+        /**
+         * Write the specified value as a JSON string.
+         *
+         * @param value string value
+         * @throws IOException if an I/O error occurs
+         */
+        private void putJson(String value) throws IOException {
+            put('"');
+            for (int i = 0; i < value.length(); i++) {
+                char ch = value.charAt(i);
+                switch (ch) {
+                    case '"':
+                    case '\\':
+                        put('\\');
+                        put(ch);
+                        break;
+                    case '\n':
+                        put('\\');
+                        put('n');
+                        break;
+                    case '\r':
+                        put('\\');
+                        put('r');
+                        break;
+                    case '\t':
+                        put('\\');
+                        put('t');
+                        break;
+                    default:
+                        if (ch < 0x20) {
+                            putAscii("\\u00");
+                            put(HEX[ch >> 4]);
+                            put(HEX[ch & 0xF]);
+                        } else {
+                            i = putChar(value, i);
+                        }
+                        break;
+                }
+            }
+            put('"');
+        }
+
+        /**
+         * Write the specified value in decimal without allocating a string.
+         *
+         * @param value value to write
+         * @throws IOException if an I/O error occurs
+         */
+        private void putLong(long value) throws IOException {
+            if (value == Long.MIN_VALUE) {
+                putAscii(Long.toString(value));
+                return;
+            }
+            if (value < 0) {
+                put('-');
+                value = -value;
+            }
+            int pos = digits.length;
+            do {
+                digits[--pos] = (byte) ('0' + (value % 10));
+                value /= 10;
+            } while (value != 0);
+            while (pos < digits.length) {
+                put(digits[pos++]);
+            }
+        }
+
+        /**
+         * Write the specified ASCII string.
+         *
+         * @param value ASCII string
+         * @throws IOException if an I/O error occurs
+         */
+        private void putAscii(String value) throws IOException {
+            for (int i = 0; i < value.length(); i++) {
+                put(value.charAt(i));
+            }
+        }
+
+        /**
+         * Write the character at the specified index of the indicated string as UTF-8. If the character begins a
+         * surrogate pair, both characters of the pair are written.
+         *
+         * @param value source string
+         * @param index index of character to write
+         * @return index of the last character written
+         * @throws IOException if an I/O error occurs
+         */
+        private int putChar(String value, int index) throws IOException {
+            char ch = value.charAt(index);
+            if (ch < 0x80) {
+                put((byte) ch);
+            } else if (ch < 0x800) {
+                put((byte) (0xC0 | (ch >> 6)));
+                put((byte) (0x80 | (ch & 0x3F)));
+            } else if (Character.isHighSurrogate(ch) && (index + 1 < value.length())
+                            && Character.isLowSurrogate(value.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(ch, value.charAt(++index));
+                put((byte) (0xF0 | (codePoint >> 18)));
+                put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(ch)) {
+                put((byte) '?');
+            } else {
+                put((byte) (0xE0 | (ch >> 12)));
+                put((byte) (0x80 | ((ch >> 6) & 0x3F)));
+                put((byte) (0x80 | (ch & 0x3F)));
+            }
+            return index;
+        }
+
+        /**
+         * Write the specified ASCII character.
+         *
+         * @param ch ASCII character
+         * @throws IOException if an I/O error occurs
+         */
+        private void put(char ch) throws IOException {
+            put((byte) ch);
+        }
+
+        /**
+         * Write the specified byte, flushing the buffer first if it's full.
+         *
+         * @param b byte to write
+         * @throws IOException if an I/O error occurs
+         */
+        private void put(byte b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put(b);
+        }
+
+        /**
+         * Write the contents of the buffer to the channel.
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
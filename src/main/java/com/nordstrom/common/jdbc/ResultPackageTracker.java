@@ -0,0 +1,450 @@
+package com.nordstrom.common.jdbc;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.ResultPackage;
+
+/**
+ * This class tracks open {@link ResultPackage} objects, each of which holds a connection, a statement, and usually a
+ * cursor until it's closed. For each open package, the tracker records the constant (or SQL text) that opened it, the
+ * time it was opened, and, for a sample of packages, the stack trace of the code that opened it.
+ * <p>
+ * Two safeguards are applied to packages that aren't closed:
+ * <ul>
+ * <li>A package that's held open longer than the hold threshold is reported to the {@link Logger} of this class, once.
+ *     If forced closing is enabled, its statement is also closed and its connection discarded.</li>
+ * <li>A package that becomes unreachable without being closed is detected through a {@link PhantomReference}. It is
+ *     reported, and its statement and connection are reclaimed. However, if its connection, statement, or result set
+ *     was handed out by an accessor, the caller may still be using it (e.g. - {@code getResultPackage(...)
+ *     .getResultSet()}), so the package is only reported; it remains subject to the hold threshold.</li>
+ * </ul>
+ * Reclaimed connections are closed rather than returned to their pools, because their state is unknown. Connections
+ * pinned by a {@link Transaction} stay with the transaction; only their statements are closed.
+ * <p>
+ * The tracker is configured by the following system properties:
+ * <ul>
+ * <li>{@value #HOLD_THRESHOLD_PROPERTY} - hold time (mS) after which open packages are reported; 0 to disable
+ *     (default: {@value #DEFAULT_HOLD_THRESHOLD_MILLIS})</li>
+ * <li>{@value #FORCE_CLOSE_PROPERTY} - {@code true} to close packages that exceed the hold threshold (default:
+ *     {@value #DEFAULT_FORCE_CLOSE})</li>
+ * <li>{@value #STACK_SAMPLE_RATE_PROPERTY} - capture the opening stack trace for one in this many packages; 0 to
+ *     disable (default: {@value #DEFAULT_STACK_SAMPLE_RATE})</li>
+ * </ul>
+ * <b>NOTE</b>: Forced closing releases resources out from under the code that holds the package, which will fail on
+ * its next use of the package. It's intended as a last resort against connection exhaustion.
+ */
+public final class ResultPackageTracker {
+
+    /** system property: hold time (mS) after which open packages are reported */
+    public static final String HOLD_THRESHOLD_PROPERTY = "java-utils.jdbc.leak.holdThresholdMillis";
+    /** system property: close packages that exceed the hold threshold */
+    public static final String FORCE_CLOSE_PROPERTY = "java-utils.jdbc.leak.forceClose";
+    /** system property: capture the opening stack trace for one in this many packages */
+    public static final String STACK_SAMPLE_RATE_PROPERTY = "java-utils.jdbc.leak.stackSampleRate";
+
+    /** default hold threshold (mS) */
+    public static final long DEFAULT_HOLD_THRESHOLD_MILLIS = 0;
+    /** default forced closing setting */
+    public static final boolean DEFAULT_FORCE_CLOSE = false;
+    /** default stack sample rate */
+    public static final int DEFAULT_STACK_SAMPLE_RATE = 100;
+
+    /** maximum interval between scans for packages that exceed the hold threshold (mS) */
+    private static final long MAX_SCAN_INTERVAL = 1000;
+
+    private static final Logger LOGGER = Logger.getLogger(ResultPackageTracker.class.getName());
+
+    private static final Set<Entry> OPEN = Collections.newSetFromMap(new ConcurrentHashMap<Entry, Boolean>());
+    private static final ReferenceQueue<ResultPackage> UNREACHABLE = new ReferenceQueue<>();
+    private static final AtomicLong HOLD_VIOLATIONS = new AtomicLong();
+    private static final AtomicLong FORCED_CLOSES = new AtomicLong();
+    private static final AtomicLong RECLAIMED = new AtomicLong();
+
+    private static volatile long holdThresholdMillis =
+                    Long.getLong(HOLD_THRESHOLD_PROPERTY, DEFAULT_HOLD_THRESHOLD_MILLIS);
+    private static volatile boolean forceClose = Boolean.parseBoolean(
+                    System.getProperty(FORCE_CLOSE_PROPERTY, String.valueOf(DEFAULT_FORCE_CLOSE)));
+    private static volatile int stackSampleRate =
+                    Integer.getInteger(STACK_SAMPLE_RATE_PROPERTY, DEFAULT_STACK_SAMPLE_RATE);
+
+    private static Thread monitor;
+
+    private ResultPackageTracker() {
+        throw new AssertionError("ResultPackageTracker is a static utility class that cannot be instantiated");
+    }
+
+    /**
+     * Set the hold threshold and forced closing setting, overriding the values specified by system properties.
+     *
+     * @param thresholdMillis hold time (mS) after which open packages are reported; 0 to disable
+     * @param close {@code true} to close packages that exceed the hold threshold
+     */
+    public static void setHoldThreshold(long thresholdMillis, boolean close) {
+        if (thresholdMillis < 0) {
+            throw new IllegalArgumentException("Hold threshold must be non-negative; specified: " + thresholdMillis);
+        }
+        holdThresholdMillis = thresholdMillis;
+        forceClose = close;
+        synchronized (ResultPackageTracker.class) {
+            if (monitor != null) {
+                monitor.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Set the stack sample rate, overriding the value specified by system properties.
+     *
+     * @param sampleRate capture the opening stack trace for one in this many packages; 0 to disable
+     */
+    public static void setStackSampleRate(int sampleRate) {
+        if (sampleRate < 0) {
+            throw new IllegalArgumentException("Sample rate must be non-negative; specified: " + sampleRate);
+        }
+        stackSampleRate = sampleRate;
+    }
+
+    /**
+     * Get the number of result packages that are currently open.
+     *
+     * @return open package count
+     */
+    public static int getOpenCount() {
+        return OPEN.size();
+    }
+
+    /**
+     * Get the number of result packages that were held open longer than the hold threshold.
+     *
+     * @return hold threshold violation count
+     */
+    public static long getHoldViolationCount() {
+        return HOLD_VIOLATIONS.get();
+    }
+
+    /**
+     * Get the number of result packages that were closed because they exceeded the hold threshold.
+     *
+     * @return forced close count
+     */
+    public static long getForcedCloseCount() {
+        return FORCED_CLOSES.get();
+    }
+
+    /**
+     * Get the number of result packages that were reclaimed after becoming unreachable without being closed.
+     *
+     * @return reclaimed package count
+     */
+    public static long getReclaimedCount() {
+        return RECLAIMED.get();
+    }
+
+    /**
+     * Get a snapshot of the result packages that are currently open, oldest first.
+     *
+     * @return list of {@link OpenPackage} objects
+     */
+    public static List<OpenPackage> getOpenPackages() {
+        long now = System.nanoTime();
+        List<OpenPackage> packages = new ArrayList<>(OPEN.size());
+        for (Entry entry : OPEN) {
+            packages.add(new OpenPackage(entry, now));
+        }
+        Collections.sort(packages, new Comparator<OpenPackage>() {
+            @Override
+            public int compare(OpenPackage o1, OpenPackage o2) {
+                return Long.compare(o2.ageMillis, o1.ageMillis);
+            }
+        });
+        return packages;
+    }
+
+    /**
+     * Start tracking the specified result package.
+     *
+     * @param pkg result package
+     * @param execution {@link Execution} that opened the package
+     * @param connection pooled connection held by the package
+     * @param statement statement held by the package
+     * @return tracking entry for the package
+     */
+    static Entry track(ResultPackage pkg, Execution execution, PooledConnection connection,
+                    PreparedStatement statement) {
+        int sampleRate = stackSampleRate;
+        Throwable openedAt = null;
+        if ((sampleRate > 0) && ((sampleRate == 1) || (ThreadLocalRandom.current().nextInt(sampleRate) == 0))) {
+            openedAt = new Throwable("ResultPackage opened here");
+        }
+        Entry entry = new Entry(pkg, execution, connection, statement, openedAt);
+        OPEN.add(entry);
+        startMonitor();
+        return entry;
+    }
+
+    /**
+     * Start the monitor thread if it isn't already running.
+     */
+    private static synchronized void startMonitor() {
+        if (monitor == null) {
+            monitor = new Thread(new Monitor(), "DatabaseUtils-result-package-tracker");
+            monitor.setDaemon(true);
+            monitor.start();
+        }
+    }
+
+    /**
+     * Describe the specified tracking entry for log messages.
+     *
+     * @param entry tracking entry
+     * @return description of the package and its holder
+     */
+    private static String describe(Entry entry) {
+        String source = (entry.constant != null) ? entry.constant.getDeclaringClass().getSimpleName() + "."
+                        + entry.constant.name() : "[" + entry.sql + "]";
+        return source + " (opened on thread \"" + entry.threadName + "\")";
+    }
+
+    /**
+     * Report packages that have exceeded the hold threshold, closing them if forced closing is enabled.
+     */
+    private static void checkHoldTimes() {
+        long thresholdMillis = holdThresholdMillis;
+        if (thresholdMillis <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        boolean close = forceClose;
+        for (Entry entry : OPEN) {
+            long heldNanos = now - entry.openedNanos;
+            if ((heldNanos >= thresholdNanos) && !entry.reported) {
+                entry.reported = true;
+                HOLD_VIOLATIONS.incrementAndGet();
+                String message = String.format("ResultPackage for %s held open for %d mS", describe(entry),
+                                TimeUnit.NANOSECONDS.toMillis(heldNanos));
+                if (close && entry.reclaim()) {
+                    FORCED_CLOSES.incrementAndGet();
+                    message += "; forcibly closed";
+                }
+                LOGGER.log(Level.WARNING, message, entry.openedAt);
+            }
+        }
+    }
+
+    /**
+     * Reclaim the resources of a package that became unreachable without being closed.
+     *
+     * @param entry tracking entry of the package
+     */
+    private static void reclaimUnreachable(Entry entry) {
+        long heldMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - entry.openedNanos);
+        if (entry.exposed) {
+            if (!entry.claimed.get()) {
+                LOGGER.log(Level.WARNING, String.format("ResultPackage for %s became unreachable after %d mS without "
+                                + "being closed; its resources were handed out, so they're left open", describe(entry),
+                                heldMillis), entry.openedAt);
+            }
+        } else if (entry.reclaim()) {
+            RECLAIMED.incrementAndGet();
+            entry.execution.failed(new IllegalStateException("ResultPackage was never closed"));
+            LOGGER.log(Level.WARNING, String.format("ResultPackage for %s was never closed; reclaimed after %d mS",
+                            describe(entry), heldMillis), entry.openedAt);
+        }
+    }
+
+    /**
+     * This class is a tracking entry for an open result package. It holds the resources of the package, so they can be
+     * reclaimed after the package becomes unreachable.
+     */
+    static final class Entry extends PhantomReference<ResultPackage> {
+
+        private final Enum<?> constant;
+        private final String sql;
+        private final String threadName;
+        private final long openedNanos;
+        private final Throwable openedAt;
+        private final PooledConnection connection;
+        private final PreparedStatement statement;
+        private final Execution execution;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private volatile boolean reported;
+        private volatile boolean exposed;
+
+        /**
+         * Constructor for a tracking entry object
+         *
+         * @param pkg result package
+         * @param execution {@link Execution} that opened the package
+         * @param connection pooled connection held by the package
+         * @param statement statement held by the package
+         * @param openedAt stack trace of the code that opened the package; {@code null} if not sampled
+         */
+        Entry(ResultPackage pkg, Execution execution, PooledConnection connection, PreparedStatement statement,
+                        Throwable openedAt) {
+            super(pkg, UNREACHABLE);
+            this.constant = execution.getConstant();
+            this.sql = execution.getSql();
+            this.threadName = Thread.currentThread().getName();
+            this.openedNanos = System.nanoTime();
+            this.openedAt = openedAt;
+            this.connection = connection;
+            this.statement = statement;
+            this.execution = execution;
+        }
+
+        /**
+         * Record that the connection, statement, or result set of the package has been handed out to its caller, who
+         * may keep using it after the package itself becomes unreachable.
+         */
+        void expose() {
+            exposed = true;
+        }
+
+        /**
+         * Claim the resources of the package for release by its owner, and stop tracking it.
+         *
+         * @return {@code true} if the owner should release the resources; {@code false} if they were reclaimed
+         */
+        boolean release() {
+            OPEN.remove(this);
+            clear();
+            return claimed.compareAndSet(false, true);
+        }
+
+        /**
+         * Claim the resources of the package and release them: the statement is closed, and the connection is
+         * discarded unless it's pinned by a transaction.
+         *
+         * @return {@code true} if the resources were reclaimed; {@code false} if they were already released
+         */
+        private boolean reclaim() {
+            OPEN.remove(this);
+            if (!claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            if (statement != null) {
+                connection.discardStatement(statement);
+            }
+            if (!connection.isPinned()) {
+                connection.discard();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * This class is a snapshot of an open result package.
+     */
+    public static final class OpenPackage {
+
+        private final Enum<?> constant;
+        private final String sql;
+        private final String threadName;
+        private final long ageMillis;
+        private final Throwable openedAt;
+
+        /**
+         * Constructor for an open package snapshot
+         *
+         * @param entry tracking entry of the package
+         * @param now current time (nS)
+         */
+        private OpenPackage(Entry entry, long now) {
+            this.constant = entry.constant;
+            this.sql = entry.sql;
+            this.threadName = entry.threadName;
+            this.ageMillis = TimeUnit.NANOSECONDS.toMillis(now - entry.openedNanos);
+            this.openedAt = entry.openedAt;
+        }
+
+        /**
+         * Get the query or stored procedure constant that opened the package.
+         *
+         * @return enumerated constant; {@code null} for ad hoc SQL
+         */
+        public Enum<?> getConstant() {
+            return constant;
+        }
+
+        /**
+         * Get the SQL text of the statement held by the package.
+         *
+         * @return SQL text (for stored procedures, the call string)
+         */
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * Get the name of the thread that opened the package.
+         *
+         * @return thread name
+         */
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * Get the time the package has been open.
+         *
+         * @return package age (mS)
+         */
+        public long getAgeMillis() {
+            return ageMillis;
+        }
+
+        /**
+         * Get the stack trace of the code that opened the package.
+         *
+         * @return {@link Throwable} that records the opening stack; {@code null} if it wasn't sampled
+         */
+        public Throwable getOpenedAt() {
+            return openedAt;
+        }
+    }
+
+    /**
+     * This runnable reclaims unreachable packages and checks the hold times of open packages.
+     */
+    private static class Monitor implements Runnable {
+
+        @Override
+        public void run() {
+            while (true) {
+                long thresholdMillis = holdThresholdMillis;
+                long interval = (thresholdMillis > 0)
+                                ? Math.max(1, Math.min(MAX_SCAN_INTERVAL, thresholdMillis / 4)) : MAX_SCAN_INTERVAL;
+                try {
+                    Reference<? extends ResultPackage> ref = UNREACHABLE.remove(interval);
+                    while (ref != null) {
+                        reclaimUnreachable((Entry) ref);
+                        ref = UNREACHABLE.poll();
+                    }
+                } catch (InterruptedException e) {
+                    // interrupted to apply a new hold threshold
+                }
+                try {
+                    checkHoldTimes();
+                } catch (RuntimeException e) {
+                    // Suppress monitor failures
+                }
+            }
+        }
+    }
+}
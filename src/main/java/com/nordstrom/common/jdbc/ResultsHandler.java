@@ -0,0 +1,33 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * This interface defines the API of objects that receive the results of a stored procedure call that returns several
+ * result sets and update counts. Results are delivered in the order the procedure produces them, and the rows of each
+ * result set are delivered as they're fetched, so no result set is held in memory while later ones are read.
+ * <p>
+ * Result sets and update counts are numbered separately, from 0, in the order they're returned.
+ */
+public interface ResultsHandler {
+
+    /**
+     * Handle the current row of the result set with the specified index. Implementations must not advance the cursor
+     * of the result set.
+     *
+     * @param resultIndex index of the result set (0-based)
+     * @param resultSet {@link ResultSet} positioned at the row to be handled
+     * @param rowNum row number within the result set (1-based)
+     * @throws SQLException if a database access error occurs
+     */
+    void handleRow(int resultIndex, ResultSet resultSet, int rowNum) throws SQLException;
+
+    /**
+     * Handle the update count with the specified index.
+     *
+     * @param countIndex index of the update count (0-based)
+     * @param updateCount number of rows affected
+     */
+    void handleUpdateCount(int countIndex, int updateCount);
+}
@@ -0,0 +1,309 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class defines how failed executions of {@link IdempotentAPI} objects are retried. A failure is retried if any
+ * exception in its cause chain is a {@link SQLTransientException} (other than a {@link SQLTimeoutException}) or has a
+ * SQLState that begins with one of the retryable prefixes of the policy. The default prefixes are <b>40</b>
+ * (transaction rollback, which includes deadlock victims and serialization failures) and <b>08</b> (connection
+ * exception). Each attempt acquires its own connection; a connection that failed with a connection exception is
+ * discarded rather than returned to its pool, so a retry never runs on the connection that failed.
+ * <p>
+ * Each retry waits for a random delay between zero and an exponentially growing cap ("full jitter"), so clients that
+ * failed together don't retry together. Retries are also limited by a budget that is shared by every object using the
+ * policy. Each first attempt adds a fraction of a retry to the budget, and each retry spends one, so retries can never
+ * exceed that fraction of the traffic by much. When the budget runs out, failures are thrown without retrying.
+ * <p>
+ * The default policy is configured by the following system properties:
+ * <ul>
+ * <li>{@value #MAX_ATTEMPTS_PROPERTY} - maximum attempts per execution, including the first (default: {@value
+ *     #DEFAULT_MAX_ATTEMPTS})</li>
+ * <li>{@value #BASE_DELAY_PROPERTY} - delay cap for the first retry in milliseconds (default: {@value
+ *     #DEFAULT_BASE_DELAY_MILLIS})</li>
+ * <li>{@value #MAX_DELAY_PROPERTY} - maximum delay cap in milliseconds (default: {@value
+ *     #DEFAULT_MAX_DELAY_MILLIS})</li>
+ * <li>{@value #BUDGET_RATIO_PROPERTY} - retries earned per first attempt (default: {@value
+ *     #DEFAULT_BUDGET_RATIO})</li>
+ * <li>{@value #BUDGET_CAPACITY_PROPERTY} - maximum retries held in the budget (default: {@value
+ *     #DEFAULT_BUDGET_CAPACITY})</li>
+ * <li>{@value #SQL_STATES_PROPERTY} - comma-separated retryable SQLState prefixes (default: {@value
+ *     #DEFAULT_SQL_STATES})</li>
+ * </ul>
+ */
+public final class RetryPolicy {
+
+    /** system property: maximum attempts per execution */
+    public static final String MAX_ATTEMPTS_PROPERTY = "java-utils.jdbc.retry.maxAttempts";
+    /** system property: delay cap for the first retry in milliseconds */
+    public static final String BASE_DELAY_PROPERTY = "java-utils.jdbc.retry.baseDelayMillis";
+    /** system property: maximum delay cap in milliseconds */
+    public static final String MAX_DELAY_PROPERTY = "java-utils.jdbc.retry.maxDelayMillis";
+    /** system property: retries earned per first attempt */
+    public static final String BUDGET_RATIO_PROPERTY = "java-utils.jdbc.retry.budgetRatio";
+    /** system property: maximum retries held in the budget */
+    public static final String BUDGET_CAPACITY_PROPERTY = "java-utils.jdbc.retry.budgetCapacity";
+    /** system property: comma-separated retryable SQLState prefixes */
+    public static final String SQL_STATES_PROPERTY = "java-utils.jdbc.retry.sqlStates";
+
+    /** default maximum attempts per execution */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    /** default delay cap for the first retry in milliseconds */
+    public static final long DEFAULT_BASE_DELAY_MILLIS = 50;
+    /** default maximum delay cap in milliseconds */
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 2000;
+    /** default retries earned per first attempt */
+    public static final double DEFAULT_BUDGET_RATIO = 0.1;
+    /** default maximum retries held in the budget */
+    public static final int DEFAULT_BUDGET_CAPACITY = 10;
+    /** default retryable SQLState prefixes */
+    public static final String DEFAULT_SQL_STATES = "40,08";
+
+    /** budget units per retry */
+    private static final long UNIT = 1000;
+
+    private static final RetryPolicy DEFAULT = new RetryPolicy(
+                    Integer.getInteger(MAX_ATTEMPTS_PROPERTY, DEFAULT_MAX_ATTEMPTS),
+                    Long.getLong(BASE_DELAY_PROPERTY, DEFAULT_BASE_DELAY_MILLIS),
+                    Long.getLong(MAX_DELAY_PROPERTY, DEFAULT_MAX_DELAY_MILLIS),
+                    Double.parseDouble(System.getProperty(BUDGET_RATIO_PROPERTY, String.valueOf(DEFAULT_BUDGET_RATIO))),
+                    Integer.getInteger(BUDGET_CAPACITY_PROPERTY, DEFAULT_BUDGET_CAPACITY),
+                    System.getProperty(SQL_STATES_PROPERTY, DEFAULT_SQL_STATES).split(","));
+
+    private final int maxAttempts;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final long deposit;
+    private final long capacity;
+    private final String[] sqlStates;
+
+    private final AtomicLong budget;
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Constructor for a retry policy object
+     *
+     * @param maxAttempts maximum attempts per execution, including the first
+     * @param baseDelayMillis delay cap for the first retry in milliseconds
+     * @param maxDelayMillis maximum delay cap in milliseconds
+     * @param budgetRatio retries earned per first attempt
+     * @param budgetCapacity maximum retries held in the budget (the budget starts full)
+     * @param sqlStates retryable SQLState prefixes
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis, double budgetRatio,
+                    int budgetCapacity, String... sqlStates) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Maximum attempts must be positive; specified: " + maxAttempts);
+        }
+        if ((baseDelayMillis < 0) || (maxDelayMillis < baseDelayMillis)) {
+            throw new IllegalArgumentException("Delays must satisfy 0 <= baseDelayMillis <= maxDelayMillis");
+        }
+        if ((budgetRatio < 0) || (budgetCapacity < 0)) {
+            throw new IllegalArgumentException("Budget ratio and capacity must be non-negative");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayNanos = TimeUnit.MILLISECONDS.toNanos(baseDelayMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.deposit = Math.round(budgetRatio * UNIT);
+        this.capacity = budgetCapacity * UNIT;
+        this.budget = new AtomicLong(capacity);
+        this.sqlStates = new String[sqlStates.length];
+        for (int i = 0; i < sqlStates.length; i++) {
+            this.sqlStates[i] = sqlStates[i].trim();
+        }
+    }
+
+    /**
+     * Get the default retry policy, which is configured by system properties.
+     *
+     * @return default {@link RetryPolicy}
+     */
+    public static RetryPolicy getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Get the retry policy of the specified enumerated constant.
+     *
+     * @param constant query or stored procedure enumerated constant; {@code null} for ad hoc SQL
+     * @return {@link RetryPolicy} of the constant; {@code null} if the constant isn't an {@link IdempotentAPI}
+     */
+    static RetryPolicy of(Enum<?> constant) {
+        if (constant instanceof IdempotentAPI) {
+            RetryPolicy policy = ((IdempotentAPI) constant).getRetryPolicy();
+            return (policy != null) ? policy : DEFAULT;
+        }
+        return null;
+    }
+
+    /**
+     * Get the maximum attempts per execution, including the first.
+     *
+     * @return maximum attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Get the number of retries performed under this policy.
+     *
+     * @return retry count
+     */
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /**
+     * Get the number of retryable failures that were thrown because all attempts had been used.
+     *
+     * @return exhausted attempt count
+     */
+    public long getExhaustedCount() {
+        return exhausted.get();
+    }
+
+    /**
+     * Get the number of retryable failures that were thrown because the retry budget was spent.
+     *
+     * @return budget rejection count
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Get the number of retries currently available in the budget of this policy.
+     *
+     * @return available retries
+     */
+    public double getAvailableBudget() {
+        return (double) budget.get() / UNIT;
+    }
+
+    /**
+     * Determine if the specified failure is retryable under this policy.
+     *
+     * @param thrown exception thrown by an execution
+     * @return {@code true} if the failure is transient; otherwise {@code false}
+     */
+    public boolean isRetryable(Throwable thrown) {
+        for (Throwable t = thrown; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                for (SQLException e = (SQLException) t; e != null; e = e.getNextException()) {
+                    if (isRetryable(e)) {
+                        return true;
+                    }
+                }
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the delay before the specified retry. The delay is drawn at random from zero to the lesser of the maximum
+     * delay and the base delay doubled for each preceding retry.
+     *
+     * @param retry retry number (1-based)
+     * @return delay in nanoseconds
+     */
+    long getDelayNanos(int retry) {
+        long cap = baseDelayNanos << Math.min(retry - 1, 30);
+        if ((cap < 0) || (cap > maxDelayNanos)) {
+            cap = maxDelayNanos;
+        }
+        return (cap > 0) ? ThreadLocalRandom.current().nextLong(cap + 1) : 0;
+    }
+
+    /**
+     * Record the first attempt of an execution, adding its share to the retry budget.
+     */
+    void attempted() {
+        if (deposit > 0) {
+            long current;
+            do {
+                current = budget.get();
+                if (current >= capacity) return;
+            } while (!budget.compareAndSet(current, Math.min(current + deposit, capacity)));
+        }
+    }
+
+    /**
+     * Decide whether the specified failed attempt should be retried. If so, record the retry and wait for the retry
+     * delay before returning.
+     *
+     * @param metrics {@link QueryMetrics} of the executed constant
+     * @param thrown exception thrown by the attempt
+     * @param attempt number of the failed attempt (1-based)
+     * @return {@code true} if the execution should be retried; otherwise {@code false}
+     */
+    boolean retry(QueryMetrics metrics, Throwable thrown, int attempt) {
+        if (!isRetryable(thrown)) {
+            return false;
+        }
+        if (attempt >= maxAttempts) {
+            exhausted.incrementAndGet();
+            metrics.retryExhausted();
+            return false;
+        }
+        if (!spend()) {
+            rejected.incrementAndGet();
+            metrics.retryRejected();
+            return false;
+        }
+        retries.incrementAndGet();
+        metrics.retried();
+        try {
+            TimeUnit.NANOSECONDS.sleep(getDelayNanos(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Spend one retry from the budget of this policy.
+     *
+     * @return {@code true} if the budget held a retry; otherwise {@code false}
+     */
+    private boolean spend() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < UNIT) return false;
+        } while (!budget.compareAndSet(current, current - UNIT));
+        return true;
+    }
+
+    /**
+     * Determine if the specified exception is retryable by class or SQLState.
+     *
+     * @param e SQL exception
+     * @return {@code true} if the exception is transient; otherwise {@code false}
+     */
+    private boolean isRetryable(SQLException e) {
+        if ((e instanceof SQLTransientException) && !(e instanceof SQLTimeoutException)) {
+            return true;
+        }
+        String state = e.getSQLState();
+        if (state != null) {
+            for (String prefix : sqlStates) {
+                if (!prefix.isEmpty() && state.startsWith(prefix)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
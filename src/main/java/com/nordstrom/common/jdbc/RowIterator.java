@@ -0,0 +1,116 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.nordstrom.common.base.UncheckedThrow;
+import com.nordstrom.common.jdbc.DatabaseUtils.ResultPackage;
+
+/**
+ * This class streams the rows of the result set of a {@link ResultPackage}, converting each row with a {@link
+ * RowMapper} as the iterator advances. The package is closed when the last row has been read, when reading a row
+ * fails, or when this iterator is closed; the execution that opened it is then completed with the number of rows read
+ * or the failure.
+ * <p>
+ * <b>NOTE</b>: This iterator can only be traversed once; {@link #iterator()} returns this object.
+ *
+ * @param <T> row type
+ */
+public final class RowIterator<T> implements Iterator<T>, Iterable<T>, AutoCloseable {
+
+    private final ResultPackage pkg;
+    private final ResultSet resultSet;
+    private final RowMapper<T> mapper;
+
+    private int rowNum;
+    private Boolean hasNext;
+    private boolean closed;
+
+    /**
+     * Constructor for a row iterator object
+     *
+     * @param pkg {@link ResultPackage} that owns the result set
+     * @param resultSet {@link ResultSet} to be streamed (may be {@code null})
+     * @param mapper {@link RowMapper} that converts each row to an object
+     */
+    RowIterator(ResultPackage pkg, ResultSet resultSet, RowMapper<T> mapper) {
+        this.pkg = pkg;
+        this.resultSet = resultSet;
+        this.mapper = mapper;
+        if (resultSet == null) {
+            close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNext() {
+        if (hasNext == null) {
+            try {
+                hasNext = resultSet.next();
+            } catch (SQLException e) {
+                pkg.failed(e);
+                close();
+                throw UncheckedThrow.throwUnchecked(e);
+            }
+            if (!hasNext) {
+                close();
+            }
+        }
+        return hasNext;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more rows in this result set");
+        }
+        hasNext = null;
+        try {
+            return mapper.mapRow(resultSet, ++rowNum);
+        } catch (SQLException | RuntimeException e) {
+            pkg.failed(e);
+            close();
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+    }
+
+    /**
+     * This operation is not supported.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Rows cannot be removed from a result set");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return this;
+    }
+
+    /**
+     * Close the result package that owns the result set of this iterator, reporting the number of rows read to the
+     * execution that opened it. Subsequent calls to {@link #hasNext()} return {@code false}.
+     */
+    @Override
+    public void close() {
+        hasNext = Boolean.FALSE;
+        if (!closed) {
+            closed = true;
+            pkg.addRows(rowNum);
+            pkg.close();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * This interface defines the API of objects that convert rows of a {@link ResultSet} into objects.
+ *
+ * @param <T> row type
+ */
+public interface RowMapper<T> {
+
+    /**
+     * Convert the current row of the specified result set into an object. Implementations must not advance the
+     * cursor of the result set.
+     *
+     * @param resultSet {@link ResultSet} positioned at the row to be converted
+     * @param rowNum row number (1-based)
+     * @return object that represents the current row
+     * @throws SQLException if a database access error occurs
+     */
+    T mapRow(ResultSet resultSet, int rowNum) throws SQLException;
+}
@@ -0,0 +1,618 @@
+package com.nordstrom.common.jdbc;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.nordstrom.common.base.UncheckedThrow;
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+
+/**
+ * This utility class creates {@link RowMapper} objects that convert result set rows into instances of a specified
+ * class, either by invoking bean property setters or by invoking a constructor.
+ * <p>
+ * Mapping is resolved once per mapper: when the first row is mapped, column labels are matched to setters (or column
+ * positions to constructor parameters), a column reader is chosen for each target type, and the setters and
+ * constructors are bound as {@link MethodHandle} objects. Subsequent rows are mapped by column index with no
+ * reflection and no label search. Each time a mapper starts on a new result set (row 1), the column labels and types
+ * of the result set are compared with those of the resolved bindings, and the bindings are resolved again if they
+ * differ. The mappers returned for {@link QueryAPI} and {@link SProcAPI} constants are cached per constant and target
+ * class, so this resolution is performed once per query.
+ * <p>
+ * <b>NOTE</b>: Target classes and their constructors and setters must be public. Column labels are matched to
+ * property names ignoring case and underscores (e.g. - column <b>USER_ID</b> maps to {@code setUserId}), and columns
+ * with no matching setter are ignored. SQL {@code NULL} values are mapped to the default values of primitive targets.
+ */
+public final class RowMappers {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class);
+
+    private static final ClassValue<AtomicReferenceArray<ResolvingMapper<?>[]>> MAPPERS =
+                    new ClassValue<AtomicReferenceArray<ResolvingMapper<?>[]>>() {
+        @Override
+        protected AtomicReferenceArray<ResolvingMapper<?>[]> computeValue(Class<?> type) {
+            return new AtomicReferenceArray<>(type.getEnumConstants().length);
+        }
+    };
+
+    private RowMappers() {
+        throw new AssertionError("RowMappers is a static utility class that cannot be instantiated");
+    }
+
+    /**
+     * Get a row mapper that creates instances of the specified bean class and populates them via property setters.
+     *
+     * @param <T> row type
+     * @param type bean class with a public no-argument constructor
+     * @return new bean row mapper
+     */
+    public static <T> RowMapper<T> forBean(Class<T> type) {
+        return new BeanMapper<>(type);
+    }
+
+    /**
+     * Get a row mapper that creates instances of the specified class by passing column values to a constructor. The
+     * class must declare exactly one public constructor whose parameter count equals the column count of the result
+     * set, and column values are passed in column order.
+     *
+     * @param <T> row type
+     * @param type target class
+     * @return new constructor row mapper
+     */
+    public static <T> RowMapper<T> forConstructor(Class<T> type) {
+        return new ConstructorMapper<>(type);
+    }
+
+    /**
+     * Get the cached bean row mapper of the specified query object.
+     *
+     * @param <T> row type
+     * @param query query object
+     * @param type bean class with a public no-argument constructor
+     * @return bean row mapper for the specified query object
+     * @see #forBean(Class)
+     */
+    public static <T> RowMapper<T> forBean(QueryAPI query, Class<T> type) {
+        return cached(query.getEnum(), type, true);
+    }
+
+    /**
+     * Get the cached constructor row mapper of the specified query object.
+     *
+     * @param <T> row type
+     * @param query query object
+     * @param type target class
+     * @return constructor row mapper for the specified query object
+     * @see #forConstructor(Class)
+     */
+    public static <T> RowMapper<T> forConstructor(QueryAPI query, Class<T> type) {
+        return cached(query.getEnum(), type, false);
+    }
+
+    /**
+     * Get the cached bean row mapper of the specified stored procedure object.
+     *
+     * @param <T> row type
+     * @param sproc stored procedure object
+     * @param type bean class with a public no-argument constructor
+     * @return bean row mapper for the specified stored procedure object
+     * @see #forBean(Class)
+     */
+    public static <T> RowMapper<T> forBean(SProcAPI sproc, Class<T> type) {
+        return cached(sproc.getEnum(), type, true);
+    }
+
+    /**
+     * Get the cached constructor row mapper of the specified stored procedure object.
+     *
+     * @param <T> row type
+     * @param sproc stored procedure object
+     * @param type target class
+     * @return constructor row mapper for the specified stored procedure object
+     * @see #forConstructor(Class)
+     */
+    public static <T> RowMapper<T> forConstructor(SProcAPI sproc, Class<T> type) {
+        return cached(sproc.getEnum(), type, false);
+    }
+
+    /**
+     * Get the cached row mapper of the specified kind and target class for the indicated enumerated constant. If the
+     * constant has no mapper of this kind and class, a new mapper is created and added to the mappers of the constant.
+     *
+     * @param <T> row type
+     * @param constant query or stored procedure enumerated constant
+     * @param type target class
+     * @param bean {@code true} for a bean mapper; {@code false} for a constructor mapper
+     * @return cached row mapper
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> RowMapper<T> cached(Enum<?> constant, Class<T> type, boolean bean) {
+        AtomicReferenceArray<ResolvingMapper<?>[]> mappers = MAPPERS.get(constant.getDeclaringClass());
+        int ordinal = constant.ordinal();
+        ResolvingMapper<?> created = null;
+        while (true) {
+            ResolvingMapper<?>[] cached = mappers.get(ordinal);
+            int length = (cached != null) ? cached.length : 0;
+            for (int i = 0; i < length; i++) {
+                ResolvingMapper<?> mapper = cached[i];
+                if ((mapper.type == type) && ((mapper instanceof BeanMapper) == bean)) {
+                    return (RowMapper<T>) mapper;
+                }
+            }
+            if (created == null) {
+                created = bean ? new BeanMapper<>(type) : new ConstructorMapper<>(type);
+            }
+            ResolvingMapper<?>[] updated = new ResolvingMapper<?>[length + 1];
+            if (length > 0) {
+                System.arraycopy(cached, 0, updated, 0, length);
+            }
+            updated[length] = created;
+            if (mappers.compareAndSet(ordinal, cached, updated)) {
+                return (RowMapper<T>) created;
+            }
+        }
+    }
+
+    /**
+     * Normalize the specified column label or property name for matching.
+     *
+     * @param name column label or property name
+     * @return lower-case name with underscores removed
+     */
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * This is the base class for row mappers that resolve their column bindings from the first row they map. The
+     * bindings are re-resolved if the column labels or types of a result set differ from those of the resolved
+     * bindings.
+     *
+     * @param <T> row type
+     */
+    private abstract static class ResolvingMapper<T> implements RowMapper<T> {
+
+        final Class<T> type;
+        private volatile Binding binding;
+
+        /**
+         * Constructor for a resolving row mapper
+         *
+         * @param type target class
+         */
+        ResolvingMapper(Class<T> type) {
+            if (!Modifier.isPublic(type.getModifiers())) {
+                throw new IllegalArgumentException("Row type must be public: " + type.getName());
+            }
+            this.type = type;
+        }
+
+        @Override
+        public T mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+            Binding current = binding;
+            if ((current == null) || ((rowNum == 1) && !current.matches(resultSet.getMetaData()))) {
+                current = resolve(resultSet.getMetaData());
+                binding = current;
+            }
+            try {
+                return type.cast(current.map(resultSet));
+            } catch (SQLException | RuntimeException e) {
+                throw e;
+            } catch (Throwable t) {
+                throw UncheckedThrow.throwUnchecked(t);
+            }
+        }
+
+        /**
+         * Resolve the column bindings of this mapper for the specified result set metadata.
+         *
+         * @param metaData {@link ResultSetMetaData} object
+         * @return resolved bindings
+         * @throws SQLException if a database access error occurs
+         */
+        abstract Binding resolve(ResultSetMetaData metaData) throws SQLException;
+    }
+
+    /**
+     * This class defines the resolved bindings of a row mapper.
+     */
+    private abstract static class Binding {
+
+        final int columnCount;
+        private final String[] labels;
+        private final int[] types;
+
+        /**
+         * Constructor for a binding object
+         *
+         * @param metaData metadata of the result set for which the bindings were resolved
+         * @throws SQLException if a database access error occurs
+         */
+        Binding(ResultSetMetaData metaData) throws SQLException {
+            columnCount = metaData.getColumnCount();
+            labels = new String[columnCount];
+            types = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                labels[i] = metaData.getColumnLabel(i + 1);
+                types[i] = metaData.getColumnType(i + 1);
+            }
+        }
+
+        /**
+         * Determine if these bindings were resolved for result sets with the specified metadata.
+         *
+         * @param metaData {@link ResultSetMetaData} object
+         * @return {@code true} if the column labels and types match; otherwise {@code false}
+         * @throws SQLException if a database access error occurs
+         */
+        boolean matches(ResultSetMetaData metaData) throws SQLException {
+            if (metaData.getColumnCount() != columnCount) {
+                return false;
+            }
+            for (int i = 0; i < columnCount; i++) {
+                if ((metaData.getColumnType(i + 1) != types[i]) || !labels[i].equals(metaData.getColumnLabel(i + 1))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Convert the current row of the specified result set into an object.
+         *
+         * @param resultSet {@link ResultSet} positioned at the row to be converted
+         * @return object that represents the current row
+         * @throws Throwable if the row can't be read or the target object can't be created
+         */
+        abstract Object map(ResultSet resultSet) throws Throwable;
+    }
+
+    /**
+     * This row mapper creates bean instances and populates them via property setters.
+     *
+     * @param <T> row type
+     */
+    private static final class BeanMapper<T> extends ResolvingMapper<T> {
+
+        private final MethodHandle factory;
+        private final Map<String, Method> setters = new HashMap<>();
+
+        /**
+         * Constructor for a bean row mapper
+         *
+         * @param type bean class with a public no-argument constructor
+         */
+        BeanMapper(Class<T> type) {
+            super(type);
+            try {
+                factory = LOOKUP.findConstructor(type, MethodType.methodType(void.class)).asType(FACTORY_TYPE);
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException("Bean class must declare a public no-argument constructor: "
+                                + type.getName(), e);
+            }
+            for (Method method : type.getMethods()) {
+                if (method.getName().startsWith("set") && (method.getParameterTypes().length == 1)
+                                && !Modifier.isStatic(method.getModifiers())) {
+                    setters.put(normalize(method.getName().substring(3)), method);
+                }
+            }
+        }
+
+        @Override
+        Binding resolve(ResultSetMetaData metaData) throws SQLException {
+            int columnCount = metaData.getColumnCount();
+            int count = 0;
+            int[] indexes = new int[columnCount];
+            ColumnReader[] readers = new ColumnReader[columnCount];
+            boolean[] nullable = new boolean[columnCount];
+            MethodHandle[] handles = new MethodHandle[columnCount];
+            for (int i = 1; i <= columnCount; i++) {
+                Method setter = setters.get(normalize(metaData.getColumnLabel(i)));
+                if (setter != null) {
+                    Class<?> paramType = setter.getParameterTypes()[0];
+                    indexes[count] = i;
+                    readers[count] = ColumnReader.forType(paramType);
+                    nullable[count] = !paramType.isPrimitive();
+                    try {
+                        handles[count] = LOOKUP.unreflect(setter).asType(SETTER_TYPE);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalArgumentException("Unable to access setter: " + setter, e);
+                    }
+                    count++;
+                }
+            }
+            return new BeanBinding(metaData, count, factory, indexes, readers, nullable, handles);
+        }
+    }
+
+    /**
+     * This class defines the resolved bindings of a bean row mapper.
+     */
+    private static final class BeanBinding extends Binding {
+
+        private final int count;
+        private final MethodHandle factory;
+        private final int[] indexes;
+        private final ColumnReader[] readers;
+        private final boolean[] nullable;
+        private final MethodHandle[] setters;
+
+        /**
+         * Constructor for a bean binding object
+         *
+         * @param metaData metadata of the result set
+         * @param count number of bound columns
+         * @param factory bean factory
+         * @param indexes indexes of bound columns
+         * @param readers readers of bound columns
+         * @param nullable {@code true} for each bound column whose setter accepts {@code null}
+         * @param setters setters of bound columns
+         */
+        BeanBinding(ResultSetMetaData metaData, int count, MethodHandle factory, int[] indexes,
+                        ColumnReader[] readers, boolean[] nullable, MethodHandle[] setters) throws SQLException {
+            super(metaData);
+            this.count = count;
+            this.factory = factory;
+            this.indexes = indexes;
+            this.readers = readers;
+            this.nullable = nullable;
+            this.setters = setters;
+        }
+
+        @Override
+        Object map(ResultSet resultSet) throws Throwable {
+            Object bean = (Object) factory.invokeExact();
+            for (int i = 0; i < count; i++) {
+                Object value = readers[i].read(resultSet, indexes[i]);
+                if (nullable[i] && resultSet.wasNull()) {
+                    value = null;
+                }
+                setters[i].invokeExact(bean, value);
+            }
+            return bean;
+        }
+    }
+
+    /**
+     * This row mapper creates instances of its target class by passing column values to a constructor.
+     *
+     * @param <T> row type
+     */
+    private static final class ConstructorMapper<T> extends ResolvingMapper<T> {
+
+        /**
+         * Constructor for a constructor row mapper
+         *
+         * @param type target class
+         */
+        ConstructorMapper(Class<T> type) {
+            super(type);
+        }
+
+        @Override
+        Binding resolve(ResultSetMetaData metaData) throws SQLException {
+            int columnCount = metaData.getColumnCount();
+            Constructor<?> target = null;
+            for (Constructor<?> constructor : type.getConstructors()) {
+                if (constructor.getParameterTypes().length == columnCount) {
+                    if (target != null) {
+                        throw new IllegalArgumentException(String.format(
+                                        "Multiple public constructors of %s accept %d arguments",
+                                        type.getName(), columnCount));
+                    }
+                    target = constructor;
+                }
+            }
+            if (target == null) {
+                throw new IllegalArgumentException(String.format(
+                                "No public constructor of %s accepts %d arguments", type.getName(), columnCount));
+            }
+
+            Class<?>[] paramTypes = target.getParameterTypes();
+            ColumnReader[] readers = new ColumnReader[columnCount];
+            boolean[] nullable = new boolean[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                readers[i] = ColumnReader.forType(paramTypes[i]);
+                nullable[i] = !paramTypes[i].isPrimitive();
+            }
+            try {
+                MethodHandle factory = LOOKUP.unreflectConstructor(target).asSpreader(Object[].class, columnCount)
+                                .asType(MethodType.methodType(Object.class, Object[].class));
+                return new ConstructorBinding(metaData, factory, readers, nullable);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Unable to access constructor: " + target, e);
+            }
+        }
+    }
+
+    /**
+     * This class defines the resolved bindings of a constructor row mapper.
+     */
+    private static final class ConstructorBinding extends Binding {
+
+        private final MethodHandle factory;
+        private final ColumnReader[] readers;
+        private final boolean[] nullable;
+
+        /**
+         * Constructor for a constructor binding object
+         *
+         * @param metaData metadata of the result set
+         * @param factory spreading constructor handle
+         * @param readers readers of the columns
+         * @param nullable {@code true} for each column whose parameter accepts {@code null}
+         * @throws SQLException if a database access error occurs
+         */
+        ConstructorBinding(ResultSetMetaData metaData, MethodHandle factory, ColumnReader[] readers,
+                        boolean[] nullable) throws SQLException {
+            super(metaData);
+            this.factory = factory;
+            this.readers = readers;
+            this.nullable = nullable;
+        }
+
+        @Override
+        Object map(ResultSet resultSet) throws Throwable {
+            Object[] args = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                Object value = readers[i].read(resultSet, i + 1);
+                if (nullable[i] && resultSet.wasNull()) {
+                    value = null;
+                }
+                args[i] = value;
+            }
+            return (Object) factory.invokeExact(args);
+        }
+    }
+
+    /**
+     * This enumeration defines the typed getters used to read column values for each supported target type.
+     */
+    private enum ColumnReader {
+        BOOLEAN {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getBoolean(index);
+            }
+        },
+        BYTE {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getByte(index);
+            }
+        },
+        SHORT {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getShort(index);
+            }
+        },
+        INT {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getInt(index);
+            }
+        },
+        LONG {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getLong(index);
+            }
+        },
+        FLOAT {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getFloat(index);
+            }
+        },
+        DOUBLE {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getDouble(index);
+            }
+        },
+        BIG_DECIMAL {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getBigDecimal(index);
+            }
+        },
+        STRING {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getString(index);
+            }
+        },
+        BYTES {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getBytes(index);
+            }
+        },
+        DATE {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getDate(index);
+            }
+        },
+        TIME {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getTime(index);
+            }
+        },
+        TIMESTAMP {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getTimestamp(index);
+            }
+        },
+        OBJECT {
+            @Override
+            Object read(ResultSet resultSet, int index) throws SQLException {
+                return resultSet.getObject(index);
+            }
+        };
+
+        private static final Map<Class<?>, ColumnReader> READERS = new HashMap<>();
+
+        static {
+            READERS.put(boolean.class, BOOLEAN);
+            READERS.put(Boolean.class, BOOLEAN);
+            READERS.put(byte.class, BYTE);
+            READERS.put(Byte.class, BYTE);
+            READERS.put(short.class, SHORT);
+            READERS.put(Short.class, SHORT);
+            READERS.put(int.class, INT);
+            READERS.put(Integer.class, INT);
+            READERS.put(long.class, LONG);
+            READERS.put(Long.class, LONG);
+            READERS.put(float.class, FLOAT);
+            READERS.put(Float.class, FLOAT);
+            READERS.put(double.class, DOUBLE);
+            READERS.put(Double.class, DOUBLE);
+            READERS.put(BigDecimal.class, BIG_DECIMAL);
+            READERS.put(String.class, STRING);
+            READERS.put(byte[].class, BYTES);
+            READERS.put(java.sql.Date.class, DATE);
+            READERS.put(java.sql.Time.class, TIME);
+            READERS.put(java.sql.Timestamp.class, TIMESTAMP);
+            READERS.put(java.util.Date.class, TIMESTAMP);
+        }
+
+        /**
+         * Read the value of the specified column of the current row.
+         *
+         * @param resultSet {@link ResultSet} positioned at the row to be read
+         * @param index column index (1-based)
+         * @return column value
+         * @throws SQLException if a database access error occurs
+         */
+        abstract Object read(ResultSet resultSet, int index) throws SQLException;
+
+        /**
+         * Get the column reader for the specified target type.
+         *
+         * @param type target type
+         * @return column reader for the specified type
+         */
+        static ColumnReader forType(Class<?> type) {
+            ColumnReader reader = READERS.get(type);
+            return (reader != null) ? reader : OBJECT;
+        }
+    }
+}
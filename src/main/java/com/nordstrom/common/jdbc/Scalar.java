@@ -0,0 +1,137 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.CallableStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * This class is an immutable holder for a primitive scalar result, read without boxing from row 1 / column 1 of a
+ * result set or from parameter 1 of a stored procedure call. A result that's absent (no row was returned, or the value
+ * is SQL NULL) is represented by a shared instance, so callers supply their own default instead of a sentinel.
+ * <p>
+ * Scalar results are requested by passing one of the marker classes {@link OfLong}, {@link OfDouble}, or {@link
+ * OfBoolean} as the result type of an execution.
+ */
+final class Scalar {
+
+    private static final Scalar ABSENT = new Scalar(false, 0, 0);
+
+    private final boolean present;
+    private final long longValue;
+    private final double doubleValue;
+
+    /**
+     * Constructor for a scalar result object
+     *
+     * @param present {@code true} if a value is present
+     * @param longValue value as a {@code long} (1 or 0 for {@code boolean} values)
+     * @param doubleValue value as a {@code double}
+     */
+    private Scalar(boolean present, long longValue, double doubleValue) {
+        this.present = present;
+        this.longValue = longValue;
+        this.doubleValue = doubleValue;
+    }
+
+    /**
+     * Determine if the specified result type requests a scalar result.
+     *
+     * @param resultType desired result type
+     * @return {@code true} if the result type is a scalar marker class; otherwise {@code false}
+     */
+    static boolean isScalarType(Class<?> resultType) {
+        return (resultType == OfLong.class) || (resultType == OfDouble.class) || (resultType == OfBoolean.class);
+    }
+
+    /**
+     * Read the scalar of the indicated type from row 1 / column 1 of the specified result set.
+     *
+     * @param resultSet result set, positioned on its first row if it has one
+     * @param type scalar marker class
+     * @param hasRow {@code true} if the result set is positioned on a row
+     * @return scalar result
+     * @throws SQLException if a database access error occurs
+     */
+    static Scalar read(ResultSet resultSet, Class<?> type, boolean hasRow) throws SQLException {
+        if (!hasRow) {
+            return ABSENT;
+        }
+        if (type == OfDouble.class) {
+            double value = resultSet.getDouble(1);
+            return resultSet.wasNull() ? ABSENT : new Scalar(true, 0, value);
+        }
+        long value = (type == OfBoolean.class) ? (resultSet.getBoolean(1) ? 1 : 0) : resultSet.getLong(1);
+        return resultSet.wasNull() ? ABSENT : new Scalar(true, value, 0);
+    }
+
+    /**
+     * Read the scalar of the indicated type from parameter 1 of the specified stored procedure call.
+     *
+     * @param statement executed stored procedure call
+     * @param type scalar marker class
+     * @return scalar result
+     * @throws SQLException if a database access error occurs
+     */
+    static Scalar read(CallableStatement statement, Class<?> type) throws SQLException {
+        if (type == OfDouble.class) {
+            double value = statement.getDouble(1);
+            return statement.wasNull() ? ABSENT : new Scalar(true, 0, value);
+        }
+        long value = (type == OfBoolean.class) ? (statement.getBoolean(1) ? 1 : 0) : statement.getLong(1);
+        return statement.wasNull() ? ABSENT : new Scalar(true, value, 0);
+    }
+
+    /**
+     * Get the {@code long} value of this result.
+     *
+     * @param defaultValue value to return if this result is absent
+     * @return result value; the specified default if absent
+     */
+    long getLong(long defaultValue) {
+        return present ? longValue : defaultValue;
+    }
+
+    /**
+     * Get the {@code double} value of this result.
+     *
+     * @param defaultValue value to return if this result is absent
+     * @return result value; the specified default if absent
+     */
+    double getDouble(double defaultValue) {
+        return present ? doubleValue : defaultValue;
+    }
+
+    /**
+     * Get the {@code boolean} value of this result.
+     *
+     * @param defaultValue value to return if this result is absent
+     * @return result value; the specified default if absent
+     */
+    boolean getBoolean(boolean defaultValue) {
+        return present ? (longValue != 0) : defaultValue;
+    }
+
+    /**
+     * This class marks requests for {@code long} scalar results.
+     */
+    static final class OfLong {
+        private OfLong() {
+        }
+    }
+
+    /**
+     * This class marks requests for {@code double} scalar results.
+     */
+    static final class OfDouble {
+        private OfDouble() {
+        }
+    }
+
+    /**
+     * This class marks requests for {@code boolean} scalar results.
+     */
+    static final class OfBoolean {
+        private OfBoolean() {
+        }
+    }
+}
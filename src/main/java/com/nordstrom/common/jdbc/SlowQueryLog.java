@@ -0,0 +1,444 @@
+package com.nordstrom.common.jdbc;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+
+/**
+ * This execution listener writes a record of each query or stored procedure execution that takes longer than its
+ * threshold to a rolling log file. Each record includes the constant name, SQL text, bind arguments, connection
+ * acquire and statement execution times, and row count. Arguments whose names (as declared by {@link
+ * QueryAPI#getArgNames()}) are designated as sensitive are masked.
+ * <p>
+ * Records are queued and written by a daemon thread, so executing threads never block on file I/O. If the queue is
+ * full, records are dropped and counted. When the log file reaches its size limit, it's renamed with suffix
+ * <b>.1</b> (shifting older files to <b>.2</b>, <b>.3</b>, etc.) and a new file is started.
+ * <p>
+ * A slow-query log is installed automatically when the {@value #THRESHOLD_PROPERTY} system property specifies a
+ * positive threshold, with settings drawn from the following system properties:
+ * <ul>
+ * <li>{@value #FILE_PROPERTY} - path of the log file (default: {@value #DEFAULT_FILE})</li>
+ * <li>{@value #MAX_FILE_BYTES_PROPERTY} - size at which the log file is rolled (default: {@value
+ *     #DEFAULT_MAX_FILE_BYTES})</li>
+ * <li>{@value #MAX_FILES_PROPERTY} - number of rolled files retained (default: {@value #DEFAULT_MAX_FILES})</li>
+ * <li>{@value #MASKED_ARGS_PROPERTY} - comma-separated names of sensitive arguments (default: {@value
+ *     #DEFAULT_MASKED_ARGS})</li>
+ * </ul>
+ * Per-constant thresholds can be set with {@link #setThreshold(QueryAPI, long)} and {@link #setThreshold(SProcAPI,
+ * long)}.
+ */
+public final class SlowQueryLog implements ExecutionListener, AutoCloseable {
+
+    /** system property: global threshold (mS) */
+    public static final String THRESHOLD_PROPERTY = "java-utils.jdbc.slowQuery.thresholdMillis";
+    /** system property: log file path */
+    public static final String FILE_PROPERTY = "java-utils.jdbc.slowQuery.file";
+    /** system property: log file size limit (bytes) */
+    public static final String MAX_FILE_BYTES_PROPERTY = "java-utils.jdbc.slowQuery.maxFileBytes";
+    /** system property: rolled files retained */
+    public static final String MAX_FILES_PROPERTY = "java-utils.jdbc.slowQuery.maxFiles";
+    /** system property: sensitive argument names */
+    public static final String MASKED_ARGS_PROPERTY = "java-utils.jdbc.slowQuery.maskedArgs";
+
+    /** default log file path */
+    public static final String DEFAULT_FILE = "slow-query.log";
+    /** default log file size limit (bytes) */
+    public static final long DEFAULT_MAX_FILE_BYTES = 10485760L;
+    /** default rolled files retained */
+    public static final int DEFAULT_MAX_FILES = 5;
+    /** default sensitive argument names */
+    public static final String DEFAULT_MASKED_ARGS = "password,passwd,pwd,secret,token";
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final int MAX_VALUE_LENGTH = 100;
+    private static final String MASK = "***";
+    private static final String STOP = new String("STOP");
+
+    private final Path file;
+    private final long thresholdNanos;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final Set<String> maskedArgs = new HashSet<>();
+    private final ConcurrentMap<Enum<?>, Long> thresholds = new ConcurrentHashMap<>();
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+
+    /**
+     * Constructor for a slow-query log object
+     *
+     * @param file path of the log file
+     * @param thresholdMillis global threshold (mS); 0 to log only constants with their own thresholds
+     * @param maxFileBytes size at which the log file is rolled
+     * @param maxFiles number of rolled files retained
+     * @param maskedArgs names of sensitive arguments (case-insensitive)
+     */
+    public SlowQueryLog(Path file, long thresholdMillis, long maxFileBytes, int maxFiles, String... maskedArgs) {
+        if (maxFileBytes <= 0) {
+            throw new IllegalArgumentException("Maximum file size must be positive; specified: " + maxFileBytes);
+        }
+        if (maxFiles < 0) {
+            throw new IllegalArgumentException("Maximum file count must be non-negative; specified: " + maxFiles);
+        }
+        this.file = file.toAbsolutePath();
+        this.thresholdNanos = (thresholdMillis > 0) ? TimeUnit.MILLISECONDS.toNanos(thresholdMillis) : Long.MAX_VALUE;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        for (String name : maskedArgs) {
+            this.maskedArgs.add(name.trim().toLowerCase(Locale.ROOT));
+        }
+        writer = new Thread(new LogWriter(), "DatabaseUtils-slow-query-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Create a slow-query log as specified by system properties.
+     *
+     * @return new slow-query log; {@code null} if no positive global threshold is specified
+     */
+    static SlowQueryLog fromProperties() {
+        long thresholdMillis = Long.getLong(THRESHOLD_PROPERTY, 0L);
+        if (thresholdMillis <= 0) {
+            return null;
+        }
+        return new SlowQueryLog(Paths.get(System.getProperty(FILE_PROPERTY, DEFAULT_FILE)), thresholdMillis,
+                        Long.getLong(MAX_FILE_BYTES_PROPERTY, DEFAULT_MAX_FILE_BYTES),
+                        Integer.getInteger(MAX_FILES_PROPERTY, DEFAULT_MAX_FILES),
+                        System.getProperty(MASKED_ARGS_PROPERTY, DEFAULT_MASKED_ARGS).split(","));
+    }
+
+    /**
+     * Set the threshold of the specified query object, overriding the global threshold.
+     *
+     * @param query query object
+     * @param thresholdMillis threshold (mS)
+     * @return this slow-query log
+     */
+    public SlowQueryLog setThreshold(QueryAPI query, long thresholdMillis) {
+        thresholds.put(query.getEnum(), TimeUnit.MILLISECONDS.toNanos(thresholdMillis));
+        return this;
+    }
+
+    /**
+     * Set the threshold of the specified stored procedure object, overriding the global threshold.
+     *
+     * @param sproc stored procedure object
+     * @param thresholdMillis threshold (mS)
+     * @return this slow-query log
+     */
+    public SlowQueryLog setThreshold(SProcAPI sproc, long thresholdMillis) {
+        thresholds.put(sproc.getEnum(), TimeUnit.MILLISECONDS.toNanos(thresholdMillis));
+        return this;
+    }
+
+    /**
+     * Get the path of the log file.
+     *
+     * @return log file path
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the number of records dropped because the queue was full.
+     *
+     * @return dropped record count
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void beforeExecution(Execution execution) {
+        // nothing to do here
+    }
+
+    @Override
+    public void afterExecution(Execution execution) {
+        if (isSlow(execution)) {
+            enqueue(format(execution, null));
+        }
+    }
+
+    @Override
+    public void onFailure(Execution execution, Throwable thrown) {
+        if (isSlow(execution)) {
+            enqueue(format(execution, thrown));
+        }
+    }
+
+    /**
+     * Write queued records and stop the writer thread. Records submitted after this log is closed are dropped.
+     */
+    @Override
+    public void close() {
+        try {
+            queue.put(STOP);
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Determine if the specified execution exceeded its threshold.
+     *
+     * @param execution {@link Execution} object
+     * @return {@code true} if the execution was slow; otherwise {@code false}
+     */
+    private boolean isSlow(Execution execution) {
+        long threshold = thresholdNanos;
+        if (!thresholds.isEmpty() && (execution.getConstant() != null)) {
+            Long override = thresholds.get(execution.getConstant());
+            if (override != null) {
+                threshold = override.longValue();
+            }
+        }
+        return (execution.getAcquireNanos() + execution.getExecuteNanos()) >= threshold;
+    }
+
+    /**
+     * Queue the specified record for writing, dropping it if the queue is full.
+     *
+     * @param record log record
+     */
+    private void enqueue(String record) {
+        if (!writer.isAlive() || !queue.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Format the log record for the specified execution. The timestamp is prepended by the writer thread.
+     *
+     * @param execution {@link Execution} object
+     * @param thrown exception that caused the execution to fail; {@code null} if it succeeded
+     * @return log record
+     */
+    private String format(Execution execution, Throwable thrown) {
+        StringBuilder record = new StringBuilder(256);
+        record.append(System.currentTimeMillis()).append(' ');
+        record.append("constant=").append(execution.getName());
+        record.append(" total=").append(toMillis(execution.getAcquireNanos() + execution.getExecuteNanos()));
+        record.append("ms acquire=").append(toMillis(execution.getAcquireNanos()));
+        record.append("ms execute=").append(toMillis(execution.getExecuteNanos()));
+        record.append("ms rows=").append(execution.getRowCount());
+        if (thrown != null) {
+            record.append(" error=\"").append(thrown).append('"');
+        }
+        record.append(" sql=\"").append(execution.getSql()).append('"');
+        appendArgs(record, execution);
+        return record.toString();
+    }
+
+    /**
+     * Append the bind arguments of the specified execution to the indicated record, masking sensitive arguments.
+     *
+     * @param record log record
+     * @param execution {@link Execution} object
+     */
+    private void appendArgs(StringBuilder record, Execution execution) {
+        Object[] args = execution.getArgs();
+        String[] names = null;
+        if (execution.getConstant() instanceof QueryAPI) {
+            names = ((QueryAPI) execution.getConstant()).getArgNames();
+        }
+        record.append(" args=[");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) record.append(", ");
+            if ((names != null) && (i < names.length) && maskedArgs.contains(names[i].toLowerCase(Locale.ROOT))) {
+                record.append(MASK);
+            } else {
+                appendValue(record, args[i]);
+            }
+        }
+        record.append(']');
+    }
+
+    /**
+     * Append the specified argument value to the indicated record, abbreviating long values.
+     *
+     * @param record log record
+     * @param value argument value
+     */
+    private static void appendValue(StringBuilder record, Object value) {
+        if (value instanceof Param) {
+            Param param = (Param) value;
+            if (!param.isInput()) {
+                record.append("OUT");
+                return;
+            }
+            value = param.getInValue();
+        }
+        if (value instanceof byte[]) {
+            record.append("byte[").append(((byte[]) value).length).append(']');
+            return;
+        }
+        String text = String.valueOf(value);
+        if (text.length() > MAX_VALUE_LENGTH) {
+            record.append(text, 0, MAX_VALUE_LENGTH).append("...");
+        } else {
+            record.append(text);
+        }
+    }
+
+    /**
+     * Convert the specified duration to milliseconds with microsecond resolution.
+     *
+     * @param nanos duration (nS)
+     * @return duration (mS)
+     */
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000000.0);
+    }
+
+    /**
+     * This runnable writes queued records to the log file, rolling the file when it reaches its size limit.
+     */
+    private class LogWriter implements Runnable {
+
+        private final SimpleDateFormat timestamp = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.ROOT);
+        private Writer out;
+        private long size;
+
+        LogWriter() {
+            timestamp.setTimeZone(TimeZone.getTimeZone("UTC"));
+        }
+
+        @Override
+        public void run() {
+            try {
+                String record;
+                while ((record = queue.take()) != STOP) {
+                    write(record);
+                    if (queue.isEmpty()) {
+                        flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                closeWriter();
+            }
+        }
+
+        /**
+         * Write the specified record, replacing its epoch time prefix with a formatted timestamp.
+         *
+         * @param record log record
+         */
+        private void write(String record) {
+            int split = record.indexOf(' ');
+            String line = timestamp.format(new Date(Long.parseLong(record.substring(0, split))))
+                            + record.substring(split) + System.lineSeparator();
+            try {
+                if (out == null) {
+                    open();
+                }
+                out.write(line);
+                size += line.length();
+                if (size >= maxFileBytes) {
+                    closeWriter();
+                    roll();
+                }
+            } catch (IOException e) {
+                dropped.incrementAndGet();
+                closeWriter();
+            }
+        }
+
+        /**
+         * Open the log file for appending.
+         *
+         * @throws IOException if the file can't be opened
+         */
+        private void open() throws IOException {
+            Path parent = file.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            size = Files.exists(file) ? Files.size(file) : 0;
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                            StandardOpenOption.APPEND);
+        }
+
+        /**
+         * Roll the log file, shifting previously rolled files and discarding the oldest.
+         *
+         * @throws IOException if a file can't be renamed or deleted
+         */
+        private void roll() throws IOException {
+            if (maxFiles == 0) {
+                Files.deleteIfExists(file);
+                return;
+            }
+            Files.deleteIfExists(rolled(maxFiles));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path source = rolled(i);
+                if (Files.exists(source)) {
+                    Files.move(source, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        /**
+         * Get the path of the rolled file with the specified index.
+         *
+         * @param index rolled file index
+         * @return rolled file path
+         */
+        private Path rolled(int index) {
+            return file.resolveSibling(file.getFileName() + "." + index);
+        }
+
+        /**
+         * Flush buffered records to the log file.
+         */
+        private void flush() {
+            if (out != null) {
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    closeWriter();
+                }
+            }
+        }
+
+        /**
+         * Close the log file.
+         */
+        private void closeWriter() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    // Suppress shutdown failures
+                }
+                out = null;
+            }
+        }
+    }
+}
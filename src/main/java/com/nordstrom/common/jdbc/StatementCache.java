@@ -0,0 +1,199 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class implements a least-recently-used cache of prepared statements for a single pooled connection. Statements
+ * are keyed by SQL text and statement kind (prepared or callable).
+ * <p>
+ * Statements are checked out of the cache while in use and checked back in by {@link #release(PreparedStatement)}.
+ * If a statement is requested while another statement with the same key is checked out, a new statement is prepared;
+ * when both are released, only one of them is retained.
+ */
+final class StatementCache {
+
+    private final int capacity;
+    private final AtomicLong poolHits;
+    private final AtomicLong poolMisses;
+    private final Map<Key, PreparedStatement> statements;
+    private final Map<PreparedStatement, Key> checkedOut = new IdentityHashMap<>();
+
+    /**
+     * Constructor for a statement cache object
+     *
+     * @param capacity maximum number of cached statements (0 disables caching)
+     * @param poolHits pool-wide cache hit counter
+     * @param poolMisses pool-wide cache miss counter
+     */
+    StatementCache(final int capacity, AtomicLong poolHits, AtomicLong poolMisses) {
+        this.capacity = capacity;
+        this.poolHits = poolHits;
+        this.poolMisses = poolMisses;
+        this.statements = new LinkedHashMap<Key, PreparedStatement>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() > capacity) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a prepared statement for the specified SQL text, preparing a new one if none is cached.
+     *
+     * @param connection connection that owns this cache
+     * @param sql a SQL statement that may contain one or more '?' IN parameter placeholders
+     * @return {@link PreparedStatement} object
+     * @throws SQLException if a database access error occurs
+     */
+    synchronized PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException {
+        Key key = new Key(sql, false);
+        PreparedStatement statement = checkOut(key);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            checkedOut.put(statement, key);
+        }
+        return statement;
+    }
+
+    /**
+     * Get a callable statement for the specified SQL text, preparing a new one if none is cached.
+     *
+     * @param connection connection that owns this cache
+     * @param sql an SQL statement that may contain one or more '?' parameter placeholders
+     * @return {@link CallableStatement} object
+     * @throws SQLException if a database access error occurs
+     */
+    synchronized CallableStatement prepareCall(Connection connection, String sql) throws SQLException {
+        Key key = new Key(sql, true);
+        PreparedStatement statement = checkOut(key);
+        if (statement == null) {
+            statement = connection.prepareCall(sql);
+            checkedOut.put(statement, key);
+        }
+        return (CallableStatement) statement;
+    }
+
+    /**
+     * Check the specified statement back into this cache. If caching is disabled, the statement was closed by the
+     * client, or another statement with the same key has already been checked in, the statement is closed.
+     *
+     * @param statement statement acquired from this cache
+     */
+    synchronized void release(PreparedStatement statement) {
+        Key key = checkedOut.remove(statement);
+        try {
+            if ((key != null) && (capacity > 0) && !statement.isClosed() && !statements.containsKey(key)) {
+                statement.clearParameters();
+                statements.put(key, statement);
+                return;
+            }
+        } catch (SQLException e) {
+            // fall through to close
+        }
+        closeQuietly(statement);
+    }
+
+    /**
+     * Close the specified statement instead of checking it back into this cache.
+     *
+     * @param statement statement acquired from this cache
+     */
+    synchronized void discard(PreparedStatement statement) {
+        checkedOut.remove(statement);
+        closeQuietly(statement);
+    }
+
+    /**
+     * Close all cached statements.
+     */
+    synchronized void clear() {
+        Iterator<PreparedStatement> iterator = statements.values().iterator();
+        while (iterator.hasNext()) {
+            closeQuietly(iterator.next());
+            iterator.remove();
+        }
+        checkedOut.clear();
+    }
+
+    /**
+     * Get the number of statements currently held by this cache.
+     *
+     * @return cached statement count
+     */
+    synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * Remove the statement with the specified key from this cache, recording a hit or miss.
+     *
+     * @param key statement key
+     * @return cached statement; {@code null} if none was found
+     */
+    private PreparedStatement checkOut(Key key) {
+        PreparedStatement statement = statements.remove(key);
+        if (statement != null) {
+            poolHits.incrementAndGet();
+            checkedOut.put(statement, key);
+        } else {
+            poolMisses.incrementAndGet();
+        }
+        return statement;
+    }
+
+    /**
+     * Close the specified statement, suppressing failures.
+     *
+     * @param statement statement to be closed
+     */
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // Suppress shutdown failures
+        }
+    }
+
+    /**
+     * This class defines the key of a cached statement: SQL text and statement kind.
+     */
+    private static final class Key {
+
+        private final String sql;
+        private final boolean callable;
+        private final int hash;
+
+        Key(String sql, boolean callable) {
+            this.sql = sql;
+            this.callable = callable;
+            this.hash = (sql.hashCode() * 31) + (callable ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key that = (Key) obj;
+            return (callable == that.callable) && sql.equals(that.sql);
+        }
+    }
+}
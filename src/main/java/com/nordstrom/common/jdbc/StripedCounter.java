@@ -0,0 +1,69 @@
+package com.nordstrom.common.jdbc;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class implements a low-contention counter. Updates are spread across cells selected by thread ID, with each
+ * cell on its own cache line, so concurrent updates rarely contend. Reads sum the cells.
+ */
+final class StripedCounter {
+
+    /** longs per cell (one 64-byte cache line) */
+    private static final int PADDING = 8;
+    /** maximum number of cells */
+    private static final int MAX_STRIPES = 64;
+
+    private static final int STRIPES = stripeCount();
+    private static final int MASK = STRIPES - 1;
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    /**
+     * Add the specified value to this counter.
+     *
+     * @param value value to add
+     */
+    void add(long value) {
+        cells.getAndAdd(index(), value);
+    }
+
+    /**
+     * Increment this counter.
+     */
+    void increment() {
+        cells.getAndIncrement(index());
+    }
+
+    /**
+     * Get the current value of this counter.
+     *
+     * @return sum of all cells
+     */
+    long sum() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    /**
+     * Get the index of the cell updated by the current thread.
+     *
+     * @return cell index
+     */
+    private static int index() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id ^ (id >>> 16)) & MASK) * PADDING;
+    }
+
+    /**
+     * Get the number of cells: the smallest power of two not less than the number of available processors.
+     *
+     * @return cell count
+     */
+    private static int stripeCount() {
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES);
+        return Integer.highestOneBit(Math.max(processors * 2 - 1, 1));
+    }
+}
@@ -0,0 +1,432 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.nordstrom.common.base.UncheckedThrow;
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+import com.nordstrom.common.jdbc.DatabaseUtils.ResultPackage;
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+
+/**
+ * This class defines a transaction scope that executes query and stored procedure objects on a single pooled
+ * connection. The connection is borrowed from its pool when the transaction begins, runs with auto-commit disabled,
+ * and is returned to its pool when the transaction is closed. Work that hasn't been committed when the transaction is
+ * closed is rolled back.
+ * <pre>
+ * try (Transaction txn = DatabaseUtils.beginTransaction(connectionStr)) {
+ *     txn.update(OpctValues.UPDATE_USER_ROLE, userId, roleId);
+ *     Savepoint savepoint = txn.setSavepoint();
+ *     ...
+ *     txn.commit();
+ * }
+ * </pre>
+ * <b>NOTE</b>: Every query and stored procedure object executed by a transaction must specify the connection string
+ * with which the transaction was begun. Instances of this class are not thread-safe.
+ */
+public final class Transaction implements AutoCloseable {
+
+    private final String connectionStr;
+    private final boolean readOnly;
+    private final List<InvalidatingQueryAPI> writers = new ArrayList<>();
+    private PooledConnection connection;
+
+    /**
+     * Constructor for a transaction object
+     *
+     * @param connection pooled database connection
+     * @param connectionStr database connection string
+     * @param readOnly {@code true} to place the connection in read-only mode
+     */
+    Transaction(PooledConnection connection, String connectionStr, boolean readOnly) {
+        try {
+            Connection conn = connection.getConnection();
+            conn.setAutoCommit(false);
+            if (readOnly) {
+                conn.setReadOnly(true);
+            }
+        } catch (SQLException e) {
+            connection.discard();
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+        connection.setPinned(true);
+        this.connection = connection;
+        this.connectionStr = connectionStr;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Get the connection string of the database on which this transaction operates.
+     *
+     * @return database connection string
+     */
+    public String getConnectionStr() {
+        return connectionStr;
+    }
+
+    /**
+     * Determine if this transaction is read-only.
+     *
+     * @return {@code true} if this transaction is read-only; otherwise {@code false}
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Execute the specified query object with supplied arguments as an 'update' operation
+     *
+     * @param query query object to execute
+     * @param queryArgs replacement values for query place-holders
+     * @return count of records updated
+     */
+    public int update(QueryAPI query, Object... queryArgs) {
+        Integer result = (Integer) executeQuery(null, query, queryArgs);
+        if (query instanceof InvalidatingQueryAPI) {
+            InvalidatingQueryAPI writer = (InvalidatingQueryAPI) query;
+            QueryCache.invalidate(writer);
+            writers.add(writer);
+        }
+        return (result != null) ? result.intValue() : -1;
+    }
+
+    /**
+     * Execute the specified query object with supplied arguments as a 'query' operation
+     *
+     * @param query query object to execute
+     * @param queryArgs replacement values for query place-holders
+     * @return row 1 / column 1 as integer; -1 if no rows were returned
+     */
+    public int getInt(QueryAPI query, Object... queryArgs) {
+        Integer result = (Integer) executeQuery(Integer.class, query, queryArgs);
+        return (result != null) ? result.intValue() : -1;
+    }
+
+    /**
+     * Execute the specified query object with supplied arguments as a 'query' operation
+     *
+     * @param query query object to execute
+     * @param queryArgs replacement values for query place-holders
+     * @return row 1 / column 1 as string; {@code null} if no rows were returned
+     */
+    public String getString(QueryAPI query, Object... queryArgs) {
+        return (String) executeQuery(String.class, query, queryArgs);
+    }
+
+    /**
+     * Execute the specified query object with supplied arguments as a 'query' operation
+     *
+     * @param query query object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param queryArgs replacement values for query place-holders
+     * @return row 1 / column 1 as long; the specified default if absent
+     */
+    public long getLong(QueryAPI query, long defaultValue, Object... queryArgs) {
+        return ((Scalar) executeQuery(Scalar.OfLong.class, query, queryArgs)).getLong(defaultValue);
+    }
+
+    /**
+     * Execute the specified query object with supplied arguments as a 'query' operation
+     *
+     * @param query query object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param queryArgs replacement values for query place-holders
+     * @return row 1 / column 1 as double; the specified default if absent
+     */
+    public double getDouble(QueryAPI query, double defaultValue, Object... queryArgs) {
+        return ((Scalar) executeQuery(Scalar.OfDouble.class, query, queryArgs)).getDouble(defaultValue);
+    }
+
+    /**
+     * Execute the specified query object with supplied arguments as a 'query' operation
+     *
+     * @param query query object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param queryArgs replacement values for query place-holders
+     * @return row 1 / column 1 as boolean; the specified default if absent
+     */
+    public boolean getBoolean(QueryAPI query, boolean defaultValue, Object... queryArgs) {
+        return ((Scalar) executeQuery(Scalar.OfBoolean.class, query, queryArgs)).getBoolean(defaultValue);
+    }
+
+    /**
+     * Execute the specified query object with supplied arguments as a 'query' operation
+     * <p>
+     * <b>NOTE</b>: Closing the returned package releases its statement, but leaves the connection with this
+     * transaction.
+     *
+     * @param query query object to execute
+     * @param queryArgs replacement values for query place-holders
+     * @return {@link ResultPackage} object
+     */
+    public ResultPackage getResultPackage(QueryAPI query, Object... queryArgs) {
+        return (ResultPackage) executeQuery(ResultPackage.class, query, queryArgs);
+    }
+
+    /**
+     * Execute the specified stored procedure object with supplied parameters
+     *
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return row 1 / column 1 as integer; -1 if no rows were returned
+     */
+    public int getInt(SProcAPI sproc, Object... params) {
+        Integer result = (Integer) executeStoredProcedure(Integer.class, sproc, params);
+        return (result != null) ? result.intValue() : -1;
+    }
+
+    /**
+     * Execute the specified stored procedure object with supplied parameters
+     *
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return row 1 / column 1 as string; {@code null} if no rows were returned
+     */
+    public String getString(SProcAPI sproc, Object... params) {
+        return (String) executeStoredProcedure(String.class, sproc, params);
+    }
+
+    /**
+     * Execute the specified stored procedure object with supplied parameters
+     *
+     * @param sproc stored procedure object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param params an array of objects containing the input parameter values
+     * @return row 1 / column 1 as long; the specified default if absent
+     */
+    public long getLong(SProcAPI sproc, long defaultValue, Object... params) {
+        return ((Scalar) executeStoredProcedure(Scalar.OfLong.class, sproc, params)).getLong(defaultValue);
+    }
+
+    /**
+     * Execute the specified stored procedure object with supplied parameters
+     *
+     * @param sproc stored procedure object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param params an array of objects containing the input parameter values
+     * @return row 1 / column 1 as double; the specified default if absent
+     */
+    public double getDouble(SProcAPI sproc, double defaultValue, Object... params) {
+        return ((Scalar) executeStoredProcedure(Scalar.OfDouble.class, sproc, params)).getDouble(defaultValue);
+    }
+
+    /**
+     * Execute the specified stored procedure object with supplied parameters
+     *
+     * @param sproc stored procedure object to execute
+     * @param defaultValue value to return if no rows were returned or the value is SQL NULL
+     * @param params an array of objects containing the input parameter values
+     * @return row 1 / column 1 as boolean; the specified default if absent
+     */
+    public boolean getBoolean(SProcAPI sproc, boolean defaultValue, Object... params) {
+        return ((Scalar) executeStoredProcedure(Scalar.OfBoolean.class, sproc, params)).getBoolean(defaultValue);
+    }
+
+    /**
+     * Execute the specified stored procedure object with supplied parameters
+     * <p>
+     * <b>NOTE</b>: Closing the returned package releases its statement, but leaves the connection with this
+     * transaction.
+     *
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return {@link ResultPackage} object
+     */
+    public ResultPackage getResultPackage(SProcAPI sproc, Object... params) {
+        return (ResultPackage) executeStoredProcedure(ResultPackage.class, sproc, params);
+    }
+
+    /**
+     * Execute the specified stored procedure object with supplied parameters, returning the values of its OUT and INOUT
+     * parameters.
+     *
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return {@link OutParams} object
+     */
+    public OutParams getOutParams(SProcAPI sproc, Object... params) {
+        return (OutParams) executeStoredProcedure(OutParams.class, sproc, params);
+    }
+
+    /**
+     * Set an unnamed savepoint in this transaction.
+     *
+     * @return new {@link Savepoint} object
+     */
+    public Savepoint setSavepoint() {
+        try {
+            return getConnection().setSavepoint();
+        } catch (SQLException e) {
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+    }
+
+    /**
+     * Set a savepoint with the specified name in this transaction.
+     *
+     * @param name savepoint name
+     * @return new {@link Savepoint} object
+     */
+    public Savepoint setSavepoint(String name) {
+        try {
+            return getConnection().setSavepoint(name);
+        } catch (SQLException e) {
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+    }
+
+    /**
+     * Undo all changes made in this transaction after the specified savepoint was set.
+     *
+     * @param savepoint {@link Savepoint} to roll back to
+     */
+    public void rollback(Savepoint savepoint) {
+        try {
+            getConnection().rollback(savepoint);
+        } catch (SQLException e) {
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+    }
+
+    /**
+     * Remove the specified savepoint from this transaction.
+     *
+     * @param savepoint {@link Savepoint} to remove
+     */
+    public void releaseSavepoint(Savepoint savepoint) {
+        try {
+            getConnection().releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+    }
+
+    /**
+     * Make all changes made in this transaction permanent. The transaction remains open for further work.
+     * <p>
+     * <b>NOTE</b>: Cached query results that depend on tables written by this transaction are evicted again after
+     * the commit, discarding any results cached by other connections before the changes became visible.
+     */
+    public void commit() {
+        try {
+            getConnection().commit();
+        } catch (SQLException e) {
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+        for (InvalidatingQueryAPI writer : writers) {
+            QueryCache.invalidate(writer);
+        }
+        writers.clear();
+    }
+
+    /**
+     * Undo all changes made in this transaction since the last commit. The transaction remains open for further work.
+     */
+    public void rollback() {
+        try {
+            getConnection().rollback();
+        } catch (SQLException e) {
+            throw UncheckedThrow.throwUnchecked(e);
+        }
+    }
+
+    /**
+     * Roll back uncommitted changes, restore the default connection settings, and return the connection of this
+     * transaction to its pool. If the connection can't be restored, it's discarded.
+     */
+    @Override
+    public void close() {
+        if (connection != null) {
+            PooledConnection pooled = connection;
+            connection = null;
+            pooled.setPinned(false);
+            try {
+                Connection conn = pooled.getConnection();
+                conn.rollback();
+                if (readOnly) {
+                    conn.setReadOnly(false);
+                }
+                conn.setAutoCommit(true);
+                pooled.release();
+            } catch (SQLException e) {
+                pooled.discard();
+            }
+        }
+    }
+
+    /**
+     * Execute the specified query object on the connection of this transaction.
+     *
+     * @param resultType desired result type; {@code null} for update operations
+     * @param query query object to execute
+     * @param queryArgs replacement values for query place-holders
+     * @return for update operations, the number of rows affected; for query operations, an object of the indicated type
+     */
+    private Object executeQuery(Class<?> resultType, QueryAPI query, Object... queryArgs) {
+        DatabaseUtils.checkArgCount(query, queryArgs);
+        checkConnectionStr(DatabaseUtils.connectionOf(query), query.getEnum());
+        PooledConnection pooled = getPooled();
+        Execution execution = new Execution(query.getEnum(), query.getQueryStr(), queryArgs);
+        execution.begin();
+        execution.acquired();
+        return DatabaseUtils.executeQuery(resultType, execution, pooled, 0);
+    }
+
+    /**
+     * Execute the specified stored procedure object on the connection of this transaction.
+     *
+     * @param resultType desired result type
+     * @param sproc stored procedure object to execute
+     * @param params an array of objects containing the input parameter values
+     * @return an object of the indicated type
+     */
+    private Object executeStoredProcedure(Class<?> resultType, SProcAPI sproc, Object... params) {
+        CallPlan plan = CallPlan.of(sproc);
+        Param[] parmArray = plan.toParams(params);
+        checkConnectionStr(DatabaseUtils.connectionOf(sproc), sproc.getEnum());
+        PooledConnection pooled = getPooled();
+        Execution execution = new Execution(sproc.getEnum(), plan.getCallStr(parmArray.length), parmArray);
+        execution.begin();
+        execution.acquired();
+        return DatabaseUtils.executeCall(resultType, execution, pooled, 0, parmArray);
+    }
+
+    /**
+     * Verify that the specified connection string matches the connection string of this transaction.
+     *
+     * @param connectionStr connection string of query or stored procedure object
+     * @param constant query or stored procedure enumerated constant
+     * @throws IllegalArgumentException if the connection strings differ
+     */
+    private void checkConnectionStr(String connectionStr, Enum<?> constant) {
+        if (!Objects.equals(connectionStr, this.connectionStr)) {
+            throw new IllegalArgumentException(
+                            "Connection of " + constant.name() + " differs from the connection of this transaction");
+        }
+    }
+
+    /**
+     * Get the pooled connection of this transaction.
+     *
+     * @return pooled database connection
+     * @throws IllegalStateException if this transaction has been closed
+     */
+    private PooledConnection getPooled() {
+        if (connection != null) return connection;
+        throw new IllegalStateException("This transaction has been closed");
+    }
+
+    /**
+     * Get the JDBC connection of this transaction.
+     *
+     * @return database connection
+     * @throws IllegalStateException if this transaction has been closed
+     */
+    private Connection getConnection() {
+        return getPooled().getConnection();
+    }
+}
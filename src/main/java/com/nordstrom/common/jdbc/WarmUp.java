@@ -0,0 +1,211 @@
+package com.nordstrom.common.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+
+/**
+ * This class validates query and stored procedure enumerations and warms up the connection pools and statement caches
+ * they use. Every constant is checked before any connection is opened, and all problems found are reported together.
+ */
+final class WarmUp {
+
+    private final Map<String, List<String>> statements = new LinkedHashMap<>();
+    private final List<String> problems = new ArrayList<>();
+    private SQLException firstFailure;
+
+    /**
+     * Validate the constants of the specified query enumeration and register their statements for preparation.
+     *
+     * @param type query enumeration
+     */
+    void addQueries(Class<?> type) {
+        for (Object constant : getConstants(type)) {
+            QueryAPI query = (QueryAPI) constant;
+            String name = type.getSimpleName() + "." + ((Enum<?>) constant).name();
+            try {
+                String queryStr = query.getQueryStr();
+                if ((queryStr == null) || queryStr.trim().isEmpty()) {
+                    problems.add(name + ": query string is empty");
+                    continue;
+                }
+                int placeholders = countPlaceholders(queryStr);
+                int argCount = query.getArgNames().length;
+                if (placeholders != argCount) {
+                    problems.add(String.format("%s: query has %d place-holders; %d argument names declared",
+                                    name, placeholders, argCount));
+                    continue;
+                }
+                if (query.getEnum() != constant) {
+                    problems.add(name + ": getEnum() doesn't return this constant");
+                    continue;
+                }
+                add(name, DatabaseUtils.connectionOf(query), queryStr);
+                ExecutionMetrics.metricsOf(query.getEnum());
+            } catch (RuntimeException e) {
+                problems.add(name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Validate the constants of the specified stored procedure enumeration and register their calls for preparation.
+     * For stored procedures that accept varargs, the call with the minimum parameter count is prepared.
+     *
+     * @param type stored procedure enumeration
+     */
+    void addProcedures(Class<?> type) {
+        for (Object constant : getConstants(type)) {
+            SProcAPI sproc = (SProcAPI) constant;
+            String name = type.getSimpleName() + "." + ((Enum<?>) constant).name();
+            try {
+                if (sproc.getEnum() != constant) {
+                    problems.add(name + ": getEnum() doesn't return this constant");
+                    continue;
+                }
+                CallPlan plan = CallPlan.of(sproc);
+                add(name, DatabaseUtils.connectionOf(sproc), plan.getCallStr(plan.getMinCount()));
+                ExecutionMetrics.metricsOf(sproc.getEnum());
+            } catch (RuntimeException e) {
+                problems.add(name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Open the connection pools of the registered statements and prepare each statement on every connection opened.
+     * Pools are filled to their minimum size, and at least one connection of each pool is warmed.
+     *
+     * @throws IllegalArgumentException if any constant failed validation or any statement failed to prepare
+     */
+    void run() {
+        checkProblems();
+        for (Map.Entry<String, List<String>> entry : statements.entrySet()) {
+            warm(ConnectionPool.getPool(entry.getKey()), entry.getValue());
+        }
+        checkProblems();
+    }
+
+    /**
+     * Prepare the specified statements on connections of the indicated pool.
+     *
+     * @param pool connection pool
+     * @param sqlStrs statements to prepare
+     */
+    private void warm(ConnectionPool pool, List<String> sqlStrs) {
+        List<PooledConnection> connections = new ArrayList<>();
+        try {
+            pool.fill();
+            int count = Math.max(1, pool.getMinSize());
+            for (int i = 0; i < count; i++) {
+                connections.add(pool.borrow());
+            }
+        } catch (SQLException e) {
+            fail("Failed to open connection for " + pool.getConnectionString(), e);
+        }
+
+        for (PooledConnection connection : connections) {
+            for (String sqlStr : sqlStrs) {
+                try {
+                    PreparedStatement statement = sqlStr.startsWith("{") ? connection.prepareCall(sqlStr)
+                                    : connection.prepareStatement(sqlStr);
+                    connection.releaseStatement(statement);
+                } catch (SQLException e) {
+                    if (connection == connections.get(0)) {
+                        fail("Failed to prepare [" + sqlStr + "]", e);
+                    }
+                }
+            }
+        }
+
+        for (PooledConnection connection : connections) {
+            connection.release();
+        }
+    }
+
+    /**
+     * Register the specified statement for preparation.
+     *
+     * @param name name of the constant that defines the statement
+     * @param connectionStr database connection string
+     * @param sqlStr statement to prepare
+     */
+    private void add(String name, String connectionStr, String sqlStr) {
+        if (connectionStr == null) {
+            problems.add(name + ": connection string is null");
+            return;
+        }
+        List<String> sqlStrs = statements.get(connectionStr);
+        if (sqlStrs == null) {
+            sqlStrs = new ArrayList<>();
+            statements.put(connectionStr, sqlStrs);
+        }
+        if (!sqlStrs.contains(sqlStr)) {
+            sqlStrs.add(sqlStr);
+        }
+    }
+
+    /**
+     * Record the specified database failure.
+     *
+     * @param message description of the failed operation
+     * @param e exception thrown by the operation
+     */
+    private void fail(String message, SQLException e) {
+        problems.add(message + ": " + e.getMessage() + " (SQLState: " + e.getSQLState() + ")");
+        if (firstFailure == null) {
+            firstFailure = e;
+        }
+    }
+
+    /**
+     * Throw an exception that reports all problems found so far.
+     *
+     * @throws IllegalArgumentException if any problems have been found
+     */
+    private void checkProblems() {
+        if (!problems.isEmpty()) {
+            StringBuilder builder = new StringBuilder("Warm-up found ").append(problems.size()).append(" problem(s):");
+            for (String problem : problems) {
+                builder.append("\n  ").append(problem);
+            }
+            throw new IllegalArgumentException(builder.toString(), firstFailure);
+        }
+    }
+
+    /**
+     * Get the constants of the specified enumeration.
+     *
+     * @param type enumeration
+     * @return array of enumerated constants
+     * @throws IllegalArgumentException if the specified type isn't an enumeration
+     */
+    private static Object[] getConstants(Class<?> type) {
+        Object[] constants = type.getEnumConstants();
+        if (constants == null) {
+            throw new IllegalArgumentException(type.getName() + " is not an enumeration");
+        }
+        return constants;
+    }
+
+    /**
+     * Count the '?' place-holders in the specified SQL statement, ignoring those in literals, quoted identifiers, and
+     * comments.
+     *
+     * @param sql SQL statement
+     * @return place-holder count
+     */
+    static int countPlaceholders(String sql) {
+        int count = 0;
+        for (int i = ListArgs.nextPlaceholder(sql, 0); i >= 0; i = ListArgs.nextPlaceholder(sql, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
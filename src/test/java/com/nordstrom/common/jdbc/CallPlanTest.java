@@ -0,0 +1,140 @@
+package com.nordstrom.common.jdbc;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.sql.Types;
+import org.testng.annotations.Test;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+import com.nordstrom.common.jdbc.Param.Mode;
+
+public class CallPlanTest {
+
+    @Test
+    public void testPlanIsCached() {
+        assertSame(CallPlan.of(PlanSProc.VARARGS), CallPlan.of(PlanSProc.VARARGS));
+    }
+
+    @Test
+    public void testVarargsPlan() {
+        CallPlan plan = CallPlan.of(PlanSProc.VARARGS);
+        assertEquals(plan.getSprocName(), "VARARGS");
+        assertTrue(plan.hasVarArgs());
+        assertEquals(plan.getMinCount(), 1);
+        assertEquals(plan.getMode(0), Mode.OUT);
+        assertEquals(plan.getMode(3), Mode.IN);
+        assertEquals(plan.getType(3), Types.INTEGER);
+        assertEquals(plan.getCallStr(1), "{call VARARGS(?)}");
+        assertEquals(plan.getCallStr(3), "{call VARARGS(?,?,?)}");
+        assertSame(plan.getCallStr(3), plan.getCallStr(3));
+    }
+
+    @Test
+    public void testToParams() {
+        Param[] params = CallPlan.of(PlanSProc.VARARGS).toParams("", 1, 2);
+        assertEquals(params.length, 3);
+        assertTrue(params[0].isOutput());
+        assertEquals(params[2].getInValue(), 2);
+    }
+
+    @Test(expectedExceptions = {IllegalArgumentException.class},
+                    expectedExceptionsMessageRegExp = "Incorrect arguments count for FIXED.*")
+    public void testParamCount() {
+        CallPlan.of(PlanSProc.FIXED).toParams(1);
+    }
+
+    @Test(expectedExceptions = {IllegalArgumentException.class},
+                    expectedExceptionsMessageRegExp = "Unsupported stored procedure signature for MALFORMED.*")
+    public void testMalformedSignature() {
+        CallPlan.of(PlanSProc.MALFORMED);
+    }
+
+    @Test
+    public void testPaddedVarargs() {
+        CallPlan plan = CallPlan.of(PaddedSProc.PADDED);
+        assertEquals(plan.toParams(7).length, 1);
+        assertEquals(plan.toParams(7, 1).length, 2);
+        assertEquals(plan.toParams(7, 1, 2).length, 3);
+        Param[] params = plan.toParams(7, 1, 2, 3, 4);
+        assertEquals(params.length, 5);
+        assertEquals(params[4].getInValue(), 4);
+        params = plan.toParams(7, 1, 2, 3, 4, 5);
+        assertEquals(params.length, 9);
+        assertEquals(params[8].getInValue(), 5);
+    }
+
+    @Test(expectedExceptions = {IllegalArgumentException.class},
+                    expectedExceptionsMessageRegExp = "Padded varargs must be IN parameters for OUT_VARARGS.*")
+    public void testPaddedOutputVarargs() {
+        CallPlan.of(PaddedSProc.OUT_VARARGS);
+    }
+
+    enum PlanSProc implements SProcAPI {
+        VARARGS("VARARGS(<, >:)", Types.VARCHAR, Types.INTEGER),
+        FIXED("FIXED(>, =)", Types.INTEGER, Types.INTEGER),
+        MALFORMED("MALFORMED(?)", Types.INTEGER);
+
+        private int[] argTypes;
+        private String signature;
+
+        PlanSProc(String signature, int... argTypes) {
+            this.signature = signature;
+            this.argTypes = argTypes;
+        }
+
+        @Override
+        public String getSignature() {
+            return signature;
+        }
+
+        @Override
+        public int[] getArgTypes() {
+            return argTypes;
+        }
+
+        @Override
+        public String getConnection() {
+            return null;
+        }
+
+        @Override
+        public Enum<? extends SProcAPI> getEnum() {
+            return this;
+        }
+    }
+
+    enum PaddedSProc implements SProcAPI, PaddedVarArgsAPI {
+        PADDED("PADDED(>, >:)", Types.INTEGER, Types.INTEGER),
+        OUT_VARARGS("OUT_VARARGS(>, <:)", Types.INTEGER, Types.INTEGER);
+
+        private int[] argTypes;
+        private String signature;
+
+        PaddedSProc(String signature, int... argTypes) {
+            this.signature = signature;
+            this.argTypes = argTypes;
+        }
+
+        @Override
+        public String getSignature() {
+            return signature;
+        }
+
+        @Override
+        public int[] getArgTypes() {
+            return argTypes;
+        }
+
+        @Override
+        public String getConnection() {
+            return null;
+        }
+
+        @Override
+        public Enum<? extends SProcAPI> getEnum() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.nordstrom.common.jdbc;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.derby.jdbc.EmbeddedDataSource;
+import org.testng.annotations.Test;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+
+public class DataSourcesTest {
+
+    @Test
+    public void testDataSourceResolution() throws SQLException {
+        EmbeddedDataSource dataSource = new EmbeddedDataSource();
+        dataSource.setDatabaseName("memory:DsDB");
+        dataSource.setCreateDatabase("create");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table marker (id int)");
+        }
+
+        assertEquals(DatabaseUtils.getInt(DsQuery.MARKER), 0);
+
+        DataSources.register("main", dataSource);
+        try {
+            assertSame(DataSources.get("main"), dataSource);
+            assertEquals(DatabaseUtils.getInt(DsQuery.MARKER), 1);
+            ConnectionPool pool = ConnectionPool.getPool(DataSources.getConnectionStr("main"));
+            assertEquals(pool.getIdleCount(), 0);
+        } finally {
+            assertSame(DataSources.unregister("main"), dataSource);
+        }
+
+        assertEquals(DatabaseUtils.getInt(DsQuery.MARKER), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnregisteredPool() {
+        ConnectionPool.getPool(DataSources.getConnectionStr("missing"));
+    }
+
+    enum DsQuery implements QueryAPI, DataSourceAPI {
+        MARKER("select count(*) from sys.systables where tablename='MARKER'");
+
+        private String query;
+
+        DsQuery(String query) {
+            this.query = query;
+        }
+
+        @Override
+        public String getQueryStr() {
+            return query;
+        }
+
+        @Override
+        public String[] getArgNames() {
+            return new String[0];
+        }
+
+        @Override
+        public String getConnection() {
+            return "jdbc:derby:memory:FallbackDB;create=true";
+        }
+
+        @Override
+        public Enum<DsQuery> getEnum() {
+            return this;
+        }
+
+        @Override
+        public String getDataSourceName() {
+            return "main";
+        }
+    }
+}
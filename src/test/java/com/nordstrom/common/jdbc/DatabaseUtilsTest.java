@@ -1,16 +1,37 @@
 package com.nordstrom.common.jdbc;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
 import com.nordstrom.common.jdbc.DatabaseUtils.ResultPackage;
 import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
@@ -41,6 +62,7 @@ public class DatabaseUtilsTest {
     
     @AfterClass
     public static void stopDerby() {
+        ConnectionPool.closeAll();
         Connection conn = null;
         try {
             conn = DriverManager.getConnection(TestQuery.connection() + ";shutdown=true");
@@ -121,11 +143,494 @@ public class DatabaseUtilsTest {
         pkg.close();
     }
     
-    @Test(dependsOnMethods={"getResultPackage"}, alwaysRun=true)
+    @Test(dependsOnMethods={"getResultPackage"})
+    public void iterateRows() {
+        ConnectionPool pool = ConnectionPool.getPool(TestQuery.connection());
+        List<String> addresses = new ArrayList<>();
+        
+        RowIterator<String> rows = DatabaseUtils.iterate(TestQuery.GET_RESULT_PACKAGE, 1, new RowMapper<String>() {
+            @Override
+            public String mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+                return rowNum + ":" + resultSet.getString("addr");
+            }
+        });
+        
+        for (String address : rows) {
+            addresses.add(address);
+        }
+        
+        assertEquals(addresses.size(), 2);
+        assertTrue(addresses.get(0).startsWith("1:"));
+        assertEquals(pool.getActiveCount(), 0);
+    }
+    
+    @Test(dependsOnMethods={"iterateRows"})
+    public void mapRows() {
+        RowMapper<Location> beanMapper = RowMappers.forBean(TestQuery.GET_RESULT_PACKAGE, Location.class);
+        assertSame(RowMappers.forBean(TestQuery.GET_RESULT_PACKAGE, Location.class), beanMapper);
+        
+        int total = 0;
+        for (Location location : DatabaseUtils.iterate(TestQuery.GET_RESULT_PACKAGE, 0, beanMapper)) {
+            assertNotNull(location.getAddr());
+            total += location.getNum();
+        }
+        assertEquals(total, 2210);
+        
+        RowMapper<LocationValue> ctorMapper = RowMappers.forConstructor(TestQuery.GET_RESULT_PACKAGE, LocationValue.class);
+        total = 0;
+        for (LocationValue location : DatabaseUtils.iterate(TestQuery.GET_RESULT_PACKAGE, 0, ctorMapper)) {
+            assertNotNull(location.addr);
+            total += location.num;
+        }
+        assertEquals(total, 2210);
+    }
+    
+    @Test(dependsOnMethods={"mapRows"})
+    public void remapRows() {
+        RowMapper<Location> beanMapper = RowMappers.forBean(Location.class);
+        int total = 0;
+        for (Location location : DatabaseUtils.iterate(TestQuery.GET_RESULT_PACKAGE, 0, beanMapper)) {
+            total += location.getNum();
+        }
+        assertEquals(total, 2210);
+        
+        total = 0;
+        for (Location location : DatabaseUtils.iterate(TestQuery.GET_SWAPPED, 0, beanMapper)) {
+            assertNotNull(location.getAddr());
+            total += location.getNum();
+        }
+        assertEquals(total, 2210);
+        
+        RowMapper<Location> cachedBean = RowMappers.forBean(TestQuery.GET_SWAPPED, Location.class);
+        RowMapper<LocationValue> cachedCtor = RowMappers.forConstructor(TestQuery.GET_SWAPPED, LocationValue.class);
+        assertSame(RowMappers.forBean(TestQuery.GET_SWAPPED, Location.class), cachedBean);
+        assertSame(RowMappers.forConstructor(TestQuery.GET_SWAPPED, LocationValue.class), cachedCtor);
+    }
+    
+    @Test(dependsOnMethods={"mapRows"})
+    public void fanOutAsync() throws InterruptedException, ExecutionException {
+        ListenableFuture<Integer> num = DatabaseUtils.getIntAsync(TestQuery.GET_NUM);
+        ListenableFuture<String> addr = DatabaseUtils.getStringAsync(TestQuery.GET_STR);
+        
+        assertEquals(num.get().intValue(), 1910);
+        assertEquals(addr.get(), "Union St.");
+    }
+    
+    @Test(dependsOnMethods={"fanOutAsync"})
+    public void connectionReuse() {
+        ConnectionPool pool = ConnectionPool.getPool(TestQuery.connection());
+        
+        DatabaseUtils.getInt(TestQuery.GET_NUM);
+        int idleCount = pool.getIdleCount();
+        ResultPackage pkg = DatabaseUtils.getResultPackage(TestQuery.GET_RESULT_PACKAGE);
+        assertEquals(pool.getActiveCount(), 1);
+        assertEquals(pool.getIdleCount(), idleCount - 1);
+        pkg.close();
+        
+        assertEquals(pool.getActiveCount(), 0);
+        assertEquals(pool.getIdleCount(), idleCount);
+    }
+    
+    @Test
+    public void brokenConnectionDiscarded() throws SQLException {
+        DatabaseUtils.update(TestQuery.DROPPED_CREATE);
+        try {
+            ConnectionPool pool = ConnectionPool.getPool(TestQuery.connection());
+            PooledConnection failing = pool.borrow();
+            failing.release();
+            
+            StoredProcedure.DROPPED_CALLS.set(0);
+            try {
+                DatabaseUtils.getInt(TestQuery.DROPPED, 1);
+                fail("Expected simulated connection failure");
+            } catch (Exception e) {
+                assertTrue(PooledConnection.isConnectionFailure(e));
+            }
+            assertTrue(failing.getConnection().isClosed(), "Failed connection should be closed");
+            
+            PooledConnection next = pool.borrow();
+            next.release();
+            assertNotSame(next, failing);
+            assertEquals(DatabaseUtils.getInt(TestQuery.DROPPED, 1), 2);
+        } finally {
+            DatabaseUtils.update(TestQuery.DROPPED_DROP);
+        }
+    }
+    
+    @Test
+    public void agedConnectionRetained() throws SQLException, InterruptedException {
+        String connectionStr = "jdbc:derby:memory:AgedDB;create=true";
+        ConnectionPool pool = ConnectionPool.configure(connectionStr, 1, 2, 1, 1000);
+        try {
+            PooledConnection warm = pool.borrow();
+            warm.release();
+            Thread.sleep(ConnectionPool.VALIDATION_BYPASS + 50);
+            
+            PooledConnection next = pool.borrow();
+            next.release();
+            assertSame(next, warm);
+            assertFalse(warm.getConnection().isClosed(), "Warm connection should be retained");
+        } finally {
+            pool.close();
+        }
+    }
+    
+    @Test(dependsOnMethods={"connectionReuse"})
+    public void statementCacheHit() {
+        ConnectionPool pool = ConnectionPool.getPool(TestQuery.connection());
+        
+        DatabaseUtils.getString(TestQuery.GET_STR);
+        long hits = pool.getStatementCacheHits();
+        long misses = pool.getStatementCacheMisses();
+        DatabaseUtils.getString(TestQuery.GET_STR);
+        
+        assertEquals(pool.getStatementCacheHits(), hits + 1);
+        assertEquals(pool.getStatementCacheMisses(), misses);
+    }
+    
+    @Test(dependsOnMethods={"statementCacheHit"})
+    public void executionMetrics() {
+        final List<String> events = new ArrayList<>();
+        ExecutionListener listener = new ExecutionListener() {
+            @Override
+            public void beforeExecution(Execution execution) {
+                events.add("before:" + execution.getName());
+            }
+            
+            @Override
+            public void afterExecution(Execution execution) {
+                events.add("after:" + execution.getName() + ":" + execution.getRowCount());
+            }
+            
+            @Override
+            public void onFailure(Execution execution, Throwable thrown) {
+                events.add("failure:" + execution.getName());
+            }
+        };
+        
+        QueryMetrics metrics = ExecutionMetrics.getMetrics(TestQuery.GET_NUM);
+        long calls = metrics.getCallCount();
+        long rows = metrics.getRowCount();
+        
+        ExecutionMetrics.addListener(listener);
+        try {
+            DatabaseUtils.getInt(TestQuery.GET_NUM);
+        } finally {
+            ExecutionMetrics.removeListener(listener);
+        }
+        
+        assertEquals(events, Arrays.asList("before:GET_NUM", "after:GET_NUM:1"));
+        assertEquals(metrics.getCallCount(), calls + 1);
+        assertEquals(metrics.getRowCount(), rows + 1);
+        assertEquals(metrics.getErrorCount(), 0);
+        assertTrue(metrics.getExecuteTime().getPercentileNanos(99.0) > 0);
+        assertTrue(ExecutionMetrics.getAllMetrics().contains(metrics));
+    }
+    
+    @Test(dependsOnMethods={"executionMetrics"})
+    public void streamingMetrics() {
+        final List<String> events = new ArrayList<>();
+        ExecutionListener listener = new ExecutionListener() {
+            @Override
+            public void beforeExecution(Execution execution) {
+            }
+            
+            @Override
+            public void afterExecution(Execution execution) {
+                events.add("after:" + execution.getName() + ":" + execution.getRowCount());
+            }
+            
+            @Override
+            public void onFailure(Execution execution, Throwable thrown) {
+                events.add("failure:" + execution.getName() + ":" + thrown.getMessage());
+            }
+        };
+        
+        QueryMetrics metrics = ExecutionMetrics.getMetrics(TestQuery.GET_RESULT_PACKAGE);
+        long rows = metrics.getRowCount();
+        long errors = metrics.getErrorCount();
+        
+        ExecutionMetrics.addListener(listener);
+        try {
+            RowIterator<String> iterator = DatabaseUtils.iterate(TestQuery.GET_RESULT_PACKAGE, 0,
+                            new RowMapper<String>() {
+                @Override
+                public String mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+                    return resultSet.getString("addr");
+                }
+            });
+            assertTrue(events.isEmpty(), "Execution completed before rows were read");
+            for (String address : iterator) {
+                assertNotNull(address);
+            }
+            assertEquals(events, Arrays.asList("after:GET_RESULT_PACKAGE:2"));
+            
+            events.clear();
+            try (RowIterator<String> failing = DatabaseUtils.iterate(TestQuery.GET_RESULT_PACKAGE, 0,
+                            new RowMapper<String>() {
+                @Override
+                public String mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+                    throw new SQLException("Simulated mapping failure");
+                }
+            })) {
+                failing.next();
+                fail("Expected mapping failure");
+            } catch (Exception e) {
+                assertEquals(e.getMessage(), "Simulated mapping failure");
+            }
+            assertEquals(events, Arrays.asList("failure:GET_RESULT_PACKAGE:Simulated mapping failure"));
+        } finally {
+            ExecutionMetrics.removeListener(listener);
+        }
+        
+        assertEquals(metrics.getRowCount(), rows + 2);
+        assertEquals(metrics.getErrorCount(), errors + 1);
+    }
+    
+    @Test(dependsOnMethods={"executionMetrics", "streamingMetrics"}, alwaysRun=true)
     public void dropTable() {
         DatabaseUtils.update(TestQuery.DROP);
     }
     
+    @Test
+    public void testUpdateBatch() {
+        try {
+            DatabaseUtils.update(TestQuery.BATCH_CREATE);
+            
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                rows.add(new Object[] {i});
+            }
+            
+            int[] counts = DatabaseUtils.updateBatch(TestQuery.BATCH_INSERT, 10, 20, rows);
+            assertEquals(counts.length, 25);
+            for (int count : counts) {
+                assertEquals(count, 1);
+            }
+            assertEquals(DatabaseUtils.getInt(TestQuery.BATCH_COUNT), 25);
+        } finally {
+            DatabaseUtils.update(TestQuery.BATCH_DROP);
+        }
+    }
+    
+    @Test(expectedExceptions = {IllegalArgumentException.class})
+    public void testUpdateBatchArgCount() {
+        DatabaseUtils.updateBatch(TestQuery.BATCH_INSERT, Collections.singletonList(new Object[] {1, 2}));
+    }
+    
+    @Test
+    public void testTransaction() {
+        ConnectionPool pool = ConnectionPool.getPool(TestQuery.connection());
+        DatabaseUtils.update(TestQuery.TXN_CREATE);
+        try {
+            try (Transaction txn = DatabaseUtils.beginTransaction(TestQuery.connection())) {
+                txn.update(TestQuery.TXN_INSERT, 1);
+                Savepoint savepoint = txn.setSavepoint();
+                txn.update(TestQuery.TXN_INSERT, 2);
+                assertEquals(txn.getInt(TestQuery.TXN_COUNT), 2);
+                txn.rollback(savepoint);
+                assertEquals(pool.getActiveCount(), 1);
+                txn.commit();
+                txn.update(TestQuery.TXN_INSERT, 3);
+            }
+            
+            assertEquals(pool.getActiveCount(), 0);
+            assertEquals(DatabaseUtils.getInt(TestQuery.TXN_COUNT), 1);
+            
+            try (Transaction txn = DatabaseUtils.beginReadOnlyTransaction(TestQuery.connection())) {
+                assertTrue(txn.isReadOnly());
+                assertEquals(txn.getInt(TestQuery.TXN_COUNT), 1);
+            }
+        } finally {
+            DatabaseUtils.update(TestQuery.TXN_DROP);
+        }
+    }
+    
+    @Test
+    public void testBulkLoad() throws IOException {
+        Path deadLetter = Paths.get("target", "bulk-dead-letter.csv");
+        Files.deleteIfExists(deadLetter);
+        String csv = "NAME,Id\r\nalpha,1\n\"b,\"\"ravo\"\"\",2\ncharlie,x\ndelta,4\necho,5\n";
+        
+        DatabaseUtils.update(TestQuery.BULK_CREATE);
+        try {
+            BulkLoader.Result result = new BulkLoader(TestQuery.BULK_INSERT).setBatchSize(2).setWriterCount(2)
+                            .setErrorPolicy(BulkLoader.ErrorPolicy.DEAD_LETTER).setDeadLetterFile(deadLetter)
+                            .load(new StringReader(csv));
+            
+            assertEquals(result.getRecordCount(), 5);
+            assertEquals(result.getLoadedCount(), 3);
+            assertEquals(result.getFailedCount(), 2);
+            assertEquals(result.getFailedBatchCount(), 1);
+            assertEquals(DatabaseUtils.getInt(TestQuery.BULK_SUM), 8);
+            assertEquals(Files.readAllLines(deadLetter, StandardCharsets.UTF_8), Arrays.asList("charlie,x", "delta,4"));
+        } finally {
+            DatabaseUtils.update(TestQuery.BULK_DROP);
+        }
+    }
+    
+    @Test
+    public void testExport() throws IOException {
+        Path targetPath = Paths.get("target", "export-test");
+        Files.createDirectories(targetPath);
+        for (String name : new String[] {"rows.csv", "rows.jsonl", "rows-1.csv"}) {
+            Files.deleteIfExists(targetPath.resolve(name));
+        }
+        
+        DatabaseUtils.update(TestQuery.EXPORT_CREATE);
+        try {
+            DatabaseUtils.update(TestQuery.EXPORT_INSERT, -42L, new java.math.BigDecimal("19.99"), true, "plain");
+            DatabaseUtils.update(TestQuery.EXPORT_INSERT, 7L, null, false, "say \"hi\",\n\u00e9t\u00e9");
+            
+            Path csv = DatabaseUtils.export(TestQuery.EXPORT_ROWS, 1, ResultExporter.Format.CSV, targetPath, "rows");
+            assertEquals(csv.getFileName().toString(), "rows.csv");
+            String text = new String(Files.readAllBytes(csv), StandardCharsets.UTF_8);
+            assertEquals(text, "ID,PRICE,FLAG,LABEL\n-42,19.99,true,plain\n7,,false,\"say \"\"hi\"\",\n\u00e9t\u00e9\"\n");
+            
+            Path jsonl = DatabaseUtils.export(TestQuery.EXPORT_ROWS, 0, ResultExporter.Format.JSON_LINES, targetPath, "rows");
+            assertEquals(Files.readAllLines(jsonl, StandardCharsets.UTF_8), Arrays.asList(
+                            "{\"ID\":-42,\"PRICE\":19.99,\"FLAG\":true,\"LABEL\":\"plain\"}",
+                            "{\"ID\":7,\"PRICE\":null,\"FLAG\":false,\"LABEL\":\"say \\\"hi\\\",\\n\u00e9t\u00e9\"}"));
+            
+            csv = DatabaseUtils.export(TestQuery.EXPORT_ROWS, 0, ResultExporter.Format.CSV, targetPath, "rows");
+            assertEquals(csv.getFileName().toString(), "rows-1.csv");
+        } finally {
+            DatabaseUtils.update(TestQuery.EXPORT_DROP);
+        }
+    }
+    
+    @Test
+    public void testRangeScans() {
+        DatabaseUtils.update(TestQuery.SCAN_CREATE);
+        try {
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                rows.add(new Object[] {i, "row" + i});
+            }
+            DatabaseUtils.updateBatch(TestQuery.SCAN_INSERT, rows);
+            
+            RowMapper<Integer> idMapper = new RowMapper<Integer>() {
+                @Override
+                public Integer mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+                    return resultSet.getInt("id");
+                }
+            };
+            
+            KeysetPager<Integer> pager = new KeysetPager<>(TestQuery.SCAN_PAGE, "id", 7, idMapper);
+            KeysetPager.Page<Integer> page = pager.page(-1, "row%");
+            assertEquals(page.getRows(), Arrays.asList(0, 1, 2, 3, 4, 5, 6));
+            assertEquals(page.getLastKey(), 6);
+            assertTrue(page.hasMore());
+            
+            int expect = 0;
+            for (Integer id : pager.rows(-1, "row%")) {
+                assertEquals(id.intValue(), expect++);
+            }
+            assertEquals(expect, 100);
+            
+            final long[] sum = new long[1];
+            long count = PartitionedScan.scan(TestQuery.SCAN_RANGE, idMapper, new PartitionedScan.RowHandler<Integer>() {
+                @Override
+                public void handle(Integer row) {
+                    sum[0] += row;
+                }
+            }, 0, 100, 4);
+            assertEquals(count, 100);
+            assertEquals(sum[0], 4950);
+            
+            try (PartitionedScan<Integer> scan = PartitionedScan.of(TestQuery.SCAN_RANGE, idMapper, 10, 13, 8)) {
+                List<Integer> ids = new ArrayList<>();
+                for (Integer id : scan) {
+                    ids.add(id);
+                }
+                Collections.sort(ids);
+                assertEquals(ids, Arrays.asList(10, 11, 12));
+            }
+            
+            assertEquals(PartitionedScan.split(0, 10, 3), new long[] {0, 4, 7, 10});
+        } finally {
+            DatabaseUtils.update(TestQuery.SCAN_DROP);
+        }
+    }
+    
+    @Test
+    public void testScalarGetters() {
+        assertEquals(DatabaseUtils.getLong(TestQuery.SCALAR_LONG, -1L, 9000000000L), 9000000000L);
+        assertEquals(DatabaseUtils.getLong(TestQuery.SCALAR_LONG, -1L, (Object) null), -1L);
+        assertEquals(DatabaseUtils.getDouble(TestQuery.SCALAR_DOUBLE, Double.NaN, 2.5d), 2.5d);
+        assertTrue(Double.isNaN(DatabaseUtils.getDouble(TestQuery.SCALAR_DOUBLE, Double.NaN, (Object) null)));
+        assertTrue(DatabaseUtils.getBoolean(TestQuery.SCALAR_BOOLEAN, false, true));
+        assertFalse(DatabaseUtils.getBoolean(TestQuery.SCALAR_BOOLEAN, true, false));
+        assertEquals(DatabaseUtils.getLong(TestQuery.SCALAR_NONE, 42L), 42L);
+        assertTrue(DatabaseUtils.getBoolean(TestQuery.SCALAR_NONE, true));
+        
+        try (Transaction txn = DatabaseUtils.beginReadOnlyTransaction(TestQuery.connection())) {
+            assertEquals(txn.getLong(TestQuery.SCALAR_LONG, 0L, 7L), 7L);
+            assertEquals(txn.getDouble(TestQuery.SCALAR_NONE, 0.5d), 0.5d);
+        }
+    }
+    
+    @Test
+    public void testRetry() {
+        DatabaseUtils.update(TestQuery.FLAKY_CREATE);
+        try {
+            QueryMetrics metrics = ExecutionMetrics.getMetrics(RetryQuery.FLAKY);
+            StoredProcedure.FLAKY_CALLS.set(0);
+            assertEquals(DatabaseUtils.getInt(RetryQuery.FLAKY, 2), 3);
+            assertEquals(metrics.getRetryCount(), 2);
+            assertEquals(RetryQuery.POLICY.getRetryCount(), 2);
+            
+            StoredProcedure.FLAKY_CALLS.set(0);
+            try {
+                DatabaseUtils.getInt(RetryQuery.FLAKY, 5);
+                fail("Expected the third failure to be thrown");
+            } catch (Exception e) {
+                assertTrue(RetryQuery.POLICY.isRetryable(e));
+            }
+            assertEquals(StoredProcedure.FLAKY_CALLS.get(), 3);
+            assertEquals(metrics.getRetryExhaustedCount(), 1);
+        } finally {
+            DatabaseUtils.update(TestQuery.FLAKY_DROP);
+        }
+    }
+    
+    @Test
+    public void testRetryConnectionFailure() throws SQLException {
+        DatabaseUtils.update(TestQuery.DROPPED_CREATE);
+        try {
+            ConnectionPool pool = ConnectionPool.getPool(TestQuery.connection());
+            PooledConnection failing = pool.borrow();
+            failing.release();
+            
+            StoredProcedure.DROPPED_CALLS.set(0);
+            assertEquals(DatabaseUtils.getInt(RetryQuery.DROPPED, 2), 3);
+            assertTrue(failing.getConnection().isClosed(), "Failed connection should be discarded before retry");
+            assertEquals(RetryQuery.RECONNECT.getRetryCount(), 2);
+        } finally {
+            DatabaseUtils.update(TestQuery.DROPPED_DROP);
+        }
+    }
+    
+    @Test
+    public void testQueryCache() {
+        DatabaseUtils.update(TestQuery.TXN_CREATE);
+        try {
+            long misses = QueryCache.getMissCount();
+            long hits = QueryCache.getHitCount();
+            assertEquals(DatabaseUtils.getInt(CacheQuery.COUNT), 0);
+            DatabaseUtils.update(TestQuery.TXN_INSERT, 1);
+            assertEquals(DatabaseUtils.getInt(CacheQuery.COUNT), 0);
+            assertEquals(QueryCache.getMissCount(), misses + 1);
+            assertEquals(QueryCache.getHitCount(), hits + 1);
+            
+            DatabaseUtils.update(CacheQuery.INSERT, 2);
+            assertEquals(DatabaseUtils.getInt(CacheQuery.COUNT), 2);
+            assertEquals(QueryCache.getMissCount(), misses + 2);
+        } finally {
+            DatabaseUtils.update(TestQuery.TXN_DROP);
+        }
+    }
+    
     @Test
     public void testInVarargs() {
         try {
@@ -138,6 +643,70 @@ public class DatabaseUtilsTest {
         assertEquals(result, "RESULT:  5 4 3");
     }
     
+    @Test
+    public void testBadBindReleasesConnection() {
+        try {
+            DatabaseUtils.update(TestQuery.IN_VARARGS);
+        } catch (Exception e) {
+        }
+        
+        ConnectionPool pool = ConnectionPool.getPool(TestQuery.connection());
+        int activeCount = pool.getActiveCount();
+        for (int i = 0; i < 3; i++) {
+            try {
+                DatabaseUtils.getString(TestSProc.IN_VARARGS, "", 5, "four");
+                fail("Expected bind of non-integer value to fail");
+            } catch (IllegalArgumentException e) {
+                assertEquals(pool.getActiveCount(), activeCount);
+            }
+        }
+        DatabaseUtils.update(TestQuery.DROP_PROC_IN);
+    }
+    
+    @Test
+    public void testParamArray() {
+        try {
+            DatabaseUtils.update(TestQuery.IN_VARARGS);
+        } catch (Exception e) {
+        }
+        
+        ParamArray params = ParamArray.forSProc(TestSProc.IN_VARARGS, 3);
+        params.setObject(1, "").setInt(2, 5).setInt(3, 4);
+        String first = DatabaseUtils.getString(TestSProc.IN_VARARGS, params);
+        params.setInt(2, 7).setInt(3, 8);
+        String second = DatabaseUtils.getString(TestSProc.IN_VARARGS, params);
+        DatabaseUtils.update(TestQuery.DROP_PROC_IN);
+        
+        assertEquals(first, "RESULT:  5 4");
+        assertEquals(second, "RESULT:  7 8");
+    }
+    
+    @Test
+    public void testParamArrayMismatch() {
+        ParamArray params = ParamArray.forSProc(TestSProc.IN_VARARGS, 3);
+        params.setInt(2, Integer.MAX_VALUE).setLong(3, Integer.MIN_VALUE);
+        try {
+            params.setDouble(2, 2.9);
+            fail("Expected double value for INTEGER parameter to be rejected");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            params.setBoolean(2, true);
+            fail("Expected boolean value for INTEGER parameter to be rejected");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            params.setLong(3, Integer.MAX_VALUE + 1L);
+            fail("Expected out-of-range value for INTEGER parameter to be rejected");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            params.setInt(1, 5);
+            fail("Expected integer value for VARCHAR parameter to be rejected");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+    
     @Test()
     public void testOutVarargs() throws SQLException {
         try {
@@ -182,6 +751,93 @@ public class DatabaseUtilsTest {
         assertEquals(out[2], 105);
     }
     
+    @Test
+    public void testStreamResults() {
+        DatabaseUtils.update(TestQuery.MULTI_RESULTS);
+        try {
+            final int[] rows = new int[2];
+            final List<String> second = new ArrayList<>();
+            OutParams out = DatabaseUtils.streamResults(TestSProc.MULTI_RESULTS, 1, new ResultsHandler() {
+                @Override
+                public void handleRow(int resultIndex, ResultSet resultSet, int rowNum) throws SQLException {
+                    rows[resultIndex]++;
+                    assertEquals(rowNum, rows[resultIndex]);
+                    if (resultIndex == 1) {
+                        second.add(resultSet.getString(1));
+                    }
+                }
+                
+                @Override
+                public void handleUpdateCount(int countIndex, int updateCount) {
+                }
+            }, 3, null);
+            assertEquals(rows[0], 3);
+            assertEquals(rows[1], 2);
+            assertEquals(second, Arrays.asList("a", "b"));
+            assertEquals(out.getInt(2), 5);
+        } finally {
+            DatabaseUtils.update(TestQuery.DROP_PROC_MULTI);
+        }
+    }
+    
+    @Test
+    public void testOutParams() {
+        try {
+            DatabaseUtils.update(TestQuery.INOUT_VARARGS);
+        } catch (Exception e) {
+        }
+        
+        OutParams out = DatabaseUtils.getOutParams(TestSProc.INOUT_VARARGS, 5, 3, 10, 100);
+        
+        DatabaseUtils.update(TestQuery.DROP_PROC_INOUT);
+        
+        assertEquals(out.getParamCount(), 4);
+        assertFalse(out.isOutput(1));
+        assertTrue(out.isOutput(4));
+        assertEquals(out.getInt(2), 8);
+        assertEquals(out.getLong(3), 15L);
+        assertEquals(out.getDouble(4), 105d);
+        assertEquals(out.getObject(4), Long.valueOf(105));
+        assertFalse(out.isNull(2));
+        try {
+            out.getInt(1);
+            fail("Expected IN parameter to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(), "Parameter 1 is not an OUT or INOUT parameter");
+        }
+    }
+    
+    public static class Location {
+        private int num;
+        private String addr;
+        
+        public int getNum() {
+            return num;
+        }
+        
+        public void setNum(int num) {
+            this.num = num;
+        }
+        
+        public String getAddr() {
+            return addr;
+        }
+        
+        public void setAddr(String addr) {
+            this.addr = addr;
+        }
+    }
+    
+    public static class LocationValue {
+        final int num;
+        final String addr;
+        
+        public LocationValue(int num, String addr) {
+            this.num = num;
+            this.addr = addr;
+        }
+    }
+    
     enum TestQuery implements QueryAPI {
         CREATE("create table location(num int, addr varchar(40))"),
         INSERT("insert into location values (?, ?)", "num", "addr"),
@@ -193,6 +849,7 @@ public class DatabaseUtilsTest {
         GET_NUM("select num from location where addr='Union St.'"),
         GET_STR("select addr from location where num=1910"),
         GET_RESULT_PACKAGE("select * from location"),
+        GET_SWAPPED("select addr, num from location"),
         DROP("drop table location"),
         IN_VARARGS("create procedure IN_VARARGS(out result varchar( 32672 ), b int ...) "
                         + "language java parameter style derby no sql deterministic "
@@ -205,7 +862,46 @@ public class DatabaseUtilsTest {
         INOUT_VARARGS("create procedure INOUT_VARARGS(seed int, inout b int ...) "
                         + "language java parameter style derby no sql deterministic "
                         + "external name 'com.nordstrom.common.jdbc.StoredProcedure.inoutVarargs'"),
-        DROP_PROC_INOUT("drop procedure INOUT_VARARGS");
+        DROP_PROC_INOUT("drop procedure INOUT_VARARGS"),
+        DROPPED_CREATE("create function DROPPED(failures int) returns int "
+                        + "language java parameter style java no sql "
+                        + "external name 'com.nordstrom.common.jdbc.StoredProcedure.dropped'"),
+        DROPPED_DROP("drop function DROPPED"),
+        DROPPED("values DROPPED(?)", "failures"),
+        MULTI_RESULTS("create procedure MULTI_RESULTS(count int, out total int) parameter style java "
+                        + "language java reads sql data dynamic result sets 2 "
+                        + "external name 'com.nordstrom.common.jdbc.StoredProcedure.multiResults'"),
+        DROP_PROC_MULTI("drop procedure MULTI_RESULTS"),
+        BATCH_CREATE("create table batch(num int)"),
+        BATCH_INSERT("insert into batch values (?)", "num"),
+        BATCH_COUNT("select count(*) from batch"),
+        BATCH_DROP("drop table batch"),
+        TXN_CREATE("create table txn(num int)"),
+        TXN_INSERT("insert into txn values (?)", "num"),
+        TXN_COUNT("select count(*) from txn"),
+        TXN_DROP("drop table txn"),
+        BULK_CREATE("create table bulk(id int, name varchar(20))"),
+        BULK_INSERT("insert into bulk values (?, ?)", "id", "name"),
+        BULK_SUM("select sum(id) from bulk"),
+        BULK_DROP("drop table bulk"),
+        EXPORT_CREATE("create table export(id bigint, price decimal(8,2), flag boolean, label varchar(40))"),
+        EXPORT_INSERT("insert into export values (?, ?, ?, ?)", "id", "price", "flag", "label"),
+        EXPORT_ROWS("select * from export order by id"),
+        EXPORT_DROP("drop table export"),
+        SCAN_CREATE("create table scan(id int, name varchar(20))"),
+        SCAN_INSERT("insert into scan values (?, ?)", "id", "name"),
+        SCAN_PAGE("select id, name from scan where name like ? and id > ? order by id fetch first ? rows only",
+                        "pattern", "lastKey", "pageSize"),
+        SCAN_RANGE("select id from scan where id >= ? and id < ?", "lowerBound", "upperBound"),
+        SCAN_DROP("drop table scan"),
+        FLAKY_CREATE("create function FLAKY(failures int) returns int "
+                        + "language java parameter style java no sql "
+                        + "external name 'com.nordstrom.common.jdbc.StoredProcedure.flaky'"),
+        FLAKY_DROP("drop function FLAKY"),
+        SCALAR_LONG("values cast(? as bigint)", "value"),
+        SCALAR_DOUBLE("values cast(? as double)", "value"),
+        SCALAR_BOOLEAN("values cast(? as boolean)", "value"),
+        SCALAR_NONE("select tableid from sys.systables where 1=0");
         
         private String query;
         private String[] args;
@@ -240,11 +936,103 @@ public class DatabaseUtilsTest {
         }
     }
     
+    enum RetryQuery implements QueryAPI, IdempotentAPI {
+        FLAKY("values FLAKY(?)", "failures"),
+        DROPPED("values DROPPED(?)", "failures");
+        
+        static final RetryPolicy POLICY = new RetryPolicy(3, 1, 5, 0.1, 10);
+        static final RetryPolicy RECONNECT = new RetryPolicy(3, 1, 5, 0.1, 10, "08");
+        
+        private String query;
+        private String[] args;
+        
+        RetryQuery(String query, String... args) {
+            this.query = query;
+            this.args = args;
+        }
+        
+        @Override
+        public String getQueryStr() {
+            return query;
+        }
+        
+        @Override
+        public String[] getArgNames() {
+            return args;
+        }
+        
+        @Override
+        public String getConnection() {
+            return TestQuery.connection();
+        }
+        
+        @Override
+        public Enum<RetryQuery> getEnum() {
+            return this;
+        }
+        
+        @Override
+        public RetryPolicy getRetryPolicy() {
+            return (this == DROPPED) ? RECONNECT : POLICY;
+        }
+    }
+    
+    enum CacheQuery implements CachedQueryAPI, InvalidatingQueryAPI {
+        INSERT("insert into txn values (?)", 0, "num"),
+        COUNT("select count(*) from txn", 60000);
+        
+        private String query;
+        private long ttlMillis;
+        private String[] args;
+        
+        CacheQuery(String query, long ttlMillis, String... args) {
+            this.query = query;
+            this.ttlMillis = ttlMillis;
+            this.args = args;
+        }
+        
+        @Override
+        public String getQueryStr() {
+            return query;
+        }
+        
+        @Override
+        public String[] getArgNames() {
+            return args;
+        }
+        
+        @Override
+        public String getConnection() {
+            return TestQuery.connection();
+        }
+        
+        @Override
+        public Enum<CacheQuery> getEnum() {
+            return this;
+        }
+        
+        @Override
+        public long getTtlMillis() {
+            return ttlMillis;
+        }
+        
+        @Override
+        public String[] getReadTables() {
+            return new String[] {"TXN"};
+        }
+        
+        @Override
+        public String[] getWriteTables() {
+            return new String[] {"txn"};
+        }
+    }
+    
     enum TestSProc implements SProcAPI {
         SHOW_ADDRESSES("SHOW_ADDRESSES()"),
         IN_VARARGS("IN_VARARGS(<, >:)", Types.VARCHAR, Types.INTEGER),
         OUT_VARARGS("OUT_VARARGS(>, <:)", Types.INTEGER, Types.INTEGER),
-        INOUT_VARARGS("INOUT_VARARGS(>, =:)", Types.INTEGER, Types.INTEGER);
+        INOUT_VARARGS("INOUT_VARARGS(>, =:)", Types.INTEGER, Types.INTEGER),
+        MULTI_RESULTS("MULTI_RESULTS(>, <)", Types.INTEGER, Types.INTEGER);
         
         private int[] argTypes;
         private String signature;
@@ -0,0 +1,110 @@
+package com.nordstrom.common.jdbc;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import org.testng.annotations.Test;
+
+public class DriverRegistryTest {
+
+    @Test
+    public void testPrefix() {
+        assertEquals(DriverRegistry.getPrefix("jdbc:derby:memory:RegistryDB"), "jdbc:derby:");
+        assertEquals(DriverRegistry.getPrefix("jdbc:oracle:thin:@host:1521:sid"), "jdbc:oracle:");
+        assertEquals(DriverRegistry.getPrefix("jdbc"), "jdbc");
+    }
+
+    @Test
+    public void testDriverIsCached() throws SQLException {
+        Driver driver = DriverRegistry.getDriver("jdbc:derby:memory:RegistryDB");
+        assertEquals(driver.getClass().getSimpleName(), "EmbeddedDriver");
+        assertSame(DriverRegistry.getDriver("jdbc:derby:memory:OtherDB"), driver);
+    }
+
+    @Test
+    public void testSharedPrefix() throws SQLException {
+        StubDriver first = new StubDriver("jdbc:stub:first");
+        StubDriver second = new StubDriver("jdbc:stub:second");
+        DriverRegistry.register("jdbc:stub:", first);
+        DriverManager.registerDriver(second);
+        try {
+            assertSame(DriverRegistry.getDriver("jdbc:stub:second/db"), second);
+            assertSame(DriverRegistry.getDriver("jdbc:stub:first/db"), first);
+        } finally {
+            DriverManager.deregisterDriver(second);
+        }
+        assertSame(DriverRegistry.getDriver("jdbc:stub:second/other"), second);
+    }
+
+    @Test
+    public void testConnect() throws SQLException {
+        try (Connection connection = DriverRegistry.connect("jdbc:derby:memory:RegistryDB;create=true")) {
+            assertTrue(connection.isValid(1));
+        }
+    }
+
+    @Test
+    public void testNoSuitableDriver() {
+        try {
+            DriverRegistry.getDriver("jdbc:nosuch:db");
+            fail("Expected no driver to be found");
+        } catch (SQLException e) {
+            assertEquals(e.getSQLState(), "08001");
+        }
+    }
+
+    static class StubDriver implements Driver {
+
+        private final String urlPrefix;
+
+        StubDriver(String urlPrefix) {
+            this.urlPrefix = urlPrefix;
+        }
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            return null;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith(urlPrefix);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.nordstrom.common.jdbc;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketBounds() {
+        long[] values = {0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789L, Long.MAX_VALUE};
+        for (long value : values) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.indexOf(value));
+            assertTrue(upper >= value);
+            assertTrue(upper - value <= value / 8);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(histogram.getCount(), 100);
+        assertEquals(histogram.getMaxNanos(), 100000L);
+        assertEquals(histogram.getMeanNanos(), 50500L);
+        long p50 = histogram.getPercentileNanos(50.0);
+        assertTrue((p50 >= 50000L) && (p50 <= 50000L * 9 / 8), "p50: " + p50);
+        assertEquals(histogram.getPercentileNanos(100.0), 100000L);
+    }
+}
@@ -0,0 +1,93 @@
+package com.nordstrom.common.jdbc;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.testng.annotations.Test;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+
+public class ListArgsTest {
+
+    private static final String CONNECTION = "jdbc:derby:memory:ListDB;create=true";
+
+    @Test
+    public void testBucket() {
+        assertEquals(ListArgs.bucket(0), 0);
+        assertEquals(ListArgs.bucket(1), 1);
+        assertEquals(ListArgs.bucket(2), 2);
+        assertEquals(ListArgs.bucket(3), 4);
+        assertEquals(ListArgs.bucket(8), 8);
+        assertEquals(ListArgs.bucket(9), 16);
+    }
+
+    @Test
+    public void testExpand() {
+        ListArgs expanded = ListArgs.expand("select * from t where a = ? and b in ( ? ) and c = any(?)",
+                        new Object[] {0, Arrays.asList(1, 2, 3), Arrays.asList(4, 5)});
+        assertEquals(expanded.getSql(), "select * from t where a = ? and b in ( ?,?,?,? ) and c = any(?)");
+        assertEquals(expanded.getArgs(), new Object[] {0, 1, 2, 3, 3, Arrays.asList(4, 5)});
+    }
+
+    @Test
+    public void testExpandSkipsLiterals() {
+        ListArgs expanded = ListArgs.expand("select 'in (?)' from t where b IN (?)",
+                        new Object[] {Arrays.asList("x", "y")});
+        assertEquals(expanded.getSql(), "select 'in (?)' from t where b IN (?,?)");
+        assertEquals(expanded.getArgs(), new Object[] {"x", "y"});
+    }
+
+    @Test(expectedExceptions = {IllegalArgumentException.class},
+                    expectedExceptionsMessageRegExp = "Empty list supplied for IN list argument 1")
+    public void testEmptyList() {
+        ListArgs.expand("select * from t where b in (?)", new Object[] {Collections.emptyList()});
+    }
+
+    @Test
+    public void testInListQuery() {
+        ConnectionPool pool = ConnectionPool.getPool(CONNECTION);
+        long misses = pool.getStatementCacheMisses();
+        assertEquals(DatabaseUtils.getInt(ListQuery.COUNT, Arrays.asList("SYSTABLES")), 1);
+        assertEquals(DatabaseUtils.getInt(ListQuery.COUNT, Arrays.asList("SYSTABLES", "SYSCOLUMNS")), 2);
+        assertEquals(DatabaseUtils.getInt(ListQuery.COUNT, Arrays.asList("SYSTABLES", "SYSCOLUMNS", "SYSVIEWS")), 3);
+        assertEquals(DatabaseUtils.getInt(ListQuery.COUNT,
+                        Arrays.asList("SYSTABLES", "SYSCOLUMNS", "SYSVIEWS", "SYSKEYS")), 4);
+        assertEquals(DatabaseUtils.getInt(ListQuery.COUNT,
+                        Arrays.asList("SYSTABLES", "SYSCOLUMNS", "SYSVIEWS", "SYSKEYS", "NO_SUCH_TABLE")), 4);
+        assertEquals(pool.getStatementCacheMisses(), misses + 4);
+    }
+
+    enum ListQuery implements QueryAPI {
+        COUNT("select count(*) from sys.systables where tablename in (?)", "names");
+
+        private String query;
+        private String[] args;
+
+        ListQuery(String query, String... args) {
+            this.query = query;
+            this.args = args;
+        }
+
+        @Override
+        public String getQueryStr() {
+            return query;
+        }
+
+        @Override
+        public String[] getArgNames() {
+            return args;
+        }
+
+        @Override
+        public String getConnection() {
+            return CONNECTION;
+        }
+
+        @Override
+        public Enum<ListQuery> getEnum() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.nordstrom.common.jdbc;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+import com.nordstrom.common.jdbc.DatabaseUtils.ResultPackage;
+import com.nordstrom.common.jdbc.ResultPackageTracker.OpenPackage;
+
+public class ResultPackageTrackerTest {
+
+    @AfterMethod
+    public void restoreDefaults() {
+        ResultPackageTracker.setHoldThreshold(ResultPackageTracker.DEFAULT_HOLD_THRESHOLD_MILLIS,
+                        ResultPackageTracker.DEFAULT_FORCE_CLOSE);
+        ResultPackageTracker.setStackSampleRate(ResultPackageTracker.DEFAULT_STACK_SAMPLE_RATE);
+    }
+
+    @Test
+    public void testOpenPackageGauge() throws SQLException {
+        ResultPackageTracker.setStackSampleRate(1);
+        int before = ResultPackageTracker.getOpenCount();
+        try (ResultPackage pkg = DatabaseUtils.getResultPackage(TrackerQuery.TABLES)) {
+            assertTrue(pkg.getResultSet().next(), "Result set should have rows");
+            assertEquals(ResultPackageTracker.getOpenCount(), before + 1);
+            OpenPackage open = findOpen(TrackerQuery.TABLES);
+            assertNotNull(open, "Open package not listed");
+            assertEquals(open.getSql(), TrackerQuery.TABLES.getQueryStr());
+            assertEquals(open.getThreadName(), Thread.currentThread().getName());
+            assertNotNull(open.getOpenedAt(), "Opening stack not captured");
+        }
+        assertEquals(ResultPackageTracker.getOpenCount(), before);
+        assertEquals(findOpen(TrackerQuery.TABLES), null);
+    }
+
+    @Test
+    public void testForcedClose() throws InterruptedException {
+        long violations = ResultPackageTracker.getHoldViolationCount();
+        long forced = ResultPackageTracker.getForcedCloseCount();
+        ResultPackageTracker.setHoldThreshold(50, true);
+        ResultPackage pkg = DatabaseUtils.getResultPackage(TrackerQuery.TABLES);
+        try {
+            long deadline = System.currentTimeMillis() + 10000;
+            while ((ResultPackageTracker.getForcedCloseCount() == forced) && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(20);
+            }
+            assertEquals(ResultPackageTracker.getForcedCloseCount(), forced + 1);
+            assertTrue(ResultPackageTracker.getHoldViolationCount() > violations);
+            assertEquals(findOpen(TrackerQuery.TABLES), null);
+            assertTrue(pkg.getStatement().isClosed(), "Statement should be closed");
+        } catch (java.sql.SQLException e) {
+            fail("Unable to check statement", e);
+        } finally {
+            pkg.close();
+        }
+    }
+
+    @Test
+    public void testUnreachableReclaimed() throws InterruptedException {
+        long reclaimed = ResultPackageTracker.getReclaimedCount();
+        openAndDrop();
+        long deadline = System.currentTimeMillis() + 10000;
+        while ((ResultPackageTracker.getReclaimedCount() == reclaimed) && (System.currentTimeMillis() < deadline)) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertEquals(ResultPackageTracker.getReclaimedCount(), reclaimed + 1);
+        assertEquals(findOpen(TrackerQuery.TABLES), null);
+    }
+
+    @Test
+    public void testExposedNotReclaimed() throws InterruptedException, SQLException {
+        long reclaimed = ResultPackageTracker.getReclaimedCount();
+        ResultSet resultSet = DatabaseUtils.getResultPackage(TrackerQuery.TABLES).getResultSet();
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        int rows = 0;
+        while (resultSet.next()) {
+            assertNotNull(resultSet.getString(1));
+            rows++;
+        }
+        assertTrue(rows > 0, "Result set should have rows");
+        assertEquals(ResultPackageTracker.getReclaimedCount(), reclaimed);
+        assertNotNull(findOpen(TrackerQuery.TABLES), "Exposed package should remain open");
+
+        long forced = ResultPackageTracker.getForcedCloseCount();
+        ResultPackageTracker.setHoldThreshold(50, true);
+        long deadline = System.currentTimeMillis() + 10000;
+        while ((ResultPackageTracker.getForcedCloseCount() == forced) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(20);
+        }
+        assertEquals(findOpen(TrackerQuery.TABLES), null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeThreshold() {
+        ResultPackageTracker.setHoldThreshold(-1, false);
+    }
+
+    private static void openAndDrop() {
+        DatabaseUtils.getResultPackage(TrackerQuery.TABLES);
+    }
+
+    private static OpenPackage findOpen(Enum<?> constant) {
+        List<OpenPackage> packages = ResultPackageTracker.getOpenPackages();
+        for (OpenPackage open : packages) {
+            if (open.getConstant() == constant) {
+                return open;
+            }
+        }
+        return null;
+    }
+
+    enum TrackerQuery implements QueryAPI {
+        TABLES("select tablename from sys.systables");
+
+        private String query;
+
+        TrackerQuery(String query) {
+            this.query = query;
+        }
+
+        @Override
+        public String getQueryStr() {
+            return query;
+        }
+
+        @Override
+        public String[] getArgNames() {
+            return new String[0];
+        }
+
+        @Override
+        public String getConnection() {
+            return "jdbc:derby:memory:TrackerDB;create=true";
+        }
+
+        @Override
+        public Enum<TrackerQuery> getEnum() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.nordstrom.common.jdbc;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void testClassification() {
+        RetryPolicy policy = new RetryPolicy(3, 10, 100, 0.1, 10, "40", "08");
+        assertTrue(policy.isRetryable(new SQLException("deadlock", "40001")));
+        assertTrue(policy.isRetryable(new SQLException("lock timeout", "40XL1")));
+        assertTrue(policy.isRetryable(new SQLTransientConnectionException("refused")));
+        assertFalse(policy.isRetryable(new SQLTimeoutException("timeout")));
+        assertFalse(policy.isRetryable(new SQLException("syntax", "42X01")));
+        
+        SQLException wrapped = new SQLException("routine failed", "38000");
+        wrapped.setNextException(new SQLException("serialization", "40001"));
+        assertTrue(policy.isRetryable(new RuntimeException(wrapped)));
+    }
+
+    @Test
+    public void testDelay() {
+        RetryPolicy policy = new RetryPolicy(10, 10, 100, 0.1, 10);
+        for (int retry = 1; retry <= 10; retry++) {
+            long cap = Math.min(10L << (retry - 1), 100);
+            for (int i = 0; i < 20; i++) {
+                long delay = policy.getDelayNanos(retry);
+                assertTrue((delay >= 0) && (delay <= TimeUnit.MILLISECONDS.toNanos(cap)), "delay: " + delay);
+            }
+        }
+    }
+
+    @Test
+    public void testBudget() {
+        RetryPolicy policy = new RetryPolicy(5, 0, 0, 0.5, 2, "40");
+        QueryMetrics metrics = new QueryMetrics(Thread.State.NEW);
+        SQLException deadlock = new SQLException("deadlock", "40001");
+        
+        assertTrue(policy.retry(metrics, deadlock, 1));
+        assertTrue(policy.retry(metrics, deadlock, 1));
+        assertFalse(policy.retry(metrics, deadlock, 1));
+        assertEquals(policy.getRejectedCount(), 1);
+        
+        policy.attempted();
+        policy.attempted();
+        assertEquals(policy.getAvailableBudget(), 1.0);
+        assertTrue(policy.retry(metrics, deadlock, 1));
+        assertFalse(policy.retry(metrics, deadlock, 5));
+        
+        assertEquals(metrics.getRetryCount(), 3);
+        assertEquals(metrics.getRetryRejectedCount(), 1);
+        assertEquals(metrics.getRetryExhaustedCount(), 1);
+    }
+}
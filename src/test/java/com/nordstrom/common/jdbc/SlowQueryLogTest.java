@@ -0,0 +1,93 @@
+package com.nordstrom.common.jdbc;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+
+public class SlowQueryLogTest {
+
+    @Test
+    public void testSlowQueryRecord() throws IOException {
+        Path file = Paths.get("target", "slow-query-test", "slow.log");
+        Files.deleteIfExists(file);
+        
+        SlowQueryLog log = new SlowQueryLog(file, 1000, 1048576, 2, "password");
+        log.setThreshold(LogQuery.LOGIN, 0);
+        
+        Execution fast = new Execution(LogQuery.LOOKUP, LogQuery.LOOKUP.getQueryStr(), new Object[] {1});
+        log.afterExecution(fast);
+        
+        Execution slow = new Execution(LogQuery.LOGIN, LogQuery.LOGIN.getQueryStr(), new Object[] {"jdoe", "hunter2"});
+        slow.acquired();
+        log.afterExecution(slow);
+        log.close();
+        
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(lines.size(), 1);
+        String line = lines.get(0);
+        assertTrue(line.contains("constant=LOGIN"), line);
+        assertTrue(line.contains("args=[jdoe, ***]"), line);
+        assertTrue(line.contains("rows=-1"), line);
+    }
+
+    @Test
+    public void testRolling() throws IOException {
+        Path file = Paths.get("target", "slow-query-test", "rolling.log");
+        for (int i = 0; i <= 2; i++) {
+            Files.deleteIfExists(Paths.get(file + ((i > 0) ? "." + i : "")));
+        }
+        
+        SlowQueryLog log = new SlowQueryLog(file, 0, 100, 1);
+        log.setThreshold(LogQuery.LOOKUP, 0);
+        for (int i = 0; i < 5; i++) {
+            log.afterExecution(new Execution(LogQuery.LOOKUP, LogQuery.LOOKUP.getQueryStr(), new Object[] {i}));
+        }
+        log.close();
+        
+        assertTrue(Files.exists(Paths.get(file + ".1")));
+        assertTrue(!Files.exists(Paths.get(file + ".2")));
+    }
+
+    enum LogQuery implements QueryAPI {
+        LOOKUP("select name from users where id=?", "id"),
+        LOGIN("select id from users where name=? and password=?", "name", "password");
+
+        private String query;
+        private String[] args;
+
+        LogQuery(String query, String... args) {
+            this.query = query;
+            this.args = args;
+        }
+
+        @Override
+        public String getQueryStr() {
+            return query;
+        }
+
+        @Override
+        public String[] getArgNames() {
+            return args;
+        }
+
+        @Override
+        public String getConnection() {
+            return null;
+        }
+
+        @Override
+        public Enum<LogQuery> getEnum() {
+            return this;
+        }
+    }
+}
@@ -4,10 +4,16 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransactionRollbackException;
 import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class StoredProcedure {
 
+    static final AtomicInteger FLAKY_CALLS = new AtomicInteger();
+    static final AtomicInteger DROPPED_CALLS = new AtomicInteger();
+
     public static void showAddresses(ResultSet[] rs) throws SQLException {
         Connection con = DriverManager.getConnection("jdbc:default:connection");
         String query = "select NUM, ADDR from LOCATION";
@@ -15,6 +21,15 @@ public class StoredProcedure {
         rs[0] = stmt.executeQuery(query);
     }
 
+    public static void multiResults(int count, int[] total, ResultSet[] first, ResultSet[] second)
+                    throws SQLException {
+        Connection con = DriverManager.getConnection("jdbc:default:connection");
+        first[0] = con.createStatement().executeQuery(
+                        "select tableid from sys.systables fetch first " + count + " rows only");
+        second[0] = con.createStatement().executeQuery("values 'a', 'b'");
+        total[0] = count + 2;
+    }
+
     //////////////////////////
     //
     // IN, OUT, IN/OUT PARAMETERS
@@ -61,4 +76,32 @@ public class StoredProcedure {
             }
         }
     }
+
+    //////////////////////////
+    //
+    // TRANSIENT FAILURES
+    //
+    //////////////////////////
+
+    public static int flaky(int failures) throws SQLException {
+        int call = FLAKY_CALLS.incrementAndGet();
+        if (call <= failures) {
+            throw new SQLTransactionRollbackException("Simulated deadlock victim", "40001");
+        }
+        return call;
+    }
+
+    //////////////////////////
+    //
+    // CONNECTION FAILURES
+    //
+    //////////////////////////
+
+    public static int dropped(int failures) throws SQLException {
+        int call = DROPPED_CALLS.incrementAndGet();
+        if (call <= failures) {
+            throw new SQLNonTransientConnectionException("Simulated connection failure", "08006");
+        }
+        return call;
+    }
 }
@@ -0,0 +1,194 @@
+package com.nordstrom.common.jdbc;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.testng.annotations.Test;
+
+import com.nordstrom.common.jdbc.DatabaseUtils.QueryAPI;
+import com.nordstrom.common.jdbc.DatabaseUtils.SProcAPI;
+
+public class WarmUpTest {
+
+    private static final String CONNECTION = "jdbc:derby:memory:WarmDB;create=true";
+
+    @Test
+    public void testWarmUp() {
+        DatabaseUtils.warmUp(WarmQuery.class);
+        ConnectionPool pool = ConnectionPool.getPool(CONNECTION);
+        assertEquals(pool.getIdleCount(), 1);
+        assertEquals(pool.getStatementCacheMisses(), 2);
+        
+        long hits = pool.getStatementCacheHits();
+        assertEquals(DatabaseUtils.getInt(WarmQuery.ONE), 1);
+        assertEquals(DatabaseUtils.getInt(WarmQuery.TABLES, "SYSTABLES"), 1);
+        assertEquals(pool.getStatementCacheHits(), hits + 2);
+    }
+
+    @Test
+    public void testDefectiveQueries() {
+        try {
+            DatabaseUtils.warmUp(BadQuery.class);
+            fail("Expected warm-up to fail");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("2 problem(s)"), e.getMessage());
+            assertTrue(e.getMessage().contains("BadQuery.TOO_FEW: query has 2 place-holders; 1 argument names"),
+                            e.getMessage());
+            assertTrue(e.getMessage().contains("BadQuery.NO_CONNECTION"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testUnpreparableQuery() {
+        try {
+            DatabaseUtils.warmUp(MissingQuery.class);
+            fail("Expected warm-up to fail");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("Failed to prepare [select * from no_such_table]"), e.getMessage());
+            assertTrue(e.getCause() instanceof SQLException);
+        }
+    }
+
+    @Test
+    public void testDefectiveProcedures() {
+        try {
+            DatabaseUtils.warmUpStoredProcedures(BadSProc.class);
+            fail("Expected warm-up to fail");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("BadSProc.UNBALANCED"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCountPlaceholders() {
+        assertEquals(WarmUp.countPlaceholders("select * from t where a=? and b=?"), 2);
+        assertEquals(WarmUp.countPlaceholders("select '?', \"what?\" from t where a=? -- why?\n and b=?"), 2);
+        assertEquals(WarmUp.countPlaceholders("select 'it''s?' from t /* ? */ where a=?"), 1);
+    }
+
+    enum WarmQuery implements QueryAPI {
+        ONE("values 1"),
+        TABLES("select count(*) from sys.systables where tablename=?", "name");
+
+        private String query;
+        private String[] args;
+
+        WarmQuery(String query, String... args) {
+            this.query = query;
+            this.args = args;
+        }
+
+        @Override
+        public String getQueryStr() {
+            return query;
+        }
+
+        @Override
+        public String[] getArgNames() {
+            return args;
+        }
+
+        @Override
+        public String getConnection() {
+            return CONNECTION;
+        }
+
+        @Override
+        public Enum<WarmQuery> getEnum() {
+            return this;
+        }
+    }
+
+    enum BadQuery implements QueryAPI {
+        TOO_FEW("select * from t where a=? and b=?", "a"),
+        NO_CONNECTION("values 1");
+
+        private String query;
+        private String[] args;
+
+        BadQuery(String query, String... args) {
+            this.query = query;
+            this.args = args;
+        }
+
+        @Override
+        public String getQueryStr() {
+            return query;
+        }
+
+        @Override
+        public String[] getArgNames() {
+            return args;
+        }
+
+        @Override
+        public String getConnection() {
+            return (this == NO_CONNECTION) ? null : CONNECTION;
+        }
+
+        @Override
+        public Enum<BadQuery> getEnum() {
+            return this;
+        }
+    }
+
+    enum MissingQuery implements QueryAPI {
+        MISSING;
+
+        @Override
+        public String getQueryStr() {
+            return "select * from no_such_table";
+        }
+
+        @Override
+        public String[] getArgNames() {
+            return new String[0];
+        }
+
+        @Override
+        public String getConnection() {
+            return "jdbc:derby:memory:MissingDB;create=true";
+        }
+
+        @Override
+        public Enum<MissingQuery> getEnum() {
+            return this;
+        }
+    }
+
+    enum BadSProc implements SProcAPI {
+        UNBALANCED("UNBALANCED(>, <)", Types.INTEGER);
+
+        private String signature;
+        private int[] argTypes;
+
+        BadSProc(String signature, int... argTypes) {
+            this.signature = signature;
+            this.argTypes = argTypes;
+        }
+
+        @Override
+        public String getSignature() {
+            return signature;
+        }
+
+        @Override
+        public int[] getArgTypes() {
+            return argTypes;
+        }
+
+        @Override
+        public String getConnection() {
+            return CONNECTION;
+        }
+
+        @Override
+        public Enum<BadSProc> getEnum() {
+            return this;
+        }
+    }
+}